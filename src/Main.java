@@ -11,28 +11,29 @@ public class Main {
 
     public static void main(String[] args) {
         LocalDateTime baseTime = LocalDateTime.of(2025, 5, 6, 10, 0);
+        TaskManager manager = Managers.getDefault();
 
         // Создайте две задачи, эпик с тремя подзадачами и эпик без подзадач.
         Task shoppingTask = new Task("Сходить в магазин", "Купить продуктов на неделю",
-                InMemoryTaskManager.getNewId(), baseTime, 10);
+                manager.newId(), baseTime, 10);
         Task cleaningTask = new Task("Убраться дома", "Протереть пыль, помыть полы, убрать вещи",
-                InMemoryTaskManager.getNewId(), baseTime.plusHours(1), 20);
+                manager.newId(), baseTime.plusHours(1), 20);
         Epic understandingEncapsulationInOOP = new Epic("Пройти тему ООП. Инкапсуляция",
-                "Пройти все уроки и выполнить все упражнения", InMemoryTaskManager.getNewId());
+                "Пройти все уроки и выполнить все упражнения", manager.newId());
         Subtask completeFirstLesson = new Subtask("Выполнить первый урок",
                 "Прочитать теорию и выполнить практику",
-                InMemoryTaskManager.getNewId(), baseTime.plusHours(3), 60,
+                manager.newId(), baseTime.plusHours(3), 60,
                 understandingEncapsulationInOOP.getId());
         Subtask completeSecondLesson = new Subtask("Выполнить второй урок",
                 "Прочитать теорию и выполнить практику",
-                InMemoryTaskManager.getNewId(), baseTime.plusHours(4), 40,
+                manager.newId(), baseTime.plusHours(4), 40,
                 understandingEncapsulationInOOP.getId());
         Subtask completeFirstLesson2 = new Subtask("Выполнить первый урок",
                 "Прочитать теорию и выполнить практику",
-                InMemoryTaskManager.getNewId(), baseTime.plusHours(5), 80,
+                manager.newId(), baseTime.plusHours(5), 80,
                 understandingEncapsulationInOOP.getId());
         Epic understandingEncapsulationInOOP2 = new Epic("Пройти тему ООП. Инкапсуляция",
-                "Пройти все уроки и выполнить все упражнения", InMemoryTaskManager.getNewId());
+                "Пройти все уроки и выполнить все упражнения", manager.newId());
 
 
         List<Subtask> subtasks = new ArrayList<>();
@@ -42,7 +43,6 @@ public class Main {
 
         understandingEncapsulationInOOP.setSubTasks(subtasks);
 
-        TaskManager manager = Managers.getDefault();
         HistoryManager historyManager = manager.getHistoryManager();
 
         manager.createTask(shoppingTask);
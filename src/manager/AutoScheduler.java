@@ -0,0 +1,248 @@
+package manager;
+
+import exception.TaskScheduleConflictException;
+import task.Subtask;
+import task.Task;
+import task.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+// Раскладывает задачи без времени по свободному времени горизонта [from, to). Жадно: первой ставится
+// задача с более ранним концом окна, при равном — более длинная, и каждая занимает самый ранний
+// подходящий промежуток своего окна. Занятое время хранится в дереве интервалов, как в менеджере,
+// поэтому поставленные задачи проходят ту же проверку пересечений.
+// Заявки делятся на группы с пересекающимися окнами; группы друг другу не мешают и раскладываются
+// параллельно, а результат от этого не зависит. Всё найденное записывается одним пакетом updateTasks.
+// Если расписание успели занять между расчётом и записью, расчёт повторяется.
+// Из заявки на уже сохранённую задачу берутся только id, длительность и окно: ставится сохранённая
+// задача, и её название, статус и эпик не затираются данными заявки.
+public class AutoScheduler {
+    private static final int ATTEMPTS = 3;
+
+    private final TaskManager taskManager;
+
+    public AutoScheduler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    // null вместо конца горизонта — горизонт открыт справа.
+    public ScheduleResult schedule(Collection<PlacementRequest> requests, LocalDateTime from, LocalDateTime to) {
+        if (from == null) {
+            throw new IllegalArgumentException("Не задано начало горизонта планирования");
+        }
+        LocalDateTime end = to == null ? LocalDateTime.MAX : to;
+        if (!from.isBefore(end)) {
+            throw new IllegalArgumentException("Начало горизонта должно быть раньше его конца");
+        }
+        for (int attempt = 1; ; attempt++) {
+            ScheduleResult result = plan(validate(requests, from, end), end);
+            try {
+                if (!result.getScheduled().isEmpty()) {
+                    taskManager.updateTasks(result.getScheduled());
+                }
+                return result;
+            } catch (TaskScheduleConflictException e) {
+                if (attempt == ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Placement[] validate(Collection<PlacementRequest> requests, LocalDateTime from, LocalDateTime to) {
+        IntHashMap<Task> byId = new IntHashMap<>(requests.size());
+        Placement[] placements = new Placement[requests.size()];
+        int i = 0;
+        for (PlacementRequest request : requests) {
+            Task requested = request.getTask();
+            Task stored = stored(requested.getId());
+            Task task = stored == null ? requested : stored;
+            if (task.getType() == TaskType.EPIC) {
+                throw new IllegalArgumentException("Время эпика " + task.getId() + " считается по подзадачам");
+            }
+            if (InMemoryTaskManager.hasTime(task)) {
+                throw new IllegalArgumentException("Задача " + task.getId() + " уже в расписании");
+            }
+            Duration duration = requested.getDuration() == null ? task.getDuration() : requested.getDuration();
+            if (duration == null || duration.isZero() || duration.isNegative()) {
+                throw new IllegalArgumentException("У задачи " + task.getId() + " нет длительности");
+            }
+            if (byId.put(task.getId(), task) != null) {
+                throw new IllegalArgumentException("Задача " + task.getId() + " запрошена дважды");
+            }
+            LocalDateTime earliest = request.getEarliest();
+            LocalDateTime latest = request.getLatest();
+            placements[i++] = new Placement(task, duration,
+                    earliest != null && earliest.isAfter(from) ? earliest : from,
+                    latest != null && latest.isBefore(to) ? latest : to);
+        }
+        return placements;
+    }
+
+    // Задачи, окно которых кончается с горизонтом, жадный порядок всё равно ставит последними, поэтому
+    // они раскладываются отдельно после групп: иначе одна такая задача связала бы все окна в одну группу.
+    private ScheduleResult plan(Placement[] placements, LocalDateTime end) {
+        List<Task> unplaced = new ArrayList<>();
+        List<Placement> bounded = new ArrayList<>(placements.length);
+        List<Placement> open = new ArrayList<>();
+        for (Placement placement : placements) {
+            if (!placement.fitsWindow()) {
+                unplaced.add(placement.task);
+            } else if (placement.to.isBefore(end)) {
+                bounded.add(placement);
+            } else {
+                open.add(placement);
+            }
+        }
+        Placement[] fitting = bounded.toArray(new Placement[0]);
+        Arrays.parallelSort(fitting, Comparator.comparing((Placement placement) -> placement.from));
+
+        List<Group> groups = new ArrayList<>();
+        for (Placement placement : fitting) {
+            Group last = groups.isEmpty() ? null : groups.get(groups.size() - 1);
+            if (last == null || !placement.from.isBefore(last.to)) {
+                last = new Group(placement.from);
+                groups.add(last);
+            }
+            last.add(placement);
+        }
+        if (!groups.isEmpty()) {
+            assignBusyTime(groups);
+        }
+        groups.parallelStream().forEach(Group::place);
+
+        List<Task> scheduled = new ArrayList<>(placements.length);
+        for (Group group : groups) {
+            scheduled.addAll(group.scheduled);
+            unplaced.addAll(group.unplaced);
+        }
+        if (!open.isEmpty()) {
+            Group tail = new Group(open.stream().map(placement -> placement.from).min(Comparator.naturalOrder())
+                    .orElseThrow());
+            open.forEach(tail::add);
+            assignBusyTime(List.of(tail));
+            for (Task task : scheduled) {
+                ScheduleEntry entry = ScheduleEntry.of(task);
+                if (entry.overlaps(tail.window())) {
+                    tail.busy.add(entry);
+                }
+            }
+            tail.place();
+            scheduled.addAll(tail.scheduled);
+            unplaced.addAll(tail.unplaced);
+        }
+        return new ScheduleResult(scheduled, unplaced);
+    }
+
+    // Расписание читается из менеджера одним запросом, и каждая занятая запись достаётся группам,
+    // окна которых она пересекает: первая — двоичным поиском по концам групп.
+    private void assignBusyTime(List<Group> groups) {
+        LocalDateTime[] ends = new LocalDateTime[groups.size()];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = groups.get(i).to;
+        }
+        List<Task> busy = taskManager.getTasksOverlapping(groups.get(0).from, ends[ends.length - 1]);
+        for (Task task : busy) {
+            ScheduleEntry entry = ScheduleEntry.of(task);
+            int position = Arrays.binarySearch(ends, task.getStartTime());
+            int first = position >= 0 ? position + 1 : -position - 1;
+            for (int i = first; i < groups.size() && groups.get(i).window().startsBeforeEndOf(entry); i++) {
+                if (entry.overlaps(groups.get(i).window())) {
+                    groups.get(i).busy.add(entry);
+                }
+            }
+        }
+    }
+
+    // Сохранённая задача с этим id или null. Читается выборкой, а не getById, чтобы планирование
+    // не попадало в историю просмотров.
+    private Task stored(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        List<Task> found = taskManager.query(TaskQuery.all().withCursor(String.valueOf(id - 1)).withLimit(1));
+        return found.isEmpty() || found.get(0).getId() != id ? null : found.get(0);
+    }
+
+    // Копия задачи с назначенным началом и длительностью: ни заявки, ни сохранённые задачи не меняются.
+    private static Task placed(Task task, LocalDateTime start, Duration duration) {
+        Task copy = task instanceof Subtask subtask
+                ? new Subtask(task.getName(), task.getDescription(), task.getId(), subtask.getEpicId(),
+                task.getStatus())
+                : new Task(task.getName(), task.getDescription(), task.getId(), task.getStatus());
+        copy.setStartTime(start);
+        copy.setDuration(duration);
+        return copy;
+    }
+
+    private static final class Placement {
+        private final Task task;
+        private final Duration duration;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        private Placement(Task task, Duration duration, LocalDateTime from, LocalDateTime to) {
+            this.task = task;
+            this.duration = duration;
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean fitsWindow() {
+            return from.isBefore(to) && Duration.between(from, to).compareTo(duration) >= 0;
+        }
+    }
+
+    // Заявки с пересекающимися окнами и занятое время в их общем окне [from, to).
+    private static final class Group {
+        private static final Comparator<Placement> ORDER = Comparator
+                .comparing((Placement placement) -> placement.to)
+                .thenComparing(placement -> placement.duration, Comparator.reverseOrder())
+                .thenComparingInt(placement -> placement.task.getId());
+
+        private final LocalDateTime from;
+        private LocalDateTime to;
+        private final List<Placement> placements = new ArrayList<>();
+        private final IntervalTree busy = new IntervalTree(ScheduleEntry::compareByStartAndId);
+        private final List<Task> scheduled = new ArrayList<>();
+        private final List<Task> unplaced = new ArrayList<>();
+
+        private Group(LocalDateTime from) {
+            this.from = from;
+            this.to = from;
+        }
+
+        private void add(Placement placement) {
+            placements.add(placement);
+            if (placement.to.isAfter(to)) {
+                to = placement.to;
+            }
+        }
+
+        private ScheduleEntry window() {
+            return ScheduleEntry.of(-1, from, to);
+        }
+
+        private void place() {
+            placements.sort(ORDER);
+            for (Placement placement : placements) {
+                FreeSlotSearch search = new FreeSlotSearch(placement.duration, placement.from,
+                        placement.to, 1);
+                List<TimeSlot> slot = busy.freeSlots(search);
+                if (slot.isEmpty()) {
+                    unplaced.add(placement.task);
+                    continue;
+                }
+                Task task = placed(placement.task, slot.get(0).getStart(), placement.duration);
+                busy.add(ScheduleEntry.of(task));
+                scheduled.add(task);
+            }
+        }
+    }
+}
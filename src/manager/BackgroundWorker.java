@@ -0,0 +1,76 @@
+package manager;
+
+import exception.ManagerSaveException;
+
+class BackgroundWorker implements Runnable {
+    private final String name;
+    private final long intervalMillis;
+    private final Runnable action;
+    private final Thread thread;
+
+    private boolean requested;
+    private boolean stopped;
+
+    BackgroundWorker(String name, long intervalMillis, Runnable action) {
+        this.name = name;
+        this.intervalMillis = intervalMillis;
+        this.action = action;
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    synchronized void request() {
+        requested = true;
+        notifyAll();
+    }
+
+    void stop() {
+        synchronized (this) {
+            stopped = true;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (awaitNextRun()) {
+            try {
+                action.run();
+            } catch (ManagerSaveException e) {
+                System.err.println(name + ": не удалось сохранить изменения: " + e.getMessage());
+            }
+        }
+    }
+
+    // Без интервала поток просыпается только по явному запросу.
+    private synchronized boolean awaitNextRun() {
+        long deadline = System.currentTimeMillis() + intervalMillis;
+        try {
+            while (!stopped && !requested) {
+                if (intervalMillis == 0) {
+                    wait();
+                    continue;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        requested = false;
+        return !stopped;
+    }
+}
@@ -0,0 +1,274 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Формат снимка: "JKB", байт версии, словарь строк (имена и описания), затем записи задач.
+// Запись: байт флагов (тип, статус, наличие времени), id, индексы строк в словаре, id эпика,
+// начало в минутах от эпохи и длительность в минутах. Числа пишутся как varint (знаковые - zigzag).
+class BinaryTaskCodec {
+    static final byte[] MAGIC = {'J', 'K', 'B'};
+    static final byte VERSION = 1;
+
+    private static final int TYPE_MASK = 0b11;
+    private static final int STATUS_SHIFT = 2;
+    private static final int STATUS_MASK = 0b11;
+    private static final int HAS_START = 1 << 4;
+    private static final int HAS_DURATION = 1 << 5;
+    private static final int HAS_SUB_MINUTE = 1 << 6;
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private BinaryTaskCodec() {
+    }
+
+    static boolean isBinary(Path path) {
+        byte[] head = new byte[MAGIC.length];
+        try (InputStream in = new FileInputStream(path.toFile())) {
+            return in.readNBytes(head, 0, head.length) == head.length && Arrays.equals(head, MAGIC);
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    static byte[] encode(Collection<Task> tasks) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        Output records = new Output(tasks.size() * 16);
+
+        records.writeVarLong(tasks.size());
+        for (Task task : tasks) {
+            TaskType type = task.getType();
+            LocalDateTime start = type == TaskType.EPIC ? null : task.getStartTime();
+            Duration duration = type == TaskType.EPIC ? null : task.getDuration();
+
+            int flags = type.ordinal();
+            if (task.getStatus() != null) {
+                flags |= (task.getStatus().ordinal() + 1) << STATUS_SHIFT;
+            }
+            if (start != null) {
+                flags |= HAS_START;
+                if (start.getSecond() != 0 || start.getNano() != 0) {
+                    flags |= HAS_SUB_MINUTE;
+                }
+            }
+            if (duration != null) {
+                flags |= HAS_DURATION;
+            }
+
+            records.writeByte(flags);
+            records.writeVarLong(zigzag(task.getId()));
+            records.writeVarLong(intern(task.getName(), dictionary, strings));
+            records.writeVarLong(intern(task.getDescription(), dictionary, strings));
+            if (type == TaskType.SUBTASK) {
+                records.writeVarLong(zigzag(((Subtask) task).getEpicId()));
+            }
+            if (start != null) {
+                records.writeVarLong(zigzag(Math.floorDiv(start.toEpochSecond(ZoneOffset.UTC), 60)));
+                if ((flags & HAS_SUB_MINUTE) != 0) {
+                    records.writeVarLong(start.getSecond() * 1_000_000_000L + start.getNano());
+                }
+            }
+            if (duration != null) {
+                records.writeVarLong(zigzag(duration.toMinutes()));
+            }
+        }
+
+        Output out = new Output(records.size + strings.size() * 32 + 16);
+        out.writeBytes(MAGIC, 0, MAGIC.length);
+        out.writeByte(VERSION);
+        out.writeVarLong(strings.size());
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeVarLong(bytes.length);
+            out.writeBytes(bytes, 0, bytes.length);
+        }
+        out.writeBytes(records.buffer, 0, records.size);
+        return out.toByteArray();
+    }
+
+    static List<Task> read(Path path) {
+        try {
+            return decode(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    static List<Task> decode(byte[] data) {
+        Input in = new Input(data);
+        for (byte expected : MAGIC) {
+            if (in.readByte() != expected) {
+                throw new ManagerSaveException("Файл не является бинарным снимком задач");
+            }
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new ManagerSaveException("Неподдерживаемая версия бинарного снимка: " + version);
+        }
+
+        String[] strings = new String[(int) in.readVarLong()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = StringPool.getDefault().intern(in.readString((int) in.readVarLong()));
+        }
+
+        int count = (int) in.readVarLong();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int flags = in.readByte();
+            TaskType type = TYPES[flags & TYPE_MASK];
+            int statusCode = (flags >>> STATUS_SHIFT) & STATUS_MASK;
+            TaskStatus status = statusCode == 0 ? null : STATUSES[statusCode - 1];
+
+            int id = (int) unzigzag(in.readVarLong());
+            String name = lookup(strings, in.readVarLong());
+            String description = lookup(strings, in.readVarLong());
+            int epicId = type == TaskType.SUBTASK ? (int) unzigzag(in.readVarLong()) : -1;
+
+            LocalDateTime start = null;
+            if ((flags & HAS_START) != 0) {
+                long epochMinute = unzigzag(in.readVarLong());
+                long nanoOfMinute = (flags & HAS_SUB_MINUTE) != 0 ? in.readVarLong() : 0;
+                start = LocalDateTime.ofEpochSecond(epochMinute * 60 + nanoOfMinute / 1_000_000_000L,
+                        (int) (nanoOfMinute % 1_000_000_000L), ZoneOffset.UTC);
+            }
+            Duration duration = (flags & HAS_DURATION) != 0
+                    ? Duration.ofMinutes(unzigzag(in.readVarLong()))
+                    : null;
+
+            Task task = switch (type) {
+                case TASK -> new Task(name, description, id, status);
+                case EPIC -> new Epic(name, description, id, status);
+                case SUBTASK -> new Subtask(name, description, id, epicId, status);
+            };
+            if (type != TaskType.EPIC) {
+                task.setStartTime(start);
+                task.setDuration(duration);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static long intern(String value, Map<String, Integer> dictionary, List<String> strings) {
+        if (value == null) {
+            return 0;
+        }
+        Integer index = dictionary.get(value);
+        if (index == null) {
+            index = strings.size();
+            dictionary.put(value, index);
+            strings.add(value);
+        }
+        return index + 1;
+    }
+
+    private static String lookup(String[] strings, long index) {
+        return index == 0 ? null : strings[(int) index - 1];
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        Output(int capacity) {
+            buffer = new byte[Math.max(capacity, 16)];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new ManagerSaveException("Бинарный снимок обрезан");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new ManagerSaveException("Некорректное число в бинарном снимке");
+        }
+
+        String readString(int length) {
+            if (position + length > buffer.length) {
+                throw new ManagerSaveException("Бинарный снимок обрезан");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Неизменяемое состояние доски на момент одной завершённой записи: задачи по типам,
+// расписание и запись расписания каждой задачи. Новая версия строится из старой
+// и делит с ней все неизменившиеся узлы.
+final class BoardSnapshot {
+    private static final BoardSnapshot EMPTY = new BoardSnapshot(PersistentIntMap.empty(),
+            PersistentIntMap.empty(), PersistentIntMap.empty(), PersistentIntMap.empty(),
+            PersistentIntervalTree.empty());
+
+    private final PersistentIntMap<Task> tasks;
+    private final PersistentIntMap<Task> subTasks;
+    private final PersistentIntMap<Task> epics;
+    private final PersistentIntMap<ScheduleEntry> scheduledById;
+    private final PersistentIntervalTree schedule;
+
+    private BoardSnapshot(PersistentIntMap<Task> tasks, PersistentIntMap<Task> subTasks,
+                          PersistentIntMap<Task> epics, PersistentIntMap<ScheduleEntry> scheduledById,
+                          PersistentIntervalTree schedule) {
+        this.tasks = tasks;
+        this.subTasks = subTasks;
+        this.epics = epics;
+        this.scheduledById = scheduledById;
+        this.schedule = schedule;
+    }
+
+    static BoardSnapshot empty() {
+        return EMPTY;
+    }
+
+    // Изменения одной записи: id -> новая версия задачи или null, если задача удалена.
+    // Если запись начиналась с очистки доски, изменения накладываются на пустое состояние.
+    BoardSnapshot apply(Map<Integer, Task> changes, boolean cleared) {
+        PersistentIntMap<Task> tasks = cleared ? PersistentIntMap.empty() : this.tasks;
+        PersistentIntMap<Task> subTasks = cleared ? PersistentIntMap.empty() : this.subTasks;
+        PersistentIntMap<Task> epics = cleared ? PersistentIntMap.empty() : this.epics;
+        PersistentIntMap<ScheduleEntry> scheduledById = cleared ? PersistentIntMap.empty() : this.scheduledById;
+        PersistentIntervalTree schedule = cleared ? PersistentIntervalTree.empty() : this.schedule;
+
+        for (Map.Entry<Integer, Task> change : changes.entrySet()) {
+            int id = change.getKey();
+            Task task = change.getValue();
+
+            tasks = tasks.remove(id);
+            subTasks = subTasks.remove(id);
+            epics = epics.remove(id);
+            ScheduleEntry previous = scheduledById.get(id);
+            if (previous != null) {
+                scheduledById = scheduledById.remove(id);
+                schedule = schedule.remove(previous);
+            }
+            if (task == null) {
+                continue;
+            }
+
+            switch (task.getType()) {
+                case TASK -> tasks = tasks.put(id, task);
+                case SUBTASK -> subTasks = subTasks.put(id, task);
+                case EPIC -> epics = epics.put(id, task);
+            }
+            if (task.getType() != TaskType.EPIC && InMemoryTaskManager.hasTime(task)) {
+                ScheduleEntry entry = ScheduleEntry.of(task);
+                scheduledById = scheduledById.put(id, entry);
+                schedule = schedule.add(entry);
+            }
+        }
+        return new BoardSnapshot(tasks, subTasks, epics, scheduledById, schedule);
+    }
+
+    Task get(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = subTasks.get(id);
+        }
+        if (task == null) {
+            task = epics.get(id);
+        }
+        return task;
+    }
+
+    // Все задачи по возрастанию id, как их отдаёт обычный менеджер.
+    List<Task> getAll() {
+        List<Task> plain = getAll(TaskType.TASK);
+        List<Task> epicList = getAll(TaskType.EPIC);
+        List<Task> subTaskList = getAll(TaskType.SUBTASK);
+        List<Task> result = new ArrayList<>(plain.size() + epicList.size() + subTaskList.size());
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < plain.size() || j < epicList.size() || k < subTaskList.size()) {
+            int first = i < plain.size() ? plain.get(i).getId() : Integer.MAX_VALUE;
+            int second = j < epicList.size() ? epicList.get(j).getId() : Integer.MAX_VALUE;
+            int third = k < subTaskList.size() ? subTaskList.get(k).getId() : Integer.MAX_VALUE;
+            if (i < plain.size() && first <= second && first <= third) {
+                result.add(plain.get(i++));
+            } else if (j < epicList.size() && second <= third) {
+                result.add(epicList.get(j++));
+            } else {
+                result.add(subTaskList.get(k++));
+            }
+        }
+        return result;
+    }
+
+    List<Task> getAll(TaskType type) {
+        PersistentIntMap<Task> source = mapOf(type);
+        List<Task> result = new ArrayList<>(source.size());
+        source.forEach(result::add);
+        return result;
+    }
+
+    ArrayList<Task> getSubTaskByEpic(int epicId) {
+        if (!(epics.get(epicId) instanceof Epic epic)) {
+            return new ArrayList<>();
+        }
+        ArrayList<Task> result = new ArrayList<>();
+        epic.getSubTasks().forEach(subtask -> result.add(get(subtask.getId())));
+        return result;
+    }
+
+    List<Task> getSortedTasksByTime() {
+        List<Task> sorted = new ArrayList<>(schedule.size());
+        schedule.forEach(entry -> sorted.add(get(entry.getId())));
+        return Collections.unmodifiableList(sorted);
+    }
+
+    // Индекса статусов в снимке нет: кандидаты берутся из подзадач эпика, задач типа
+    // или окна расписания — смотря что меньше. Карты обходятся по возрастанию id, а окно —
+    // по началу, поэтому страница после курсора читается с нужного места.
+    List<Task> query(TaskQuery query) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<Task> candidates = null;
+        int best = Integer.MAX_VALUE;
+        if (query.getEpicId() != null) {
+            if (!(epics.get(query.getEpicId()) instanceof Epic epic)) {
+                return List.of();
+            }
+            candidates = new ArrayList<>();
+            for (Subtask subtask : epic.getSubTasks()) {
+                candidates.add(subTasks.get(subtask.getId()));
+            }
+            best = candidates.size();
+        }
+        PersistentIntMap<Task> typed = null;
+        if (query.getType() != null && mapOf(query.getType()).size() < best) {
+            typed = mapOf(query.getType());
+            candidates = null;
+            best = typed.size();
+        }
+
+        int pageSize = query.pageSize();
+        if (query.hasWindow()) {
+            int probe = best;
+            int[] seen = new int[1];
+            List<Task> page = new ArrayList<>();
+            schedule.forEachOverlapping(query.window(), query.afterEntry(), entry -> {
+                if (seen[0]++ == probe) {
+                    return false;
+                }
+                Task task = get(entry.getId());
+                if (task != null && query.matches(task)) {
+                    page.add(task);
+                }
+                return page.size() < pageSize;
+            });
+            if (seen[0] <= probe) {
+                return page;
+            }
+        } else if (candidates == null) {
+            // Без эпика страница собирается из карт по возрастанию id, а без типа — из каждой
+            // карты по странице, после чего три страницы сливаются.
+            List<Task> result = new ArrayList<>();
+            for (PersistentIntMap<Task> source : typed != null ? List.of(typed) : List.of(tasks, subTasks, epics)) {
+                int[] added = new int[1];
+                source.forEachFrom(query.hasCursor() ? query.afterId() + 1 : 0, task -> {
+                    if (query.matches(task)) {
+                        result.add(task);
+                        added[0]++;
+                    }
+                    return added[0] < pageSize;
+                });
+            }
+            return page(result, query);
+        }
+
+        List<Task> result = new ArrayList<>();
+        List<Task> source = candidates != null ? candidates : new ArrayList<>();
+        if (candidates == null) {
+            typed.forEach(source::add);
+        }
+        for (Task task : source) {
+            if (task != null && query.matches(task) && query.isAfterCursor(task)) {
+                result.add(task);
+            }
+        }
+        return page(result, query);
+    }
+
+    private static List<Task> page(List<Task> result, TaskQuery query) {
+        result.sort(query.order());
+        return result.size() > query.pageSize() ? new ArrayList<>(result.subList(0, query.pageSize())) : result;
+    }
+
+    private PersistentIntMap<Task> mapOf(TaskType type) {
+        return switch (type) {
+            case TASK -> tasks;
+            case SUBTASK -> subTasks;
+            case EPIC -> epics;
+        };
+    }
+
+    List<TimeSlot> findFreeSlots(FreeSlotSearch search) {
+        return schedule.freeSlots(search);
+    }
+
+    List<Task> getTasksOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<ScheduleEntry> entries = new ArrayList<>();
+        schedule.collectOverlapping(ScheduleEntry.of(-1, from, to), entries);
+        return entries.stream()
+                .map(entry -> get(entry.getId()))
+                .toList();
+    }
+}
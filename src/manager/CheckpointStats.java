@@ -0,0 +1,65 @@
+package manager;
+
+import java.time.LocalDateTime;
+
+public class CheckpointStats {
+    private final long checkpointCount;
+    private final LocalDateTime lastCheckpointTime;
+    private final long lastCheckpointDurationMillis;
+    private final long lastCheckpointVersion;
+    private final long lastSnapshotBytes;
+    private final long journalRecords;
+    private final long journalBytes;
+
+    CheckpointStats(long checkpointCount, LocalDateTime lastCheckpointTime, long lastCheckpointDurationMillis,
+                    long lastCheckpointVersion, long lastSnapshotBytes, long journalRecords, long journalBytes) {
+        this.checkpointCount = checkpointCount;
+        this.lastCheckpointTime = lastCheckpointTime;
+        this.lastCheckpointDurationMillis = lastCheckpointDurationMillis;
+        this.lastCheckpointVersion = lastCheckpointVersion;
+        this.lastSnapshotBytes = lastSnapshotBytes;
+        this.journalRecords = journalRecords;
+        this.journalBytes = journalBytes;
+    }
+
+    public long getCheckpointCount() {
+        return checkpointCount;
+    }
+
+    public LocalDateTime getLastCheckpointTime() {
+        return lastCheckpointTime;
+    }
+
+    public long getLastCheckpointDurationMillis() {
+        return lastCheckpointDurationMillis;
+    }
+
+    public long getLastCheckpointVersion() {
+        return lastCheckpointVersion;
+    }
+
+    public long getLastSnapshotBytes() {
+        return lastSnapshotBytes;
+    }
+
+    public long getJournalRecords() {
+        return journalRecords;
+    }
+
+    public long getJournalBytes() {
+        return journalBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointStats{" +
+                "checkpointCount=" + checkpointCount +
+                ", lastCheckpointTime=" + lastCheckpointTime +
+                ", lastCheckpointDurationMillis=" + lastCheckpointDurationMillis +
+                ", lastCheckpointVersion=" + lastCheckpointVersion +
+                ", lastSnapshotBytes=" + lastSnapshotBytes +
+                ", journalRecords=" + journalRecords +
+                ", journalBytes=" + journalBytes +
+                '}';
+    }
+}
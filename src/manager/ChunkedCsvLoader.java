@@ -0,0 +1,155 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class ChunkedCsvLoader {
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int SCAN_WINDOW = 8 * 1024;
+
+    private ChunkedCsvLoader() {
+    }
+
+    // Файл отображается в память кусками и разбирается параллельно в общем fork-join пуле.
+    // Перевод строки внутри поля в кавычках не является концом записи, поэтому границы кусков
+    // выравниваются по чётности числа кавычек: сначала каждый кусок считает свои кавычки,
+    // затем по префиксным суммам находит первую настоящую границу записи.
+    static List<Task> load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] recordStarts = recordStarts(channel);
+            List<List<Task>> parsed = IntStream.range(0, recordStarts.length - 1).parallel()
+                    .mapToObj(i -> parse(channel, recordStarts[i], recordStarts[i + 1]))
+                    .toList();
+
+            List<Task> result = new ArrayList<>(parsed.stream().mapToInt(List::size).sum());
+            parsed.forEach(result::addAll);
+            return result;
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    // Границы кусков, выровненные по началу записей: кусок i занимает [starts[i], starts[i + 1]).
+    static long[] recordStarts(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long dataStart = headerEnd(channel, size);
+        long[] bounds = split(dataStart, size);
+        int chunks = bounds.length - 1;
+
+        int[] quotes = IntStream.range(0, chunks).parallel()
+                .map(i -> countQuotes(map(channel, bounds[i], bounds[i + 1])))
+                .toArray();
+        boolean[] startsInQuotes = new boolean[chunks];
+        int total = 0;
+        for (int i = 0; i < chunks; i++) {
+            startsInQuotes[i] = (total & 1) == 1;
+            total += quotes[i];
+        }
+
+        long[] recordStarts = new long[chunks + 1];
+        IntStream.range(0, chunks).parallel().forEach(i -> recordStarts[i] = i == 0
+                ? bounds[0]
+                : firstRecordStart(map(channel, bounds[i], bounds[i + 1]), bounds[i], startsInQuotes[i]));
+        recordStarts[chunks] = size;
+        for (int i = chunks - 1; i > 0; i--) {
+            if (recordStarts[i] < 0) {
+                recordStarts[i] = recordStarts[i + 1];
+            }
+        }
+        return recordStarts;
+    }
+
+    private static long[] split(long from, long size) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, (size - from) / (parallelism * 4L) + 1);
+        chunkSize = Math.min(chunkSize, Integer.MAX_VALUE);
+
+        int chunks = (int) Math.max(1, (size - from + chunkSize - 1) / chunkSize);
+        long[] bounds = new long[chunks + 1];
+        for (int i = 0; i < chunks; i++) {
+            bounds[i] = from + i * chunkSize;
+        }
+        bounds[chunks] = size;
+        return bounds;
+    }
+
+    private static long headerEnd(FileChannel channel, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW);
+        long position = 0;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    static MappedByteBuffer map(FileChannel channel, long from, long to) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    // Байты '"' и '\n' в UTF-8 не встречаются внутри многобайтовых символов, поэтому считать можно по байтам.
+    private static int countQuotes(ByteBuffer bytes) {
+        int count = 0;
+        for (int i = 0, limit = bytes.limit(); i < limit; i++) {
+            if (bytes.get(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Возвращает -1, если в куске нет ни одной границы записи: тогда он целиком принадлежит предыдущей записи.
+    private static long firstRecordStart(ByteBuffer bytes, long chunkStart, boolean inQuotes) {
+        int limit = bytes.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = bytes.get(i);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                return chunkStart + i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Task> parse(FileChannel channel, long from, long to) {
+        List<Task> tasks = new ArrayList<>();
+        if (from >= to) {
+            return tasks;
+        }
+
+        CharBuffer chars = StandardCharsets.UTF_8.decode(map(channel, from, to));
+        int offset = chars.arrayOffset() + chars.position();
+        CsvTaskReader reader = new CsvTaskReader(chars.array(), offset, offset + chars.remaining());
+        Task task;
+        while ((task = reader.next()) != null) {
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,555 @@
+package manager;
+
+import exception.NotFoundException;
+import exception.TaskScheduleConflictException;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+// Менеджер для досок на миллионы задач: задачи хранятся по столбцам (TaskColumns), расписание —
+// упорядоченное множество long (начало в минутах и id), счётчики статусов эпиков — в массивах.
+// Объекты Task создаются только при выдаче наружу, поэтому изменять выданную задачу бесполезно:
+// чтобы изменение попало в хранилище, задачу нужно передать в updateTask.
+// Как и InMemoryTaskManager, не потокобезопасен.
+public class ColumnarTaskManager implements TaskManager {
+    private static final String OVERLAP_WARNING_MESSAGE =
+            "Задача пересекается по времени с другой задачей в расписании";
+    private static final int UNDEFINED_MINUTE = TaskColumns.toMinute(InMemoryTaskManager.UNDEFINED_TIME);
+    private static final byte NEW = (byte) TaskStatus.NEW.ordinal();
+    private static final byte DONE = (byte) TaskStatus.DONE.ordinal();
+
+    private final TaskColumns columns = new TaskColumns();
+    private final LongSortedSet schedule = new LongSortedSet();
+    // Id живых строк по возрастанию: страница по id читается с курсора, а не сбором всех строк.
+    private final LongSortedSet idOrder = new LongSortedSet();
+    // Для эпика: всего подзадач, новых и выполненных; для остальных строк не используются.
+    private final IntHashMap<int[]> epicCounts = new IntHashMap<>();
+    private final HistoryManager historyManager = Managers.getDefaultHistory();
+    private final IdAllocator ids = new IdAllocator();
+    // Строится при первом поиске, как и в InMemoryTaskManager.
+    private TextIndex textIndex;
+    // Самая длинная задача в расписании: пересечение с [from, to) ищется среди начал из [from - max, to).
+    private int maxScheduledDuration;
+
+    @Override
+    public int newId() {
+        int id = ids.next();
+        while (columns.find(id) != TaskColumns.NO_ROW) {
+            id = ids.next();
+        }
+        return id;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    // Подсчёт по столбцам типа и статуса без сборки задач; status == null — любой статус.
+    public int count(TaskType type, TaskStatus status) {
+        byte typeCode = (byte) type.ordinal();
+        int statusCode = status == null ? -1 : status.ordinal();
+        int count = 0;
+        for (int row = 0, limit = columns.rowLimit(); row < limit; row++) {
+            if (columns.typeCode(row) == typeCode && (statusCode < 0 || columns.statusCode(row) == statusCode)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Task> getAll() {
+        List<Task> all = new ArrayList<>(columns.size());
+        for (int row = 0, limit = columns.rowLimit(); row < limit; row++) {
+            if (columns.isLive(row)) {
+                all.add(columns.toTask(row));
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return getAllOfType(TaskType.TASK);
+    }
+
+    @Override
+    public List<Task> getAllSubTasks() {
+        return getAllOfType(TaskType.SUBTASK);
+    }
+
+    @Override
+    public List<Task> getAllEpics() {
+        return getAllOfType(TaskType.EPIC);
+    }
+
+    private List<Task> getAllOfType(TaskType type) {
+        byte typeCode = (byte) type.ordinal();
+        List<Task> result = new ArrayList<>();
+        for (int row = 0, limit = columns.rowLimit(); row < limit; row++) {
+            if (columns.typeCode(row) == typeCode) {
+                result.add(columns.toTask(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Task getById(int id) {
+        int row = columns.find(id);
+        if (row == TaskColumns.NO_ROW) {
+            return null;
+        }
+        Task task = columns.toTask(row);
+        historyManager.add(task);
+        return task;
+    }
+
+    @Override
+    public ArrayList<Task> getSubTaskByEpic(int epicId) {
+        int epicRow = columns.find(epicId);
+        if (epicRow == TaskColumns.NO_ROW || columns.type(epicRow) != TaskType.EPIC) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(columns.childTasks(epicRow));
+    }
+
+    @Override
+    public void createTask(Task task) throws TaskScheduleConflictException {
+        check(task);
+        write(task);
+    }
+
+    @Override
+    public void updateTask(Task task) throws TaskScheduleConflictException {
+        check(task);
+        write(task);
+    }
+
+    @Override
+    public void createTasks(Collection<? extends Task> batch) throws TaskScheduleConflictException {
+        writeBatch(batch);
+    }
+
+    @Override
+    public void updateTasks(Collection<? extends Task> batch) throws TaskScheduleConflictException {
+        writeBatch(batch);
+    }
+
+    // Пакет проверяется целиком до первой записи: пересечения внутри пакета — заметающей прямой
+    // по интервалам, отсортированным по началу и концу, с расписанием — поиском по нему,
+    // не учитывая прежние интервалы задач самого пакета. Эпики пакета пишутся первыми.
+    private void writeBatch(Collection<? extends Task> batch) {
+        IntHashMap<Task> byId = new IntHashMap<>(batch.size());
+        for (Task task : batch) {
+            if (byId.put(task.getId(), task) != null) {
+                throw new IllegalArgumentException("В пакете повторяется id " + task.getId());
+            }
+        }
+
+        // Интервал упакован в long: начало в старших 32 битах, длительность в младших,
+        // поэтому сортировка чисел — это сортировка по началу, а при равном начале — по концу.
+        long[] intervals = new long[batch.size()];
+        int count = 0;
+        for (Task task : batch) {
+            if (task instanceof Subtask subtask && !(byId.get(subtask.getEpicId()) instanceof Epic)) {
+                epicRowOf(subtask);
+            }
+            int start = TaskColumns.toMinute(task.getStartTime());
+            if (task.getType() != TaskType.EPIC && isScheduled(start)) {
+                int duration = Math.max(durationOf(task), 0);
+                if (overlapsScheduled(start * 60L, (start + (long) duration) * 60L, byId::containsKey)) {
+                    throw new TaskScheduleConflictException(OVERLAP_WARNING_MESSAGE);
+                }
+                intervals[count++] = ((long) start << 32) | duration;
+            }
+        }
+
+        Arrays.sort(intervals, 0, count);
+        long latestEnd = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            long start = intervals[i] >> 32;
+            if (start < latestEnd) {
+                throw new TaskScheduleConflictException(OVERLAP_WARNING_MESSAGE);
+            }
+            latestEnd = Math.max(latestEnd, start + (intervals[i] & 0xFFFFFFFFL));
+        }
+
+        for (Task task : batch) {
+            if (task.getType() == TaskType.EPIC) {
+                write(task);
+            }
+        }
+        for (Task task : batch) {
+            if (task.getType() != TaskType.EPIC) {
+                write(task);
+            }
+        }
+    }
+
+    private void check(Task task) {
+        if (task instanceof Subtask subtask) {
+            epicRowOf(subtask);
+        }
+        int start = TaskColumns.toMinute(task.getStartTime());
+        if (task.getType() != TaskType.EPIC && isScheduled(start)
+                && overlapsScheduled(start * 60L, (start + (long) durationOf(task)) * 60L, id -> id == task.getId())) {
+            throw new TaskScheduleConflictException(OVERLAP_WARNING_MESSAGE);
+        }
+    }
+
+    private int epicRowOf(Subtask subtask) {
+        int epicRow = columns.find(subtask.getEpicId());
+        if (epicRow == TaskColumns.NO_ROW || columns.type(epicRow) != TaskType.EPIC) {
+            throw new NotFoundException("Эпик с id=" + subtask.getEpicId() + " не найден");
+        }
+        return epicRow;
+    }
+
+    private static int durationOf(Task task) {
+        return task.getDuration() == null ? 0 : (int) task.getDuration().toMinutes();
+    }
+
+    // Запись без проверок: вызывающий уже убедился, что эпик есть, а интервал свободен.
+    private void write(Task task) {
+        TaskType type = task.getType();
+        int epicRow = task instanceof Subtask subtask ? epicRowOf(subtask) : TaskColumns.NO_ROW;
+        ids.advanceTo(task.getId() + 1L);
+
+        int row = columns.find(task.getId());
+        if (row != TaskColumns.NO_ROW && columns.type(row) != type) {
+            // Задача с тем же id другого типа заменяет прежнюю целиком.
+            deleteById(task.getId());
+            row = TaskColumns.NO_ROW;
+        }
+        // Подзадача, оставшаяся в том же эпике, сохраняет своё место в списке, меняются только счётчики.
+        boolean sameEpic = false;
+        if (row != TaskColumns.NO_ROW) {
+            unschedule(row);
+            if (type == TaskType.SUBTASK) {
+                sameEpic = columns.epicId(row) == ((Subtask) task).getEpicId();
+                if (sameEpic) {
+                    countChild(epicRow, row, -1);
+                } else {
+                    detachFromEpic(row);
+                }
+            }
+        }
+
+        row = columns.write(task);
+        idOrder.add(task.getId());
+        if (textIndex != null) {
+            textIndex.put(task.getId(), task.getName(), task.getDescription());
+        }
+        if (type == TaskType.EPIC) {
+            epicCounts.putIfAbsent(task.getId(), new int[3]);
+            return;
+        }
+        schedule(row);
+        if (sameEpic) {
+            countChild(epicRow, row, 1);
+        } else if (type == TaskType.SUBTASK) {
+            columns.appendChild(epicRow, row);
+            countChild(epicRow, row, 1);
+        }
+    }
+
+    @Override
+    public void deleteById(int id) {
+        int row = columns.find(id);
+        if (row == TaskColumns.NO_ROW) {
+            return;
+        }
+        if (columns.type(row) == TaskType.EPIC) {
+            int child = columns.firstChild(row);
+            while (child != TaskColumns.NO_ROW) {
+                int following = columns.nextChild(child);
+                removeRow(child);
+                child = following;
+            }
+            epicCounts.remove(id);
+        } else if (columns.type(row) == TaskType.SUBTASK) {
+            detachFromEpic(row);
+        }
+        removeRow(row);
+    }
+
+    @Override
+    public void deleteAll() {
+        columns.clear();
+        schedule.clear();
+        idOrder.clear();
+        epicCounts.clear();
+        if (textIndex != null) {
+            textIndex.clear();
+        }
+        maxScheduledDuration = 0;
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        deleteAllOfType(TaskType.TASK);
+    }
+
+    @Override
+    public void deleteAllSubTasks() {
+        deleteAllOfType(TaskType.SUBTASK);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        deleteAllOfType(TaskType.EPIC);
+    }
+
+    // Эпики удаляются вместе с подзадачами, поэтому одного прохода по строкам достаточно.
+    private void deleteAllOfType(TaskType type) {
+        byte typeCode = (byte) type.ordinal();
+        for (int row = 0, limit = columns.rowLimit(); row < limit; row++) {
+            if (columns.typeCode(row) == typeCode) {
+                deleteById(columns.id(row));
+            }
+        }
+    }
+
+    @Override
+    public HistoryManager getHistoryManager() {
+        return historyManager;
+    }
+
+    @Override
+    public List<Task> getSortedTasksByTime() {
+        List<Task> sorted = new ArrayList<>(schedule.size());
+        schedule.forEachFrom(Long.MIN_VALUE, key -> {
+            sorted.add(columns.toTask(columns.find(idOf(key))));
+            return true;
+        });
+        return Collections.unmodifiableList(sorted);
+    }
+
+    // Задачи, пересекающие полуинтервал [from, to), в порядке начала.
+    @Override
+    public List<Task> getTasksOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        forEachOverlapping(from.toEpochSecond(ZoneOffset.UTC), ceilSecond(to), Long.MIN_VALUE, row -> {
+            result.add(columns.toTask(row));
+            return true;
+        });
+        return result;
+    }
+
+    // Промежутков в узлах здесь нет: задачи окна идут подряд от первой, пересекающей его начало,
+    // поэтому поиск стоит O(log n + m), где m — задачи до последнего найденного промежутка.
+    @Override
+    public List<TimeSlot> findFreeSlots(Duration duration, LocalDateTime from, LocalDateTime to, int limit) {
+        FreeSlotSearch search = new FreeSlotSearch(duration, from, to, limit);
+        ScheduleEntry window = search.window();
+        forEachOverlapping(window.getStart().toEpochSecond(ZoneOffset.UTC), ceilSecond(window.getEnd()),
+                Long.MIN_VALUE, row -> {
+                    LocalDateTime start = TaskColumns.toTime(columns.start(row));
+                    return search.visit(ScheduleEntry.of(columns.id(row), start,
+                            start.plusMinutes(Math.max(columns.duration(row), 0))));
+                });
+        return search.finish();
+    }
+
+    // Индексов типа и статуса здесь нет: кандидаты — подзадачи эпика или окно расписания, если
+    // в окне не больше задач, чем у эпика; иначе строки идут по возрастанию id, а тип и статус
+    // сверяются по столбцам. Задача собирается из строки, только когда тип и статус уже подошли.
+    // Окно и порядок id начинаются с курсора и обрываются, как только страница набрана.
+    @Override
+    public List<Task> query(TaskQuery query) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        int epicRow = TaskColumns.NO_ROW;
+        int probe = Integer.MAX_VALUE;
+        if (query.getEpicId() != null) {
+            epicRow = columns.find(query.getEpicId());
+            if (epicRow == TaskColumns.NO_ROW || columns.type(epicRow) != TaskType.EPIC) {
+                return List.of();
+            }
+            probe = epicCounts.get(query.getEpicId())[0];
+        }
+
+        int pageSize = query.pageSize();
+        List<Task> result = new ArrayList<>();
+        RowVisitor collect = row -> {
+            if (rowMatches(query, row)) {
+                Task task = columns.toTask(row);
+                if (query.matches(task) && query.isAfterCursor(task)) {
+                    result.add(task);
+                }
+            }
+            return result.size() < pageSize;
+        };
+        if (query.hasWindow() && visitWindow(query, probe, collect)) {
+            return result;
+        }
+        result.clear();
+        if (epicRow == TaskColumns.NO_ROW) {
+            long from = query.hasCursor() ? query.afterId() + 1L : Long.MIN_VALUE;
+            idOrder.forEachFrom(from, id -> collect.visit(columns.find((int) id)));
+            return result;
+        }
+        // Подзадачи эпика связаны в порядке добавления, поэтому сортируются целиком.
+        List<Task> children = new ArrayList<>();
+        for (int row = columns.firstChild(epicRow); row != TaskColumns.NO_ROW; row = columns.nextChild(row)) {
+            if (rowMatches(query, row)) {
+                Task task = columns.toTask(row);
+                if (query.matches(task) && query.isAfterCursor(task)) {
+                    children.add(task);
+                }
+            }
+        }
+        children.sort(query.order());
+        return children.size() > pageSize ? new ArrayList<>(children.subList(0, pageSize)) : children;
+    }
+
+    @Override
+    public List<Task> search(String text, int afterId, int limit) {
+        SearchQuery query = SearchQuery.parse(text);
+        if (textIndex == null) {
+            textIndex = new TextIndex();
+            for (int row = 0, rows = columns.rowLimit(); row < rows; row++) {
+                if (columns.isLive(row)) {
+                    textIndex.put(columns.id(row), columns.name(row), columns.description(row));
+                }
+            }
+        }
+        return InMemoryTaskManager.pageOfIds(textIndex.search(query), afterId, limit, id -> {
+            int row = columns.find(id);
+            return row == TaskColumns.NO_ROW ? null : columns.toTask(row);
+        });
+    }
+
+    private boolean rowMatches(TaskQuery query, int row) {
+        return (query.getType() == null || columns.type(row) == query.getType())
+                && (query.getStatus() == null || columns.status(row) == query.getStatus());
+    }
+
+    // Окно с курсора; false, если в окне больше probe задач и просмотр прерван.
+    private boolean visitWindow(TaskQuery query, int probe, RowVisitor visitor) {
+        long after = query.hasCursor()
+                ? keyOf(TaskColumns.toMinute(query.afterStart()), query.afterId()) : Long.MIN_VALUE;
+        long fromSecond = query.getFrom().toEpochSecond(ZoneOffset.UTC);
+        int[] seen = new int[1];
+        forEachOverlapping(fromSecond, ceilSecond(query.getTo()), after, row -> {
+            if (seen[0]++ == probe) {
+                return false;
+            }
+            return visitor.visit(row);
+        });
+        return seen[0] <= probe;
+    }
+
+    // Начала хранятся в целых минутах, поэтому неполная секунда конца округляется вверх.
+    private static long ceilSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() > 0 ? 1 : 0);
+    }
+
+    private boolean overlapsScheduled(long fromSecond, long toSecond, IntPredicate ignored) {
+        boolean[] found = new boolean[1];
+        forEachOverlapping(fromSecond, toSecond, Long.MIN_VALUE, row -> {
+            found[0] = !ignored.test(columns.id(row));
+            return !found[0];
+        });
+        return found[0];
+    }
+
+    // Пересечение — как у ScheduleEntry: начало раньше конца интервала и конец позже его начала.
+    // Ключи не больше afterKey пропускаются: так страница окна продолжается с курсора.
+    private void forEachOverlapping(long fromSecond, long toSecond, long afterKey, RowVisitor visitor) {
+        long firstMinute = Math.floorDiv(fromSecond, 60) - maxScheduledDuration;
+        long lowest = Math.max(firstMinute, Integer.MIN_VALUE + 1L);
+        schedule.forEachFrom(Math.max(lowest << 32, afterKey + 1), key -> {
+            long startSecond = startOf(key) * 60L;
+            if (startSecond >= toSecond) {
+                return false;
+            }
+            int row = columns.find(idOf(key));
+            long endSecond = startSecond + Math.max(columns.duration(row), 0) * 60L;
+            return endSecond <= fromSecond || visitor.visit(row);
+        });
+    }
+
+    private boolean isScheduled(int start) {
+        return start != TaskColumns.NO_TIME && start != UNDEFINED_MINUTE;
+    }
+
+    private void schedule(int row) {
+        int start = columns.start(row);
+        if (isScheduled(start)) {
+            schedule.add(keyOf(start, columns.id(row)));
+            maxScheduledDuration = Math.max(maxScheduledDuration, columns.duration(row));
+        }
+    }
+
+    private void unschedule(int row) {
+        int start = columns.start(row);
+        if (isScheduled(start)) {
+            schedule.remove(keyOf(start, columns.id(row)));
+        }
+    }
+
+    private void detachFromEpic(int row) {
+        int epicRow = columns.find(columns.epicId(row));
+        if (epicRow != TaskColumns.NO_ROW) {
+            columns.unlinkChild(epicRow, row);
+            countChild(epicRow, row, -1);
+        }
+    }
+
+    // Статус эпика пересчитывается по счётчикам за O(1): NEW, если все подзадачи новые или их нет,
+    // DONE, если все выполнены, иначе IN_PROGRESS.
+    private void countChild(int epicRow, int row, int delta) {
+        int[] counts = epicCounts.get(columns.id(epicRow));
+        counts[0] += delta;
+        if (columns.statusCode(row) == NEW) {
+            counts[1] += delta;
+        } else if (columns.statusCode(row) == DONE) {
+            counts[2] += delta;
+        }
+        TaskStatus status = counts[0] == counts[1] ? TaskStatus.NEW
+                : counts[0] == counts[2] ? TaskStatus.DONE : TaskStatus.IN_PROGRESS;
+        columns.setStatus(epicRow, status);
+    }
+
+    private void removeRow(int row) {
+        unschedule(row);
+        historyManager.remove(columns.id(row));
+        idOrder.remove(columns.id(row));
+        if (textIndex != null) {
+            textIndex.remove(columns.id(row));
+        }
+        columns.free(row);
+    }
+
+    // Ключ расписания: начало в минутах в старших 32 битах и id в младших, порядок — по началу, затем по id.
+    private static long keyOf(int start, int id) {
+        return ((long) start << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static int startOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int idOf(long key) {
+        return (int) key;
+    }
+
+    private interface RowVisitor {
+        boolean visit(int row);
+    }
+}
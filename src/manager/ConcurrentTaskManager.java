@@ -0,0 +1,224 @@
+package manager;
+
+import task.Subtask;
+import task.Task;
+import task.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Менеджер для записи из нескольких потоков. Задачи лежат в конкурентных картах, а записи
+// сериализуются по группам: эпик со своими подзадачами — одна группа, обычная задача — своя.
+// Группа выбирает одну из полос блокировок, поэтому несвязанные задачи пишутся параллельно.
+// Расписание общее: проверка пересечения и вставка делаются под одной блокировкой записи,
+// так что два потока не могут занять один и тот же интервал.
+// Порядок захвата: полоса (или все полосы по возрастанию), затем расписание.
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantReadWriteLock scheduleLock = new ReentrantReadWriteLock();
+
+    public ConcurrentTaskManager() {
+        super(IntKeyMap.boxed(new ConcurrentHashMap<>()), new SynchronizedHistoryManager(Managers.getDefaultHistory()),
+                ConcurrentSkipListSet::new, new IdAllocator());
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void createTask(Task task) {
+        inStripe(groupOf(task), () -> {
+            if (touchesSchedule(task)) {
+                withSchedule(() -> super.createTask(task));
+            } else {
+                super.createTask(task);
+            }
+        });
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        inStripe(groupOf(task), () -> {
+            if (touchesSchedule(task)) {
+                withSchedule(() -> super.updateTask(task));
+            } else {
+                super.updateTask(task);
+            }
+        });
+    }
+
+    // Пакет может затрагивать любые группы, поэтому держит все полосы и расписание сразу:
+    // другие записи не вклиниваются между проверкой и применением, а снимок публикуется один раз.
+    @Override
+    public void createTasks(Collection<? extends Task> batch) {
+        inAllStripes(() -> withSchedule(() -> super.createTasks(batch)));
+    }
+
+    @Override
+    public void updateTasks(Collection<? extends Task> batch) {
+        inAllStripes(() -> withSchedule(() -> super.updateTasks(batch)));
+    }
+
+    // Группа задачи известна только после чтения, поэтому после захвата полосы она проверяется заново.
+    @Override
+    public void deleteById(int id) {
+        while (true) {
+            Task current = tasks.get(id);
+            if (current == null) {
+                return;
+            }
+            int group = groupOf(current);
+            Lock stripe = stripeFor(group);
+            stripe.lock();
+            try {
+                Task locked = tasks.get(id);
+                if (locked == null) {
+                    return;
+                }
+                if (groupOf(locked) == group) {
+                    super.deleteById(id);
+                    return;
+                }
+            } finally {
+                onWriteFinished();
+                stripe.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        inAllStripes(() -> withSchedule(super::deleteAll));
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        inAllStripes(super::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllSubTasks() {
+        inAllStripes(super::deleteAllSubTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        inAllStripes(super::deleteAllEpics);
+    }
+
+    @Override
+    public List<Task> getSortedTasksByTime() {
+        scheduleLock.readLock().lock();
+        try {
+            return super.getSortedTasksByTime();
+        } finally {
+            scheduleLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getTasksOverlapping(LocalDateTime from, LocalDateTime to) {
+        scheduleLock.readLock().lock();
+        try {
+            return super.getTasksOverlapping(from, to);
+        } finally {
+            scheduleLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(Duration duration, LocalDateTime from, LocalDateTime to, int limit) {
+        scheduleLock.readLock().lock();
+        try {
+            return super.findFreeSlots(duration, from, to, limit);
+        } finally {
+            scheduleLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        scheduleLock.readLock().lock();
+        try {
+            return super.query(query);
+        } finally {
+            scheduleLock.readLock().unlock();
+        }
+    }
+
+    // Индекс строится под всеми полосами, чтобы ни одна запись не проскочила между обходом и публикацией.
+    // Построенный индекс виден через volatile-поле, и следующие поиски полос уже не берут; повторная
+    // проверка под полосами отсекает поиски, которые ждали, пока индекс строил другой поток.
+    @Override
+    protected void buildTextIndex() {
+        if (!hasTextIndex()) {
+            inAllStripes(super::buildTextIndex);
+        }
+    }
+
+    // Вызывается в конце каждой записи, пока её блокировки ещё удерживаются.
+    protected void onWriteFinished() {
+    }
+
+    // Снятие задачи с расписания бывает и у задач без времени: раньше у них могло быть время.
+    @Override
+    protected void removeTaskIfPresent(Task task) {
+        withSchedule(() -> super.removeTaskIfPresent(task));
+    }
+
+    private static boolean touchesSchedule(Task task) {
+        return task.getType() != TaskType.EPIC && hasTime(task);
+    }
+
+    private static int groupOf(Task task) {
+        return task instanceof Subtask subtask ? subtask.getEpicId() : task.getId();
+    }
+
+    private Lock stripeFor(int group) {
+        int hash = group * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private void withSchedule(Runnable action) {
+        scheduleLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            scheduleLock.writeLock().unlock();
+        }
+    }
+
+    private void inStripe(int group, Runnable action) {
+        Lock stripe = stripeFor(group);
+        stripe.lock();
+        try {
+            action.run();
+        } finally {
+            onWriteFinished();
+            stripe.unlock();
+        }
+    }
+
+    private void inAllStripes(Runnable action) {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            action.run();
+        } finally {
+            onWriteFinished();
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.TaskType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Индекс снимка CSV: для каждой записи хранит только id, смещение и длину строки в файле, тип и id эпика.
+// Строится одним параллельным проходом по байтам без создания задач, имя и описание при этом пропускаются.
+// Время начала и длительность нужны только для заполнения расписания при загрузке и потом отбрасываются.
+final class CsvTaskIndex {
+    static final long NO_TIME = Long.MIN_VALUE;
+    private static final TaskType[] TYPES = TaskType.values();
+
+    private final int size;
+    private final int[] ids;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final byte[] types;
+    private final int[] epicIds;
+    private final long[] children;
+
+    private long[] startSeconds;
+    private int[] startNanos;
+    private long[] durations;
+
+    private CsvTaskIndex(int size, int[] ids, long[] offsets, int[] lengths, byte[] types, int[] epicIds,
+                         long[] startSeconds, int[] startNanos, long[] durations) {
+        this.size = size;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.types = types;
+        this.epicIds = epicIds;
+        this.startSeconds = startSeconds;
+        this.startNanos = startNanos;
+        this.durations = durations;
+        this.children = buildChildren();
+    }
+
+    static CsvTaskIndex empty() {
+        return new CsvTaskIndex(0, new int[0], new long[0], new int[0], new byte[0], new int[0],
+                new long[0], new int[0], new long[0]);
+    }
+
+    static CsvTaskIndex build(Path path) {
+        if (!Files.exists(path)) {
+            return empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] recordStarts = ChunkedCsvLoader.recordStarts(channel);
+            List<Chunk> chunks = IntStream.range(0, recordStarts.length - 1).parallel()
+                    .mapToObj(i -> scan(channel, recordStarts[i], recordStarts[i + 1]))
+                    .toList();
+            return merge(chunks);
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int find(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        return position >= 0 ? position : -1;
+    }
+
+    int getId(int position) {
+        return ids[position];
+    }
+
+    long getOffset(int position) {
+        return offsets[position];
+    }
+
+    int getLength(int position) {
+        return lengths[position];
+    }
+
+    TaskType getType(int position) {
+        return TYPES[types[position]];
+    }
+
+    int getEpicId(int position) {
+        return epicIds[position];
+    }
+
+    int getMaxId() {
+        return size == 0 ? 0 : ids[size - 1];
+    }
+
+    // Позиции подзадач эпика по данным файла.
+    int[] getChildPositions(int epicId) {
+        long from = (long) epicId << 32;
+        int index = Arrays.binarySearch(children, from);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        int end = index;
+        while (end < children.length && (int) (children[end] >>> 32) == epicId) {
+            end++;
+        }
+
+        int[] positions = new int[end - index];
+        for (int i = index; i < end; i++) {
+            positions[i - index] = (int) children[i];
+        }
+        return positions;
+    }
+
+    LocalDateTime getStartTime(int position) {
+        long second = startSeconds[position];
+        return second == NO_TIME ? null : LocalDateTime.ofEpochSecond(second, startNanos[position], ZoneOffset.UTC);
+    }
+
+    LocalDateTime getEndTime(int position) {
+        LocalDateTime start = getStartTime(position);
+        long duration = durations[position];
+        return start == null || duration == NO_TIME ? null : start.plusMinutes(duration);
+    }
+
+    void dropScheduleData() {
+        startSeconds = null;
+        startNanos = null;
+        durations = null;
+    }
+
+    // Подзадачи упорядочены по паре (id эпика, позиция), поэтому подзадачи одного эпика идут подряд.
+    private long[] buildChildren() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == TaskType.SUBTASK.ordinal()) {
+                count++;
+            }
+        }
+
+        long[] result = new long[count];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == TaskType.SUBTASK.ordinal()) {
+                result[next++] = ((long) epicIds[i] << 32) | i;
+            }
+        }
+        Arrays.parallelSort(result);
+        return result;
+    }
+
+    // Записи сортируются по id; при повторе id, как и при обычной загрузке, побеждает последняя строка файла.
+    private static CsvTaskIndex merge(List<Chunk> chunks) {
+        int total = chunks.stream().mapToInt(chunk -> chunk.count).sum();
+        long[] order = new long[total];
+        int row = 0;
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.count; i++, row++) {
+                order[row] = ((long) chunk.ids[i] << 32) | row;
+            }
+        }
+        Arrays.parallelSort(order);
+
+        int[] ids = new int[total];
+        long[] offsets = new long[total];
+        int[] lengths = new int[total];
+        byte[] types = new byte[total];
+        int[] epicIds = new int[total];
+        long[] startSeconds = new long[total];
+        int[] startNanos = new int[total];
+        long[] durations = new long[total];
+
+        int[] chunkStarts = new int[chunks.size() + 1];
+        for (int i = 0; i < chunks.size(); i++) {
+            chunkStarts[i + 1] = chunkStarts[i] + chunks.get(i).count;
+        }
+
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            int id = (int) (order[i] >> 32);
+            if (i + 1 < total && (int) (order[i + 1] >> 32) == id) {
+                continue;
+            }
+            int source = (int) order[i];
+            int chunkIndex = Arrays.binarySearch(chunkStarts, source);
+            if (chunkIndex < 0) {
+                chunkIndex = -chunkIndex - 2;
+            }
+            while (chunkStarts[chunkIndex + 1] == source) {
+                chunkIndex++;
+            }
+            Chunk chunk = chunks.get(chunkIndex);
+            int local = source - chunkStarts[chunkIndex];
+
+            ids[size] = id;
+            offsets[size] = chunk.offsets[local];
+            lengths[size] = chunk.lengths[local];
+            types[size] = chunk.types[local];
+            epicIds[size] = chunk.epicIds[local];
+            startSeconds[size] = chunk.startSeconds[local];
+            startNanos[size] = chunk.startNanos[local];
+            durations[size] = chunk.durations[local];
+            size++;
+        }
+        return new CsvTaskIndex(size, ids, offsets, lengths, types, epicIds, startSeconds, startNanos, durations);
+    }
+
+    private static Chunk scan(FileChannel channel, long from, long to) {
+        Chunk chunk = new Chunk();
+        if (from >= to) {
+            return chunk;
+        }
+        new Scanner(ChunkedCsvLoader.map(channel, from, to), from, chunk).run();
+        return chunk;
+    }
+
+    private static final class Chunk {
+        private int count;
+        private int[] ids = new int[1024];
+        private long[] offsets = new long[1024];
+        private int[] lengths = new int[1024];
+        private byte[] types = new byte[1024];
+        private int[] epicIds = new int[1024];
+        private long[] startSeconds = new long[1024];
+        private int[] startNanos = new int[1024];
+        private long[] durations = new long[1024];
+
+        private void add(int id, long offset, int length, TaskType type, int epicId,
+                         LocalDateTime start, long duration) {
+            if (count == ids.length) {
+                int capacity = count * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                types = Arrays.copyOf(types, capacity);
+                epicIds = Arrays.copyOf(epicIds, capacity);
+                startSeconds = Arrays.copyOf(startSeconds, capacity);
+                startNanos = Arrays.copyOf(startNanos, capacity);
+                durations = Arrays.copyOf(durations, capacity);
+            }
+            ids[count] = id;
+            offsets[count] = offset;
+            lengths[count] = length;
+            types[count] = (byte) type.ordinal();
+            epicIds[count] = epicId;
+            startSeconds[count] = start == null ? NO_TIME : start.toEpochSecond(ZoneOffset.UTC);
+            startNanos[count] = start == null ? 0 : start.getNano();
+            durations[count] = duration;
+            count++;
+        }
+    }
+
+    // Разбор идёт по байтам: служебные поля записаны в ASCII, а байты '"', ',' и '\n'
+    // в UTF-8 не встречаются внутри многобайтовых символов имени и описания.
+    private static final class Scanner {
+        private final ByteBuffer bytes;
+        private final long base;
+        private final Chunk chunk;
+        private final int limit;
+        private final char[] scratch = new char[64];
+
+        private int position;
+        private int fieldStart;
+        private int fieldEnd;
+        private boolean recordEnded;
+
+        private Scanner(ByteBuffer bytes, long base, Chunk chunk) {
+            this.bytes = bytes;
+            this.base = base;
+            this.chunk = chunk;
+            this.limit = bytes.limit();
+        }
+
+        private void run() {
+            while (true) {
+                while (position < limit && (bytes.get(position) == '\n' || bytes.get(position) == '\r')) {
+                    position++;
+                }
+                if (position >= limit) {
+                    return;
+                }
+
+                int recordStart = position;
+                recordEnded = false;
+                try {
+                    nextField();
+                    int id = intNumber();
+                    nextField();
+                    TaskType type = TaskType.valueOf(ascii());
+                    nextField();
+                    nextField();
+                    nextField();
+                    nextField();
+                    int epicId = fieldStart == fieldEnd ? -1 : intNumber();
+                    nextField();
+                    LocalDateTime start = fieldStart == fieldEnd ? null
+                            : CsvTaskReader.parseDateTime(toChars(), 0, fieldEnd - fieldStart);
+                    nextField();
+                    long duration = fieldStart == fieldEnd ? NO_TIME : number();
+                    if (!recordEnded) {
+                        throw new IndexOutOfBoundsException("лишние поля");
+                    }
+
+                    int recordEnd = fieldEnd;
+                    if (recordEnd < limit && bytes.get(recordEnd) == '"') {
+                        recordEnd++;
+                    }
+                    chunk.add(id, base + recordStart, recordEnd - recordStart, type, epicId, start, duration);
+                } catch (RuntimeException e) {
+                    throw new ManagerSaveException("Некорректная запись CSV в позиции " + (base + recordStart)
+                            + ": " + e.getMessage());
+                }
+            }
+        }
+
+        private void nextField() {
+            if (recordEnded) {
+                throw new IndexOutOfBoundsException("ожидалось больше полей");
+            }
+
+            if (position < limit && bytes.get(position) == '"') {
+                fieldStart = ++position;
+                while (true) {
+                    if (position >= limit) {
+                        throw new IndexOutOfBoundsException("незакрытая кавычка");
+                    }
+                    if (bytes.get(position) == '"') {
+                        if (position + 1 < limit && bytes.get(position + 1) == '"') {
+                            position += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    position++;
+                }
+                fieldEnd = position++;
+            } else {
+                fieldStart = position;
+                while (position < limit) {
+                    byte b = bytes.get(position);
+                    if (b == ',' || b == '\n' || b == '\r') {
+                        break;
+                    }
+                    position++;
+                }
+                fieldEnd = position;
+            }
+
+            if (position < limit && bytes.get(position) == ',') {
+                position++;
+                return;
+            }
+            if (position < limit && bytes.get(position) == '\r') {
+                position++;
+            }
+            if (position < limit && bytes.get(position) == '\n') {
+                position++;
+            } else if (position < limit) {
+                throw new IndexOutOfBoundsException("ожидался разделитель после кавычки");
+            }
+            recordEnded = true;
+        }
+
+        private char[] toChars() {
+            int length = fieldEnd - fieldStart;
+            char[] chars = length <= scratch.length ? scratch : new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) bytes.get(fieldStart + i);
+            }
+            return chars;
+        }
+
+        private String ascii() {
+            return new String(toChars(), 0, fieldEnd - fieldStart);
+        }
+
+        private long number() {
+            return CsvTaskReader.parseLong(toChars(), 0, fieldEnd - fieldStart);
+        }
+
+        private int intNumber() {
+            return CsvTaskReader.parseInt(toChars(), 0, fieldEnd - fieldStart);
+        }
+    }
+}
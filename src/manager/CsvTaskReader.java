@@ -0,0 +1,314 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Потоковый разбор записей id,type,name,status,description,epic,start_time,duration прямо из буфера символов.
+// Числа, перечисления и время читаются без промежуточных строк, строки создаются только для имени и описания.
+public class CsvTaskReader {
+    private static final int FIELD_COUNT = 8;
+
+    private final char[] data;
+    private final int end;
+    private int position;
+
+    private int fieldStart;
+    private int fieldEnd;
+    private boolean fieldEscaped;
+    private boolean recordEnded;
+
+    public CsvTaskReader(char[] data, int start, int end) {
+        this.data = data;
+        this.position = start;
+        this.end = end;
+    }
+
+    public static Task parse(String line) {
+        CsvTaskReader reader = new CsvTaskReader(line.toCharArray(), 0, line.length());
+        Task task = reader.next();
+        if (task == null) {
+            throw new ManagerSaveException("Пустая запись CSV");
+        }
+        return task;
+    }
+
+    public void skipLine() {
+        while (position < end && data[position] != '\n') {
+            position++;
+        }
+        if (position < end) {
+            position++;
+        }
+    }
+
+    public Task next() {
+        skipBlankLines();
+        if (position >= end) {
+            return null;
+        }
+        int recordStart = position;
+        recordEnded = false;
+
+        try {
+            nextField();
+            int id = parseInt();
+            nextField();
+            TaskType type = parseType();
+            nextField();
+            String name = text();
+            nextField();
+            TaskStatus status = parseStatus();
+            nextField();
+            String description = text();
+            nextField();
+            int epicId = isFieldEmpty() ? -1 : parseInt();
+            nextField();
+            LocalDateTime startTime = isFieldEmpty() ? null : parseDateTime();
+            nextField();
+            Duration duration = isFieldEmpty() ? null : Duration.ofMinutes(parseLong());
+            if (!recordEnded) {
+                throw malformed(recordStart, "лишние поля");
+            }
+
+            return switch (type) {
+                case TASK -> {
+                    Task task = new Task(name, description, id, status);
+                    task.setStartTime(startTime);
+                    task.setDuration(duration);
+                    yield task;
+                }
+                case EPIC -> new Epic(name, description, id, status);
+                case SUBTASK -> {
+                    Subtask subtask = new Subtask(name, description, id, epicId, status);
+                    subtask.setStartTime(startTime);
+                    subtask.setDuration(duration);
+                    yield subtask;
+                }
+            };
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException | ArithmeticException e) {
+            throw malformed(recordStart, e.getMessage());
+        }
+    }
+
+    private void skipBlankLines() {
+        while (position < end && (data[position] == '\n' || data[position] == '\r')) {
+            position++;
+        }
+    }
+
+    private void nextField() {
+        if (recordEnded) {
+            throw new IndexOutOfBoundsException("ожидалось " + FIELD_COUNT + " полей");
+        }
+        fieldEscaped = false;
+
+        if (position < end && data[position] == '"') {
+            fieldStart = ++position;
+            while (true) {
+                if (position >= end) {
+                    throw new IndexOutOfBoundsException("незакрытая кавычка");
+                }
+                if (data[position] == '"') {
+                    if (position + 1 < end && data[position + 1] == '"') {
+                        fieldEscaped = true;
+                        position += 2;
+                        continue;
+                    }
+                    break;
+                }
+                position++;
+            }
+            fieldEnd = position++;
+        } else {
+            fieldStart = position;
+            while (position < end && data[position] != ',' && data[position] != '\n' && data[position] != '\r') {
+                position++;
+            }
+            fieldEnd = position;
+        }
+
+        if (position < end && data[position] == ',') {
+            position++;
+            return;
+        }
+        if (position < end && data[position] == '\r') {
+            position++;
+        }
+        if (position < end && data[position] == '\n') {
+            position++;
+        } else if (position < end) {
+            throw new IndexOutOfBoundsException("ожидался разделитель после кавычки");
+        }
+        recordEnded = true;
+    }
+
+    private boolean isFieldEmpty() {
+        return fieldStart == fieldEnd;
+    }
+
+    // Повторяющиеся имена и описания берутся из общего пула строк.
+    private String text() {
+        if (!fieldEscaped) {
+            return StringPool.getDefault().intern(data, fieldStart, fieldEnd);
+        }
+
+        StringBuilder builder = new StringBuilder(fieldEnd - fieldStart);
+        for (int i = fieldStart; i < fieldEnd; i++) {
+            builder.append(data[i]);
+            if (data[i] == '"') {
+                i++;
+            }
+        }
+        return StringPool.getDefault().intern(builder.toString());
+    }
+
+    private long parseLong() {
+        return parseLong(fieldStart, fieldEnd);
+    }
+
+    private int parseInt() {
+        return parseInt(data, fieldStart, fieldEnd);
+    }
+
+    private long parseLong(int from, int to) {
+        return parseLong(data, from, to);
+    }
+
+    static long parseLong(char[] data, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("пустое число");
+        }
+        boolean negative = data[from] == '-';
+        int i = negative || data[from] == '+' ? from + 1 : from;
+        if (i >= to) {
+            throw new NumberFormatException("пустое число");
+        }
+
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("не число: " + new String(data, from, to - from));
+            }
+            if (result > (Long.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("число вне диапазона: " + new String(data, from, to - from));
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    static int parseInt(char[] data, int from, int to) {
+        long result = parseLong(data, from, to);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw new NumberFormatException("число вне диапазона: " + new String(data, from, to - from));
+        }
+        return (int) result;
+    }
+
+    private TaskType parseType() {
+        int length = fieldEnd - fieldStart;
+        if (length == 4 && matches("TASK")) {
+            return TaskType.TASK;
+        }
+        if (length == 4 && matches("EPIC")) {
+            return TaskType.EPIC;
+        }
+        if (length == 7 && matches("SUBTASK")) {
+            return TaskType.SUBTASK;
+        }
+        return TaskType.valueOf(new String(data, fieldStart, length));
+    }
+
+    private TaskStatus parseStatus() {
+        int length = fieldEnd - fieldStart;
+        if (length == 0) {
+            return null;
+        }
+        if (length == 3 && matches("NEW")) {
+            return TaskStatus.NEW;
+        }
+        if (length == 4 && matches("DONE")) {
+            return TaskStatus.DONE;
+        }
+        if (length == 11 && matches("IN_PROGRESS")) {
+            return TaskStatus.IN_PROGRESS;
+        }
+        return TaskStatus.valueOf(new String(data, fieldStart, length));
+    }
+
+    private boolean matches(String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (data[fieldStart + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Разбирает формат LocalDateTime.toString(): uuuu-MM-ddTHH:mm[:ss[.nnnnnnnnn]].
+    // Всё, что не подходит под быстрый путь, отдаётся стандартному парсеру.
+    private LocalDateTime parseDateTime() {
+        return parseDateTime(data, fieldStart, fieldEnd);
+    }
+
+    static LocalDateTime parseDateTime(char[] data, int fieldStart, int fieldEnd) {
+        int i = fieldStart;
+        int yearStart = i;
+        if (data[i] == '-' || data[i] == '+') {
+            i++;
+        }
+        while (i < fieldEnd && data[i] != '-') {
+            i++;
+        }
+        if (i - yearStart < 4 || i + 12 > fieldEnd
+                || data[i + 3] != '-' || data[i + 6] != 'T' || data[i + 9] != ':') {
+            return LocalDateTime.parse(new String(data, fieldStart, fieldEnd - fieldStart));
+        }
+
+        int year = parseInt(data, yearStart, i);
+        int month = parseInt(data, i + 1, i + 3);
+        int day = parseInt(data, i + 4, i + 6);
+        int hour = parseInt(data, i + 7, i + 9);
+        int minute = parseInt(data, i + 10, i + 12);
+        int second = 0;
+        int nano = 0;
+
+        i += 12;
+        if (i < fieldEnd) {
+            if (data[i] != ':' || i + 3 > fieldEnd) {
+                return LocalDateTime.parse(new String(data, fieldStart, fieldEnd - fieldStart));
+            }
+            second = parseInt(data, i + 1, i + 3);
+            i += 3;
+            if (i < fieldEnd) {
+                int digits = fieldEnd - i - 1;
+                if (data[i] != '.' || digits < 1 || digits > 9) {
+                    return LocalDateTime.parse(new String(data, fieldStart, fieldEnd - fieldStart));
+                }
+                nano = parseInt(data, i + 1, fieldEnd);
+                for (int d = digits; d < 9; d++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private ManagerSaveException malformed(int recordStart, String reason) {
+        int lineEnd = recordStart;
+        while (lineEnd < end && data[lineEnd] != '\n') {
+            lineEnd++;
+        }
+        return new ManagerSaveException("Некорректная запись CSV (" + reason + "): "
+                + new String(data, recordStart, lineEnd - recordStart));
+    }
+}
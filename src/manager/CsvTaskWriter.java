@@ -0,0 +1,103 @@
+package manager;
+
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class CsvTaskWriter {
+    public static final String HEADER = "id,type,name,status,description,epic,start_time,duration";
+
+    private final Writer out;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    public CsvTaskWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    public void write(Task task) throws IOException {
+        buffer.setLength(0);
+        appendRecord(buffer, task);
+        buffer.append('\n');
+        out.append(buffer);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public static String format(Task task) {
+        StringBuilder builder = new StringBuilder(128);
+        appendRecord(builder, task);
+        return builder.toString();
+    }
+
+    public static void appendRecord(StringBuilder builder, Task task) {
+        TaskType type = task.getType();
+        TaskStatus status = task.getStatus();
+
+        builder.append(task.getId()).append(',');
+        builder.append(type.name()).append(',');
+        appendText(builder, task.getName());
+        builder.append(',');
+        builder.append(status != null ? status.name() : "").append(',');
+        appendText(builder, task.getDescription());
+        builder.append(',');
+
+        if (type == TaskType.SUBTASK) {
+            builder.append(((Subtask) task).getEpicId());
+        }
+        builder.append(',');
+
+        LocalDateTime startTime = task.getStartTime();
+        Duration duration = task.getDuration();
+        if (startTime != null) {
+            builder.append(startTime);
+        }
+        builder.append(',');
+        if (duration != null) {
+            builder.append(duration.toMinutes());
+        }
+    }
+
+    // Поле берётся в кавычки только если содержит разделитель, кавычку или перевод строки (RFC 4180).
+    private static void appendText(StringBuilder builder, String value) {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            builder.append(value);
+            return;
+        }
+
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                builder.append('"');
+            }
+            builder.append(c);
+        }
+        builder.append('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
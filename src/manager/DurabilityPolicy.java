@@ -0,0 +1,70 @@
+package manager;
+
+public class DurabilityPolicy {
+    private final long flushIntervalMillis;
+    private final int flushBatchSize;
+    private final boolean fsync;
+
+    private DurabilityPolicy(long flushIntervalMillis, int flushBatchSize, boolean fsync) {
+        if (flushIntervalMillis < 0 || flushBatchSize < 0) {
+            throw new IllegalArgumentException("Параметры сброса на диск не могут быть отрицательными");
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushBatchSize = flushBatchSize;
+        this.fsync = fsync;
+    }
+
+    public static DurabilityPolicy sync() {
+        return new DurabilityPolicy(0, 0, false);
+    }
+
+    public static DurabilityPolicy fsyncOnCommit() {
+        return new DurabilityPolicy(0, 0, true);
+    }
+
+    public static DurabilityPolicy everyMillis(long flushIntervalMillis) {
+        return new DurabilityPolicy(flushIntervalMillis, 0, false);
+    }
+
+    public static DurabilityPolicy everyOps(int flushBatchSize) {
+        return new DurabilityPolicy(0, flushBatchSize, false);
+    }
+
+    public DurabilityPolicy withFlushInterval(long flushIntervalMillis) {
+        return new DurabilityPolicy(flushIntervalMillis, flushBatchSize, fsync);
+    }
+
+    public DurabilityPolicy withFlushBatchSize(int flushBatchSize) {
+        return new DurabilityPolicy(flushIntervalMillis, flushBatchSize, fsync);
+    }
+
+    public DurabilityPolicy withFsync(boolean fsync) {
+        return new DurabilityPolicy(flushIntervalMillis, flushBatchSize, fsync);
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public int getFlushBatchSize() {
+        return flushBatchSize;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    // Без интервала и размера пачки изменения пишутся на диск в потоке вызывающего.
+    public boolean isWriteBehind() {
+        return flushIntervalMillis > 0 || flushBatchSize > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "DurabilityPolicy{" +
+                "flushIntervalMillis=" + flushIntervalMillis +
+                ", flushBatchSize=" + flushBatchSize +
+                ", fsync=" + fsync +
+                '}';
+    }
+}
@@ -7,182 +7,663 @@ import task.Task;
 import task.TaskType;
 
 import java.io.*;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String HISTORY_SUFFIX = ".history";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String IDS_SUFFIX = ".ids";
+    private static final int MIN_HISTORY_JOURNAL_RECORDS = 1024;
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
     private final String savePath;
+    private final StorageOptions options;
+    private final TaskJournal journal;
+    private final TaskJournal historyJournal;
+    private final List<String> pendingRecords = new ArrayList<>();
+    private final List<String> pendingViews = new ArrayList<>();
+    private final Object ioLock = new Object();
+    private final Object checkpointLock = new Object();
+    private final BackgroundWorker flusher;
+    private final BackgroundWorker checkpointer;
+    private final LazyTaskStore lazyStore;
+
+    private long changes;
+    private long version;
+    private int opsSinceFlush;
+    private volatile CheckpointStats checkpointStats = new CheckpointStats(0, null, 0, 0, 0, 0, 0);
+    private volatile long durableVersion;
+    private volatile ManagerSaveException lastFlushFailure;
 
     public FileBackedTaskManager(String savePath) {
-        super();
+        this(savePath, StorageOptions.defaults());
+    }
+
+    public FileBackedTaskManager(String savePath, StorageOptions options) {
+        this(savePath, options, null);
+    }
+
+    private FileBackedTaskManager(String savePath, StorageOptions options, LazyTaskStore lazyStore) {
+        super(lazyStore != null ? lazyStore : new IntHashMap<>(),
+                new IdAllocator(options.getIdBlockSize(), new IdLeaseFile(savePath + IDS_SUFFIX)));
         this.savePath = savePath;
+        this.lazyStore = lazyStore;
+        this.options = options;
+        this.journal = new TaskJournal(savePath + JOURNAL_SUFFIX);
+        this.historyJournal = new TaskJournal(savePath + HISTORY_SUFFIX);
+
+        DurabilityPolicy durability = options.getDurability();
+        if (durability.isWriteBehind()) {
+            flusher = new BackgroundWorker("task-manager-flusher", durability.getFlushIntervalMillis(), this::flush);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+
+        if (options.isJournaled()) {
+            checkpointer = new BackgroundWorker("task-manager-checkpointer",
+                    options.getCheckpointIntervalMillis(), this::checkpoint);
+            checkpointer.start();
+        } else {
+            checkpointer = null;
+        }
     }
 
     public String getSavePath() {
         return savePath;
     }
 
+    public String getJournalPath() {
+        return journal.getPath().toString();
+    }
+
+    public String getHistoryPath() {
+        return historyJournal.getPath().toString();
+    }
+
+    public StorageOptions getOptions() {
+        return options;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public long getDurableVersion() {
+        return durableVersion;
+    }
+
+    public CheckpointStats getCheckpointStats() {
+        return checkpointStats;
+    }
+
     public void save() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(savePath))) {
-            writer.write("id,type,name,status,description,epic,start_time,duration");
-            writer.newLine();
-
-            if (!tasks.isEmpty()) {
-                for (Map.Entry<Integer, Task> entry : tasks.entrySet()) {
-                    writer.write(toString(entry.getValue()));
-                    writer.newLine();
+        synchronized (checkpointLock) {
+            synchronized (ioLock) {
+                long target;
+                Collection<Task> state;
+                synchronized (this) {
+                    target = version;
+                    state = copyState();
+                    pendingRecords.clear();
+                }
+                persist(state);
+                journal.truncate();
+                markDurable(target);
+            }
+        }
+    }
+
+    // Снимок пишется без блокировки записи: под блокировкой копируется состояние и забираются ещё
+    // не записанные записи, а их дозапись, откладывание журнала, кодирование и запись файла идут
+    // параллельно с новыми изменениями, которые попадают в свежий журнал. Копия остаётся под блокировкой:
+    // эпики меняются на месте, и копия вне её смешала бы состояния до и после записи.
+    public void checkpoint() {
+        if (!options.isJournaled()) {
+            save();
+            return;
+        }
+
+        synchronized (checkpointLock) {
+            long started = System.nanoTime();
+            long target;
+            Collection<Task> state;
+            synchronized (ioLock) {
+                List<String> batch;
+                synchronized (this) {
+                    target = version;
+                    if (target == checkpointStats.getLastCheckpointVersion() && journal.getRecordCount() == 0
+                            && pendingRecords.isEmpty()) {
+                        return;
+                    }
+                    state = copyState();
+                    batch = new ArrayList<>(pendingRecords);
+                    pendingRecords.clear();
+                }
+                // Записи до target должны попасть в журнал, который снимок заменит; flush ждёт ioLock,
+                // поэтому следующие записи окажутся уже в свежем журнале.
+                if (!batch.isEmpty()) {
+                    try {
+                        journal.append(batch, options.getDurability().isFsync());
+                    } catch (ManagerSaveException e) {
+                        synchronized (this) {
+                            pendingRecords.addAll(0, batch);
+                        }
+                        throw e;
+                    }
+                }
+                journal.rotate();
+            }
+
+            long snapshotBytes = persist(state);
+            journal.dropRotated();
+            synchronized (ioLock) {
+                markDurable(target);
+                checkpointStats = new CheckpointStats(checkpointStats.getCheckpointCount() + 1, LocalDateTime.now(),
+                        (System.nanoTime() - started) / 1_000_000, target, snapshotBytes,
+                        journal.getRecordCount(), journal.getSizeBytes());
+            }
+        }
+    }
+
+    public long flush() {
+        synchronized (ioLock) {
+            long target;
+            List<String> batch = null;
+            Collection<Task> snapshot = null;
+            List<String> views;
+            synchronized (this) {
+                target = version;
+                views = new ArrayList<>(pendingViews);
+                pendingViews.clear();
+                if (target == durableVersion && views.isEmpty()) {
+                    return target;
                 }
+                if (target != durableVersion) {
+                    if (options.isJournaled()) {
+                        batch = new ArrayList<>(pendingRecords);
+                        pendingRecords.clear();
+                    } else {
+                        snapshot = copyState();
+                    }
+                }
+            }
+
+            try {
+                if (!views.isEmpty()) {
+                    appendViews(views);
+                    views = List.of();
+                }
+                if (batch != null) {
+                    journal.append(batch, options.getDurability().isFsync());
+                    if (journal.getRecordCount() >= options.getCompactionThreshold()
+                            || journal.getSizeBytes() >= options.getCheckpointJournalBytes()) {
+                        checkpointer.request();
+                    }
+                } else if (snapshot != null) {
+                    persist(snapshot);
+                    journal.truncate();
+                }
+            } catch (ManagerSaveException e) {
+                // Незаписанное возвращается в начало очередей, чтобы следующий flush записал его первым.
+                synchronized (this) {
+                    pendingViews.addAll(0, views);
+                    if (batch != null) {
+                        pendingRecords.addAll(0, batch);
+                    }
+                }
+                lastFlushFailure = e;
+                ioLock.notifyAll();
+                throw e;
+            }
+            markDurable(target);
+            return target;
+        }
+    }
+
+    public void awaitDurable(long targetVersion) throws InterruptedException {
+        if (flusher == null) {
+            if (durableVersion < targetVersion) {
+                flush();
+            }
+            return;
+        }
+
+        flusher.request();
+        synchronized (ioLock) {
+            while (durableVersion < targetVersion) {
+                ManagerSaveException failure = lastFlushFailure;
+                if (failure != null) {
+                    throw failure;
+                }
+                ioLock.wait();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.stop();
+        }
+        if (checkpointer != null) {
+            checkpointer.stop();
+        }
+        flush();
+        if (lazyStore != null) {
+            lazyStore.close();
+        }
+    }
+
+    private void appendViews(List<String> views) {
+        historyJournal.append(views, options.getDurability().isFsync());
+        if (historyJournal.getRecordCount() <= MIN_HISTORY_JOURNAL_RECORDS) {
+            return;
+        }
+
+        List<String> history;
+        synchronized (this) {
+            history = getHistoryManager().getHistory().stream()
+                    .map(task -> String.valueOf(task.getId()))
+                    .toList();
+        }
+        if (historyJournal.getRecordCount() > 2L * history.size()) {
+            historyJournal.truncate();
+            historyJournal.append(history, options.getDurability().isFsync());
+        }
+    }
+
+    private void markDurable(long target) {
+        if (target > durableVersion) {
+            durableVersion = target;
+        }
+        lastFlushFailure = null;
+        ioLock.notifyAll();
+    }
+
+    // Эпики изменяются на месте при пересчёте статуса, поэтому копируем их вместе со списком подзадач.
+    private Collection<Task> copyState() {
+        if (lazyStore != null) {
+            return lazyStore.snapshot();
+        }
+
+        List<Task> state = new ArrayList<>(tasks.size());
+        for (Task task : tasks.values()) {
+            if (task instanceof Epic epic) {
+                List<Subtask> subTasks = epic.getSubTasks() == null
+                        ? new ArrayList<>() : new ArrayList<>(epic.getSubTasks());
+                state.add(new Epic(epic.getName(), epic.getDescription(), epic.getId(), subTasks, epic.getStatus()));
+            } else {
+                state.add(task);
+            }
+        }
+        return state;
+    }
+
+    // После записи снимка ленивое хранилище переключается на новый файл и отпускает закреплённые задачи.
+    private long persist(Collection<Task> state) {
+        long bytes = writeSnapshot(state);
+        if (state instanceof LazyTaskStore.Snapshot written) {
+            lazyStore.rebase(written);
+        }
+        return bytes;
+    }
+
+    // Снимок сначала пишется во временный файл и только потом подменяет старый,
+    // чтобы сбой посреди записи не оставил на диске обрезанный файл.
+    // CSV пишется потоком, чтобы не держать в памяти весь файл целиком.
+    private long writeSnapshot(Collection<Task> state) {
+        Path target = Path.of(savePath);
+        Path temp = Path.of(savePath + TEMP_SUFFIX);
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                if (options.getSnapshotFormat() == SnapshotFormat.BINARY) {
+                    out.write(BinaryTaskCodec.encode(state));
+                } else {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+                    CsvTaskWriter csv = new CsvTaskWriter(writer);
+                    csv.writeHeader();
+                    for (Task task : state) {
+                        csv.write(task);
+                    }
+                    csv.flush();
+                }
+                if (options.getDurability().isFsync()) {
+                    out.getFD().sync();
+                }
+            }
+            long bytes = Files.size(temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
             }
-        } catch (Exception e) {
+            return bytes;
+        } catch (IOException e) {
             throw new ManagerSaveException(e.getMessage());
         }
     }
 
+    private void mutate(Runnable mutation) {
+        mutateAndGet(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private <T> T mutateAndGet(Supplier<T> mutation) {
+        T result;
+        synchronized (this) {
+            long before = changes;
+            int firstRecord = pendingRecords.size();
+            result = mutation.get();
+            if (changes == before) {
+                return result;
+            }
+            frameRecords(firstRecord);
+            version++;
+        }
+        commit(true);
+        return result;
+    }
+
+    // Изменение из нескольких записей (пакет, подзадача вместе с эпиком, очистка) обрамляется BEGIN и COMMIT,
+    // чтобы при восстановлении оно применилось целиком или не применилось вовсе.
+    private void frameRecords(int firstRecord) {
+        if (pendingRecords.size() - firstRecord > 1) {
+            pendingRecords.add(firstRecord, TaskJournal.BEGIN);
+            pendingRecords.add(TaskJournal.COMMIT);
+        }
+    }
+
+    private void commit(boolean countOp) {
+        if (flusher == null) {
+            flush();
+            return;
+        }
+
+        int batchSize = options.getDurability().getFlushBatchSize();
+        boolean batchFull = false;
+        if (countOp && batchSize > 0) {
+            synchronized (this) {
+                opsSinceFlush++;
+                if (opsSinceFlush >= batchSize) {
+                    opsSinceFlush = 0;
+                    batchFull = true;
+                }
+            }
+        }
+        if (batchFull) {
+            flusher.request();
+        }
+    }
+
+    @Override
+    protected void onTaskStored(Task task) {
+        changes++;
+        if (lazyStore != null && task.getType() == TaskType.EPIC) {
+            lazyStore.pin(task);
+        }
+        if (options.isJournaled()) {
+            pendingRecords.add(TaskJournal.put(toString(task)));
+        }
+    }
+
+    @Override
+    protected void onTaskRemoved(int id) {
+        changes++;
+        if (options.isJournaled()) {
+            pendingRecords.add(TaskJournal.delete(id));
+        }
+    }
+
+    @Override
+    protected void onAllRemoved() {
+        changes++;
+        if (options.isJournaled()) {
+            pendingRecords.add(TaskJournal.clear());
+        }
+    }
+
     @Override
     public void deleteAll() {
-        super.deleteAll();
-        save();
+        mutate(super::deleteAll);
     }
 
     @Override
     public void deleteAllTasks() {
-        super.deleteAllTasks();
-        save();
+        mutate(super::deleteAllTasks);
     }
 
     @Override
     public void deleteAllSubTasks() {
-        super.deleteAllSubTasks();
-        save();
+        mutate(super::deleteAllSubTasks);
     }
 
     @Override
     public void deleteAllEpics() {
-        super.deleteAllEpics();
-        save();
+        mutate(super::deleteAllEpics);
     }
 
     @Override
     public Task getById(int id) {
-        Task task = super.getById(id);
-        save();
+        Task task;
+        synchronized (this) {
+            task = super.getById(id);
+            if (task == null || !options.isHistoryPersisted()) {
+                return task;
+            }
+            pendingViews.add(String.valueOf(id));
+        }
+        commit(false);
         return task;
     }
 
     @Override
     public void createTask(Task task) {
-        super.createTask(task);
-        save();
+        mutate(() -> super.createTask(task));
     }
 
     @Override
     public void updateTask(Task task) {
-        super.updateTask(task);
-        save();
+        mutate(() -> super.updateTask(task));
     }
 
+    // Весь пакет — одна версия и одна запись на диск (в журнал или снимком), а не запись на задачу.
     @Override
-    public void deleteById(Integer id) {
-        super.deleteById(id);
-        save();
+    public void createTasks(Collection<? extends Task> batch) {
+        mutate(() -> super.createTasks(batch));
     }
 
     @Override
-    public void setTaskId(int id) {
-        super.setTaskId(id);
+    public void updateTasks(Collection<? extends Task> batch) {
+        mutate(() -> super.updateTasks(batch));
     }
 
     @Override
-    public ArrayList<Task> getSubTaskByEpic(int epicId) {
-        ArrayList<Task> subTaskByEpic = super.getSubTaskByEpic(epicId);
-        save();
-        return subTaskByEpic;
+    public void deleteById(int id) {
+        mutate(() -> super.deleteById(id));
+    }
+
+    @Override
+    public void setTaskId(int id) {
+        super.setTaskId(id);
     }
 
     public String toString(Task task) {
-        String type = task.getType().name();
+        return CsvTaskWriter.format(task);
+    }
 
-        StringBuilder builder = new StringBuilder();
-        builder.append(task.getId()).append(",");
-        builder.append(type).append(",");
-        builder.append(task.getName()).append(",");
-        builder.append(task.getStatus()).append(",");
-        builder.append(task.getDescription()).append(",");
+    public static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, StorageOptions.defaults());
+    }
 
-        builder.append(task.getType() == TaskType.SUBTASK ? ((Subtask) task).getEpicId() : "").append(",");
+    public static FileBackedTaskManager loadFromFile(File file, StorageOptions options) {
+        if (options.isLazyLoading() && options.getSnapshotFormat() == SnapshotFormat.CSV
+                && !(file.exists() && BinaryTaskCodec.isBinary(file.toPath()))) {
+            return loadLazily(file, options);
+        }
 
-        LocalDateTime startTime = task.getStartTime();
-        Duration duration = task.getDuration();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getPath(), options);
+        if (!file.exists() && !manager.journal.exists()) {
+            throw new ManagerSaveException("Файл не найден: " + file.getPath());
+        }
 
-        builder.append(startTime != null ? startTime : "").append(",");
-        builder.append(duration != null ? duration.toMinutes() : "");
+        Map<Integer, Task> restored = new LinkedHashMap<>();
+        if (file.exists() && BinaryTaskCodec.isBinary(file.toPath())) {
+            for (Task task : BinaryTaskCodec.read(file.toPath())) {
+                restored.put(task.getId(), task);
+            }
+        } else if (file.exists()) {
+            for (Task task : ChunkedCsvLoader.load(file.toPath())) {
+                restored.put(task.getId(), task);
+            }
+        }
 
-        return builder.toString();
+        manager.journal.replay(record -> applyJournalRecord(restored, record));
+        manager.restore(restored.values());
+        manager.restoreHistory();
+        return manager;
     }
 
-    public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager("tasks.csv");
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String header = reader.readLine();
-
-            String line;
-            int id = 0;
-            while ((line = reader.readLine()) != null && !line.isEmpty()) {
-                Task task = Task.fromString(line);
-
-                switch (task.getType()) {
-                    case TASK -> manager.tasks.put(task.getId(), task);
-                    case EPIC -> manager.tasks.put(task.getId(), (Epic) task);
-                    case SUBTASK -> {
-                        Subtask sub = (Subtask) task;
-                        manager.tasks.put(task.getId(), sub);
-
-                        Epic epic = (Epic) manager.tasks.get(sub.getEpicId());
-                        if (epic != null) {
-                            epic.addSubTask(sub);
-                        }
-                    }
-                }
-                if (task.getId() > id) {
-                    id = task.getId();
+    // При ленивой загрузке в память читается только индекс снимка, а записи журнала
+    // применяются прямо к хранилищу и остаются закреплёнными до следующей контрольной точки.
+    private static FileBackedTaskManager loadLazily(File file, StorageOptions options) {
+        LazyTaskStore store = LazyTaskStore.open(file.toPath(), options.getCacheSize());
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getPath(), options, store);
+        if (!file.exists() && !manager.journal.exists()) {
+            manager.close();
+            throw new ManagerSaveException("Файл не найден: " + file.getPath());
+        }
+
+        manager.journal.replay(record -> applyJournalRecord(store, record));
+        manager.restoreLazily();
+        manager.restoreHistory();
+        return manager;
+    }
+
+    private void restoreHistory() {
+        if (options.isHistoryPersisted()) {
+            HistoryManager history = getHistoryManager();
+            historyJournal.replay(record -> history.add(tasks.get(Integer.parseInt(record))));
+        }
+    }
+
+    private static void applyJournalRecord(Map<Integer, Task> restored, String record) {
+        if (record.equals(TaskJournal.CLEAR)) {
+            restored.clear();
+            return;
+        }
+
+        int separator = record.indexOf(',');
+        String operation = record.substring(0, separator);
+        String payload = record.substring(separator + 1);
+
+        switch (operation) {
+            case TaskJournal.PUT -> {
+                Task task = Task.fromString(payload);
+                restored.put(task.getId(), task);
+            }
+            case TaskJournal.DELETE -> restored.remove(Integer.parseInt(payload));
+            default -> throw new ManagerSaveException("Неизвестная запись журнала: " + record);
+        }
+    }
+
+    private void restore(Iterable<Task> restored) {
+        int id = 0;
+        for (Task task : restored) {
+            putRestored(task);
+            if (task.getId() > id) {
+                id = task.getId();
+            }
+        }
+
+        for (Task task : restored) {
+            if (task.getType() == TaskType.SUBTASK) {
+                Subtask sub = (Subtask) task;
+                Epic epic = (Epic) tasks.get(sub.getEpicId());
+                if (epic != null) {
+                    epic.addSubTask(sub);
                 }
             }
-            manager.setTaskId(id);
+            if (task.getType() != TaskType.EPIC) {
+                addTaskIfHasTime(task);
+            }
+        }
+        setTaskId(id + 1);
+    }
 
-        } catch (IOException e) {
-            throw new ManagerSaveException(e.getMessage());
+    private void restoreLazily() {
+        CsvTaskIndex index = lazyStore.getIndex();
+        for (int position = 0; position < index.size(); position++) {
+            if (!lazyStore.isVisibleInFile(position)) {
+                continue;
+            }
+            TaskType type = index.getType(position);
+            indexRestored(index.getId(position), type);
+            if (type != TaskType.EPIC) {
+                addToSchedule(index.getId(position), index.getStartTime(position), index.getEndTime(position));
+            }
         }
+        index.dropScheduleData();
 
-        return manager;
+        List<Task> pinned = lazyStore.getPinned();
+        for (Task task : pinned) {
+            indexRestored(task.getId(), task.getType());
+            if (task instanceof Epic epic) {
+                epic.setSubTasks(lazyStore.getSubTasksFromFile(epic.getId()));
+            }
+        }
+        for (Task task : pinned) {
+            if (task instanceof Subtask sub) {
+                Epic epic = (Epic) tasks.get(sub.getEpicId());
+                if (epic != null) {
+                    epic.addSubTask(sub);
+                    lazyStore.pin(epic);
+                }
+            }
+            if (task.getType() != TaskType.EPIC) {
+                addTaskIfHasTime(task);
+            }
+        }
+        setTaskId(lazyStore.getMaxId() + 1);
     }
 
     public static void main(String[] args) {
         LocalDateTime startTime = LocalDateTime.of(2025, 5, 6, 10, 0);
+        TaskManager manager = Managers.getDefault();
         // Создайте две задачи, эпик с тремя подзадачами и эпик без подзадач.
         Task shoppingTask = new Task("Сходить в магазин", "Купить продуктов на неделю",
-                InMemoryTaskManager.getNewId(), startTime, 20);
+                manager.newId(), startTime, 20);
         Task cleaningTask = new Task("Убраться дома", "Протереть пыль",
-                InMemoryTaskManager.getNewId(), startTime.plusMinutes(40), 20);
+                manager.newId(), startTime.plusMinutes(40), 20);
         Epic understandingEncapsulationInOOP = new Epic("Пройти тему ООП. Инкапсуляция",
-                "Пройти все уроки и выполнить все упражнения", InMemoryTaskManager.getNewId());
+                "Пройти все уроки и выполнить все упражнения", manager.newId());
         Subtask completeFirstLesson = new Subtask("Выполнить первый урок",
                 "Прочитать теорию и выполнить практику",
-                InMemoryTaskManager.getNewId(), startTime.plusMinutes(65), 30,
+                manager.newId(), startTime.plusMinutes(65), 30,
                 understandingEncapsulationInOOP.getId());
         Subtask completeSecondLesson = new Subtask("Выполнить второй урок",
                 "Прочитать теорию и выполнить практику",
-                InMemoryTaskManager.getNewId(), startTime.plusMinutes(100), 30,
+                manager.newId(), startTime.plusMinutes(100), 30,
                 understandingEncapsulationInOOP.getId());
         Subtask completeFirstLesson2 = new Subtask("Выполнить первый урок",
                 "Прочитать теорию и выполнить практику",
-                InMemoryTaskManager.getNewId(), startTime.plusMinutes(140), 30,
+                manager.newId(), startTime.plusMinutes(140), 30,
                 understandingEncapsulationInOOP.getId());
         Epic understandingEncapsulationInOOP2 = new Epic("Пройти тему ООП. Инкапсуляция",
-                "Пройти все уроки и выполнить все упражнения", InMemoryTaskManager.getNewId());
+                "Пройти все уроки и выполнить все упражнения", manager.newId());
 
 
         List<Subtask> subtasks = new ArrayList<>();
@@ -192,7 +673,6 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
 
         understandingEncapsulationInOOP.setSubTasks(subtasks);
 
-        TaskManager manager = Managers.getDefault();
         manager.createTask(shoppingTask);
         manager.createTask(cleaningTask);
         manager.createTask(understandingEncapsulationInOOP);
@@ -0,0 +1,99 @@
+package manager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Поиск первых limit свободных промежутков окна [from, to), в которые помещается duration.
+// Записи расписания подаются в порядке начала (visit); занятое время — до самого позднего конца
+// среди уже поданных записей. Дерево спрашивает skips перед каждым поддеревом и пропускает его
+// целиком, если ни перед ним, ни внутри него подходящего промежутка нет.
+final class FreeSlotSearch {
+    private final long durationNanos;
+    private final ScheduleEntry window;
+    private final ScheduleEntry windowEnd;
+    private final int limit;
+    private final List<TimeSlot> slots = new ArrayList<>();
+    // Запись, конец которой — конец занятого времени; сначала это начало окна.
+    private ScheduleEntry covered;
+
+    // null вместо границы — окно открыто с этой стороны, как в TaskQuery.withWindow.
+    FreeSlotSearch(Duration duration, LocalDateTime from, LocalDateTime to, int limit) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Длительность должна быть положительной");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Количество промежутков должно быть положительным");
+        }
+        LocalDateTime start = from == null ? LocalDateTime.MIN : from;
+        LocalDateTime end = to == null ? LocalDateTime.MAX : to;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Начало окна должно быть раньше его конца");
+        }
+        this.durationNanos = ScheduleEntry.saturatedNanos(duration.getSeconds(), duration.getNano());
+        this.window = ScheduleEntry.of(-1, start, end);
+        this.windowEnd = ScheduleEntry.of(-1, end, end);
+        this.covered = ScheduleEntry.of(-1, start, start);
+        this.limit = limit;
+    }
+
+    ScheduleEntry window() {
+        return window;
+    }
+
+    // Поддерево с первой записью first, наибольшим промежутком внутри maxGap и самым поздним концом maxEnd
+    // можно пропустить: занятое время просто продлевается до его конца.
+    boolean skips(ScheduleEntry first, long maxGap, ScheduleEntry maxEnd) {
+        boolean covers = ScheduleEntry.compareByEnd(maxEnd, covered) <= 0;
+        if (!covers && (maxGap >= durationNanos || covered.nanosUntilStartOf(first) >= durationNanos)) {
+            return false;
+        }
+        cover(maxEnd);
+        return true;
+    }
+
+    // false — дальше искать не нужно: запись начинается за окном или промежутки уже набраны.
+    boolean visit(ScheduleEntry entry) {
+        if (!entry.startsBeforeEndOf(window)) {
+            return false;
+        }
+        if (covered.nanosUntilStartOf(entry) >= durationNanos) {
+            slots.add(new TimeSlot(covered.getEnd(), entry.getStart()));
+        }
+        cover(entry);
+        return slots.size() < limit;
+    }
+
+    // Промежуток от последней записи до конца окна.
+    List<TimeSlot> finish() {
+        if (slots.size() < limit && covered.nanosUntilStartOf(windowEnd) >= durationNanos) {
+            slots.add(new TimeSlot(covered.getEnd(), windowEnd.getStart()));
+        }
+        return slots;
+    }
+
+    // Наибольший промежуток в поддереве из левого поддерева, записи узла и правого поддерева.
+    // Для расписания без пересечений оценка точная, при пересечениях — не меньше настоящей.
+    static long maxGap(ScheduleEntry entry, ScheduleEntry leftMaxEnd, long leftGap,
+                       ScheduleEntry rightFirst, long rightGap) {
+        long gap = 0;
+        ScheduleEntry before = entry;
+        if (leftMaxEnd != null) {
+            gap = Math.max(leftGap, leftMaxEnd.nanosUntilStartOf(entry));
+            if (ScheduleEntry.compareByEnd(leftMaxEnd, entry) > 0) {
+                before = leftMaxEnd;
+            }
+        }
+        if (rightFirst != null) {
+            gap = Math.max(gap, Math.max(rightGap, before.nanosUntilStartOf(rightFirst)));
+        }
+        return gap;
+    }
+
+    private void cover(ScheduleEntry entry) {
+        if (ScheduleEntry.compareByEnd(entry, covered) > 0) {
+            covered = entry;
+        }
+    }
+}
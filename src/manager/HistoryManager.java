@@ -10,4 +10,7 @@ public interface HistoryManager {
     void remove(int id);
 
     List<Task> getHistory();
+
+    // Не больше limit просмотров после курсора (null — с начала истории) и курсор следующей страницы.
+    TaskPage getHistoryPage(String cursor, int limit);
 }
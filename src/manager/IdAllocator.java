@@ -0,0 +1,72 @@
+package manager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Выдача id без общей блокировки: каждый поток арендует блок id и раздаёт его сам,
+// к общей границе (первому ещё не выданному id) обращается только раз на блок.
+// Если у хранилища есть файл аренды, граница хранится в нём, и несколько процессов,
+// работающих с одним хранилищем, получают непересекающиеся блоки.
+public final class IdAllocator {
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private final int blockSize;
+    private final AtomicLong highWaterMark = new AtomicLong(1);
+    private final IdLeaseFile leaseFile;
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public IdAllocator() {
+        this(DEFAULT_BLOCK_SIZE, null);
+    }
+
+    IdAllocator(int blockSize, IdLeaseFile leaseFile) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока id должен быть положительным: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.leaseFile = leaseFile;
+    }
+
+    public int next() {
+        Block block = blocks.get();
+        if (block.next >= block.end) {
+            block.next = lease();
+            block.end = block.next + blockSize;
+        }
+        return (int) block.next++;
+    }
+
+    // Все следующие блоки начнутся не раньше id. Уже арендованные потоками блоки не меняются.
+    public void advanceTo(long id) {
+        highWaterMark.accumulateAndGet(id, Math::max);
+    }
+
+    // Граница выдачи: id от неё и дальше ещё никому не выданы.
+    public long getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    private long lease() {
+        if (leaseFile == null) {
+            long start = highWaterMark.getAndAdd(blockSize);
+            checkRange(start);
+            return start;
+        }
+        synchronized (this) {
+            long start = leaseFile.lease(highWaterMark.get(), blockSize);
+            checkRange(start);
+            highWaterMark.accumulateAndGet(start + blockSize, Math::max);
+            return start;
+        }
+    }
+
+    private void checkRange(long start) {
+        if (start + blockSize - 1 > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Закончились свободные id");
+        }
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,87 @@
+package manager;
+
+import exception.ManagerSaveException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Файл с границей выдачи id рядом со снимком. Аренда блока — чтение границы, сдвиг на размер блока
+// и запись на диск под блокировкой файла, поэтому блоки не пересекаются и между процессами,
+// а после сбоя id не выдаются повторно: граница записывается до того, как блок начнут раздавать.
+class IdLeaseFile {
+    private final Path path;
+
+    IdLeaseFile(String path) {
+        this.path = Path.of(path);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long read() {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try {
+            return parse(Files.readString(path, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    // Возвращает начало арендованного блока: не меньше atLeast и не меньше сохранённой границы.
+    // Блокировка файла защищает от других процессов, а внутри процесса аренды идут по очереди:
+    // повторная блокировка того же файла из другого канала в одной JVM запрещена.
+    long lease(long atLeast, int size) {
+        synchronized (IdLeaseFile.class) {
+            return leaseLocked(atLeast, size);
+        }
+    }
+
+    private long leaseLocked(long atLeast, int size) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return writeNextBoundary(channel, atLeast, size);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось арендовать блок id: " + e.getMessage());
+        }
+    }
+
+    private static long writeNextBoundary(FileChannel channel, long atLeast, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 64));
+        channel.read(buffer, 0);
+        long start = Math.max(atLeast, parse(new String(buffer.array(), 0, buffer.position(),
+                StandardCharsets.UTF_8)));
+
+        byte[] next = (Long.toString(start + size) + "\n").getBytes(StandardCharsets.UTF_8);
+        // Граница только растёт, поэтому новая запись не короче старой и полностью её перекрывает.
+        channel.write(ByteBuffer.wrap(next), 0);
+        channel.truncate(next.length);
+        channel.force(true);
+        return start;
+    }
+
+    private static long parse(String content) {
+        String value = content.trim();
+        if (value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ManagerSaveException("Повреждён файл границы id: " + value);
+        }
+    }
+}
@@ -3,14 +3,13 @@ package manager;
 import task.Task;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.List;
 
 public class InMemoryHistoryManager implements HistoryManager {
-    private final Map<Integer, TaskNode<Task>> historyMap = new HashMap<>();
+    private final IntHashMap<TaskNode<Task>> historyMap = new IntHashMap<>();
     private TaskNode<Task> head;
     private TaskNode<Task> tail;
+    private long nextSequence = 1;
 
     @Override
     public void add(Task task) {
@@ -37,6 +36,42 @@ public class InMemoryHistoryManager implements HistoryManager {
         return result;
     }
 
+    // Курсор — id последней задачи прошлой страницы и номер её просмотра. Номера растут с каждым
+    // просмотром, поэтому страницы не сбиваются, даже если задачу курсора удалили или просмотрели снова:
+    // тогда следующая страница начинается с первого просмотра после номера курсора.
+    @Override
+    public TaskPage getHistoryPage(String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        TaskNode<Task> current = head;
+        if (cursor != null) {
+            int separator = cursor.indexOf(',');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Неверный курсор истории: " + cursor);
+            }
+            int afterId = Integer.parseInt(cursor.substring(0, separator));
+            long afterSequence = Long.parseLong(cursor.substring(separator + 1));
+            TaskNode<Task> after = historyMap.get(afterId);
+            if (after != null && after.sequence == afterSequence) {
+                current = after.next;
+            } else {
+                while (current != null && current.sequence <= afterSequence) {
+                    current = current.next;
+                }
+            }
+        }
+        List<Task> result = new ArrayList<>();
+        TaskNode<Task> last = null;
+        while (current != null && result.size() < limit) {
+            result.add(current.data);
+            last = current;
+            current = current.next;
+        }
+        String next = current == null ? null : last.data.getId() + "," + last.sequence;
+        return new TaskPage(result, next);
+    }
+
     @Override
     public void remove(int id) {
         TaskNode<Task> node = historyMap.remove(id);
@@ -47,6 +82,7 @@ public class InMemoryHistoryManager implements HistoryManager {
 
     private TaskNode<Task> linkLast(Task task) {
         TaskNode<Task> newNode = new TaskNode<>(tail, task, null);
+        newNode.sequence = nextSequence++;
         if (tail == null) {
             head = newNode;
         } else {
@@ -78,6 +114,7 @@ public class InMemoryHistoryManager implements HistoryManager {
         T data;
         TaskNode<T> next;
         TaskNode<T> prev;
+        long sequence;
 
         TaskNode(TaskNode<T> prev, T current, TaskNode<T> next) {
             this.data = current;
@@ -1,30 +1,81 @@
 package manager;
 
+import exception.NotFoundException;
 import exception.TaskScheduleConflictException;
 import task.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class InMemoryTaskManager implements TaskManager {
-    protected static int taskId = 1;
-    protected HashMap<Integer, Task> tasks;
+    // Общий счётчик для задач, которые создаются вне менеджера; сам менеджер выдаёт id через newId().
+    private static final IdAllocator SHARED_IDS = new IdAllocator();
+    protected IntKeyMap<Task> tasks;
+    private final IdAllocator ids;
     private final HistoryManager historyManager;
-
-    private final Set<Task> tasksSortedByStartTime = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+    // Множества id упорядочены, чтобы выборки и страницы шли по возрастанию id с любого места.
+    private final Map<TaskType, NavigableSet<Integer>> idsByType = new EnumMap<>(TaskType.class);
+    private final Map<TaskStatus, NavigableSet<Integer>> idsByStatus = new EnumMap<>(TaskStatus.class);
+    // При ленивой загрузке статусы задач из файла неизвестны, и индекс статусов неполон.
+    private boolean statusIndexed = true;
+    // Полнотекстовый индекс строится при первом поиске и дальше обновляется каждой записью.
+    private volatile TextIndex textIndex;
+
+    private final IntervalTree tasksSortedByStartTime = new IntervalTree(ScheduleEntry::compareByStartAndId);
+    private final Map<Integer, ScheduleEntry> scheduledById = new HashMap<>();
     public static final LocalDateTime UNDEFINED_TIME =
             LocalDateTime.of(1, 1, 1, 0, 0);
     private static final String OVERLAP_WARNING_MESSAGE =
             "Задача пересекается по времени с другой задачей в расписании";
 
     public InMemoryTaskManager() {
-        tasks = new HashMap<>();
-        historyManager = Managers.getDefaultHistory();
+        this(new IntHashMap<>());
+    }
+
+    protected InMemoryTaskManager(IntKeyMap<Task> tasks) {
+        this(tasks, new IdAllocator());
     }
 
+    protected InMemoryTaskManager(IntKeyMap<Task> tasks, IdAllocator ids) {
+        this(tasks, Managers.getDefaultHistory(), TreeSet::new, ids);
+    }
+
+    protected InMemoryTaskManager(IntKeyMap<Task> tasks, HistoryManager historyManager,
+                                  Supplier<NavigableSet<Integer>> idSets, IdAllocator ids) {
+        this.tasks = tasks;
+        this.historyManager = historyManager;
+        this.ids = ids;
+        for (TaskType type : TaskType.values()) {
+            idsByType.put(type, idSets.get());
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            idsByStatus.put(status, idSets.get());
+        }
+    }
+
+    // Общий счётчик не знает, какие id заняты на конкретной доске; id для неё выдаёт newId() менеджера.
+    @Deprecated
     public static int getNewId() {
-        return InMemoryTaskManager.taskId++;
+        return SHARED_IDS.next();
+    }
+
+    // id, занятые задачами с id из другого источника (например, из getNewId()), пропускаются.
+    @Override
+    public int newId() {
+        int id = ids.next();
+        while (tasks.containsKey(id)) {
+            id = ids.next();
+        }
+        return id;
+    }
+
+    protected IdAllocator getIdAllocator() {
+        return ids;
     }
 
     @Override
@@ -34,53 +85,55 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getAllTasks() {
-        return tasks.values().stream()
-                .filter(task -> task.getType() == TaskType.TASK)
-                .collect(Collectors.toList());
+        return getAllOfType(TaskType.TASK);
     }
 
     @Override
     public List<Task> getAllSubTasks() {
-        return tasks.values().stream()
-                .filter(task -> task.getType() == TaskType.SUBTASK)
-                .collect(Collectors.toList());
+        return getAllOfType(TaskType.SUBTASK);
     }
 
     @Override
     public List<Task> getAllEpics() {
-        return tasks.values().stream()
-                .filter(task -> task.getType() == TaskType.EPIC)
+        return getAllOfType(TaskType.EPIC);
+    }
+
+    // Выборка и удаление по типу идут по индексу id этого типа и не просматривают остальные задачи.
+    private List<Task> getAllOfType(TaskType type) {
+        return idsByType.get(type).stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     @Override
     public void deleteAll() {
         tasks.clear();
+        idsByType.values().forEach(Set::clear);
+        idsByStatus.values().forEach(Set::clear);
+        statusIndexed = true;
+        if (textIndex != null) {
+            textIndex.clear();
+        }
+        tasksSortedByStartTime.clear();
+        scheduledById.clear();
+        onAllRemoved();
     }
 
     @Override
     public void deleteAllTasks() {
-        tasks.entrySet().removeIf(entry -> {
-            Task task = entry.getValue();
-            if (task.getType() == TaskType.TASK) {
-                historyManager.remove(task.getId());
-                return true;
-            }
-            return false;
-        });
+        for (Integer id : List.copyOf(idsByType.get(TaskType.TASK))) {
+            removeStored(id);
+        }
     }
 
     @Override
     public void deleteAllSubTasks() {
-        Set<Integer> epicIds = tasks.values().stream()
-                .filter(task -> task.getType() == TaskType.SUBTASK)
-                .map(task -> {
-                    historyManager.remove(task.getId());
-                    return ((Subtask) task).getEpicId();
-                })
-                .collect(Collectors.toSet());
-
-        tasks.entrySet().removeIf(entry -> entry.getValue().getType() == TaskType.SUBTASK);
+        Set<Integer> epicIds = new HashSet<>();
+        for (Integer id : List.copyOf(idsByType.get(TaskType.SUBTASK))) {
+            Subtask subtask = (Subtask) removeStored(id);
+            epicIds.add(subtask.getEpicId());
+        }
 
         epicIds.forEach(epicId -> {
             Epic epic = (Epic) tasks.get(epicId);
@@ -93,15 +146,12 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteAllEpics() {
-        tasks.entrySet().removeIf(entry -> {
-            Task task = entry.getValue();
-            TaskType type = task.getType();
-            if (type == TaskType.EPIC || type == TaskType.SUBTASK) {
-                historyManager.remove(task.getId());
-                return true;
-            }
-            return false;
-        });
+        for (Integer id : List.copyOf(idsByType.get(TaskType.EPIC))) {
+            removeStored(id);
+        }
+        for (Integer id : List.copyOf(idsByType.get(TaskType.SUBTASK))) {
+            removeStored(id);
+        }
     }
 
     @Override
@@ -115,13 +165,87 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void createTask(Task task) throws TaskScheduleConflictException {
-        TaskType type = task.getType();
+        if (task.getType() != TaskType.EPIC && !isTimeSlotAvailable(task)) {
+            throw new TaskScheduleConflictException(OVERLAP_WARNING_MESSAGE);
+        }
+        applyCreate(task);
+    }
 
-        if (type != TaskType.EPIC && !isTimeSlotAvailable(task)) {
+    @Override
+    public void updateTask(Task task) throws TaskScheduleConflictException {
+        if (task.getType() != TaskType.EPIC && !isTimeSlotAvailable(task)) {
             throw new TaskScheduleConflictException(OVERLAP_WARNING_MESSAGE);
         }
+        applyUpdate(task);
+    }
 
-        tasks.put(task.getId(), task);
+    // Пакет проверяется до первого изменения, поэтому применяется весь или не применяется вовсе.
+    // Эпики пакета сохраняются раньше остальных задач, чтобы подзадачи могли ссылаться на них.
+    @Override
+    public void createTasks(Collection<? extends Task> batch) throws TaskScheduleConflictException {
+        validateBatch(batch);
+        applyEpicsFirst(batch, this::applyCreate);
+    }
+
+    @Override
+    public void updateTasks(Collection<? extends Task> batch) throws TaskScheduleConflictException {
+        validateBatch(batch);
+        applyEpicsFirst(batch, this::applyUpdate);
+    }
+
+    private void applyEpicsFirst(Collection<? extends Task> batch, Consumer<Task> apply) {
+        for (Task task : batch) {
+            if (task.getType() == TaskType.EPIC) {
+                apply.accept(task);
+            }
+        }
+        for (Task task : batch) {
+            if (task.getType() != TaskType.EPIC) {
+                apply.accept(task);
+            }
+        }
+    }
+
+    // Пересечения внутри пакета ищутся заметающей прямой: интервалы сортируются по началу
+    // (при равном начале — по концу), и каждый сравнивается с самым поздним концом до него.
+    // С расписанием каждый интервал сверяется по дереву интервалов за O(log n + k); прежние
+    // интервалы задач самого пакета не учитываются — пакет их заменит.
+    private void validateBatch(Collection<? extends Task> batch) {
+        IntHashMap<Task> byId = new IntHashMap<>(batch.size());
+        for (Task task : batch) {
+            if (byId.put(task.getId(), task) != null) {
+                throw new IllegalArgumentException("В пакете повторяется id " + task.getId());
+            }
+        }
+
+        List<ScheduleEntry> timed = new ArrayList<>();
+        for (Task task : batch) {
+            if (task instanceof Subtask subtask && !(byId.get(subtask.getEpicId()) instanceof Epic)
+                    && !(tasks.get(subtask.getEpicId()) instanceof Epic)) {
+                throw new NotFoundException("Эпик с id=" + subtask.getEpicId() + " не найден");
+            }
+            if (task.getType() != TaskType.EPIC && hasTime(task)) {
+                timed.add(ScheduleEntry.of(task));
+            }
+        }
+
+        Comparator<ScheduleEntry> byStart = ScheduleEntry::compareByStart;
+        timed.sort(byStart.thenComparing(ScheduleEntry::compareByEnd));
+        ScheduleEntry latest = null;
+        for (ScheduleEntry entry : timed) {
+            if (latest != null && entry.startsBeforeEndOf(latest)
+                    || tasksSortedByStartTime.overlapsAny(entry, byId::containsKey)) {
+                throw new TaskScheduleConflictException(OVERLAP_WARNING_MESSAGE);
+            }
+            if (latest == null || ScheduleEntry.compareByEnd(entry, latest) > 0) {
+                latest = entry;
+            }
+        }
+    }
+
+    private void applyCreate(Task task) {
+        TaskType type = task.getType();
+        store(task);
 
         if (type == TaskType.SUBTASK) {
             Subtask subtask = (Subtask) task;
@@ -135,15 +259,10 @@ public class InMemoryTaskManager implements TaskManager {
         }
     }
 
-    @Override
-    public void updateTask(Task task) throws TaskScheduleConflictException {
+    private void applyUpdate(Task task) {
         TaskType type = task.getType();
+        store(task);
 
-        if (type != TaskType.EPIC && !isTimeSlotAvailable(task)) {
-            throw new TaskScheduleConflictException(OVERLAP_WARNING_MESSAGE);
-        }
-
-        tasks.put(task.getId(), task);
         if (type == TaskType.SUBTASK) {
             Subtask subtask = (Subtask) task;
             Epic epic = (Epic) tasks.get(subtask.getEpicId());
@@ -161,34 +280,16 @@ public class InMemoryTaskManager implements TaskManager {
         Epic epic = (Epic) tasks.get(epicId);
         if (epic == null) return;
 
-        List<Subtask> subTasks = epic.getSubTasks().stream()
-                .filter(Objects::nonNull)
-                .toList();
-
-        if (subTasks.isEmpty()) {
-            epic.setStatus(TaskStatus.NEW);
-            return;
-        }
-
-        boolean allNew = subTasks.stream().allMatch(st -> st.getStatus() == TaskStatus.NEW);
-        boolean allDone = subTasks.stream().allMatch(st -> st.getStatus() == TaskStatus.DONE);
-
-        if (allNew) {
-            epic.setStatus(TaskStatus.NEW);
-        } else if (allDone) {
-            epic.setStatus(TaskStatus.DONE);
-        } else {
-            epic.setStatus(TaskStatus.IN_PROGRESS);
-        }
-
+        epic.setStatus(epic.calculateStatus());
+        indexStatus(epic);
+        onTaskStored(epic);
     }
 
     @Override
-    public void deleteById(Integer id) {
-        Task deletedTask = tasks.remove(id);
+    public void deleteById(int id) {
+        Task deletedTask = removeStored(id);
         if (deletedTask == null) return;
 
-        historyManager.remove(id);
         TaskType type = deletedTask.getType();
 
         if (type == TaskType.SUBTASK) {
@@ -204,10 +305,7 @@ public class InMemoryTaskManager implements TaskManager {
             Epic epic = (Epic) deletedTask;
             epic.getSubTasks().stream()
                     .map(Subtask::getId)
-                    .forEach(subtaskId -> {
-                        tasks.remove(subtaskId);
-                        historyManager.remove(subtaskId);
-                    });
+                    .forEach(this::removeStored);
         }
     }
 
@@ -226,38 +324,302 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager;
     }
 
+    // Следующие блоки id этого менеджера начнутся не раньше id; на другие доски это не влияет.
     public void setTaskId(int id) {
-        taskId = id;
+        ids.advanceTo(id);
+    }
+
+    private void store(Task task) {
+        TaskType type = task.getType();
+        Task previous = tasks.put(task.getId(), task);
+        // Задача со своим id: следующие блоки newId() начнутся после него.
+        ids.advanceTo(task.getId() + 1L);
+        if (previous != null && previous.getType() != type) {
+            idsByType.get(previous.getType()).remove(task.getId());
+        }
+        idsByType.get(type).add(task.getId());
+        indexStatus(task);
+        if (textIndex != null) {
+            textIndex.put(task.getId(), task.getName(), task.getDescription());
+        }
+        onTaskStored(task);
+    }
+
+    // Статус хранимой задачи мог измениться на месте, поэтому прежний статус не ищется:
+    // id просто убирается из остальных множеств.
+    private void indexStatus(Task task) {
+        idsByStatus.forEach((status, statusIds) -> {
+            if (status == task.getStatus()) {
+                statusIds.add(task.getId());
+            } else {
+                statusIds.remove(task.getId());
+            }
+        });
+    }
+
+    private Task removeStored(int id) {
+        Task removed = tasks.remove(id);
+        if (removed == null) {
+            return null;
+        }
+        idsByType.get(removed.getType()).remove(id);
+        idsByStatus.values().forEach(statusIds -> statusIds.remove(id));
+        if (textIndex != null) {
+            textIndex.remove(id);
+        }
+        historyManager.remove(id);
+        onTaskRemoved(id);
+        removeTaskIfPresent(removed);
+        return removed;
+    }
+
+    // Задачи, прочитанные из файла, попадают в хранилище и индексы без уведомления о сохранении.
+    protected void putRestored(Task task) {
+        tasks.put(task.getId(), task);
+        idsByType.get(task.getType()).add(task.getId());
+        indexStatus(task);
+    }
+
+    // Для ленивой загрузки: сама задача остаётся в файле, в индекс попадает только её id.
+    void indexRestored(int id, TaskType type) {
+        idsByType.get(type).add(id);
+        statusIndexed = false;
+    }
+
+    protected void onTaskStored(Task task) {
+    }
+
+    protected void onTaskRemoved(int id) {
+    }
+
+    protected void onAllRemoved() {
+    }
+
+    protected static boolean hasTime(Task task) {
+        LocalDateTime startTime = task.getStartTime();
+        return startTime != null && !startTime.isEqual(UNDEFINED_TIME);
     }
 
     private boolean isTimeSlotAvailable(Task task) {
         LocalDateTime newStart = task.getStartTime();
-        LocalDateTime newEnd = task.getEndTime();
 
         if (newStart.isEqual(UNDEFINED_TIME)) {
             return true;
         }
 
-        return !tasksSortedByStartTime.stream()
-                .filter(existing -> !existing.getStartTime().isEqual(UNDEFINED_TIME))
-                .filter(existing -> existing.getId() != task.getId())
-                .anyMatch(existing ->
-                        newStart.isBefore(existing.getEndTime()) && newEnd.isAfter(existing.getStartTime())
-                );
+        return !tasksSortedByStartTime.overlapsAny(ScheduleEntry.of(task), task.getId());
     }
 
     public List<Task> getSortedTasksByTime() {
-        return List.copyOf(tasksSortedByStartTime);
+        List<Task> sorted = new ArrayList<>(tasksSortedByStartTime.size());
+        tasksSortedByStartTime.forEach(entry -> {
+            Task task = tasks.get(entry.getId());
+            if (task != null) {
+                sorted.add(task);
+            }
+        });
+        return Collections.unmodifiableList(sorted);
+    }
+
+    // Задачи, пересекающие полуинтервал [from, to), в порядке начала.
+    @Override
+    public List<Task> getTasksOverlapping(LocalDateTime from, LocalDateTime to) {
+        return tasksSortedByStartTime.overlapping(ScheduleEntry.of(-1, from, to)).stream()
+                .map(entry -> tasks.get(entry.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(Duration duration, LocalDateTime from, LocalDateTime to, int limit) {
+        return tasksSortedByStartTime.freeSlots(new FreeSlotSearch(duration, from, to, limit));
+    }
+
+    // Кандидаты берутся из самого избирательного индекса — подзадачи эпика, id типа, id статуса
+    // или окно расписания, — а остальные условия проверяются на самих задачах. Окно просматривается
+    // не дальше размера лучшего из остальных индексов, поэтому широкое окно почти ничего не стоит.
+    // Множества id упорядочены, а окно идёт в порядке начала, поэтому страница после курсора
+    // читается с нужного места и заканчивается, как только набрано query.getLimit() задач.
+    @Override
+    public List<Task> query(TaskQuery query) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        Collection<Integer> candidates = null;
+        if (query.getEpicId() != null) {
+            if (!(tasks.get(query.getEpicId()) instanceof Epic epic)) {
+                return List.of();
+            }
+            candidates = epic.getSubTasks().stream().map(Task::getId).toList();
+        }
+        if (query.getType() != null) {
+            candidates = smallest(candidates, idsByType.get(query.getType()));
+        }
+        if (query.getStatus() != null && statusIndexed) {
+            candidates = smallest(candidates, idsByStatus.get(query.getStatus()));
+        }
+
+        int pageSize = query.pageSize();
+        if (query.hasWindow()) {
+            int probe = candidates == null ? Integer.MAX_VALUE : candidates.size();
+            int[] seen = new int[1];
+            List<Task> page = new ArrayList<>();
+            tasksSortedByStartTime.forEachOverlapping(query.window(), query.afterEntry(), entry -> {
+                if (seen[0]++ == probe) {
+                    return false;
+                }
+                Task task = tasks.get(entry.getId());
+                if (task != null && query.matches(task)) {
+                    page.add(task);
+                }
+                return page.size() < pageSize;
+            });
+            if (seen[0] <= probe) {
+                return page;
+            }
+        }
+        if (candidates == null) {
+            return collectInOrder(allIdsAfter(query.afterId()), query);
+        }
+        if (candidates instanceof NavigableSet<Integer> ordered && !query.hasWindow()) {
+            return collectInOrder(ordered.tailSet(query.afterId(), false), query);
+        }
+
+        // Подзадачи эпика не упорядочены по id, а кандидаты для окна — по началу, поэтому
+        // они сортируются целиком; их не больше, чем задач в окне или у эпика.
+        List<Task> result = new ArrayList<>();
+        for (Integer id : candidates) {
+            Task task = tasks.get(id);
+            if (task != null && query.matches(task) && query.isAfterCursor(task)) {
+                result.add(task);
+            }
+        }
+        result.sort(query.order());
+        return result.size() > pageSize ? new ArrayList<>(result.subList(0, pageSize)) : result;
+    }
+
+    private static Collection<Integer> smallest(Collection<Integer> current, Collection<Integer> index) {
+        return current == null || index.size() < current.size() ? index : current;
+    }
+
+    private List<Task> collectInOrder(Iterable<Integer> ids, TaskQuery query) {
+        List<Task> page = new ArrayList<>();
+        for (Iterator<Integer> it = ids.iterator(); it.hasNext() && page.size() < query.pageSize(); ) {
+            Task task = tasks.get(it.next());
+            if (task != null && query.matches(task)) {
+                page.add(task);
+            }
+        }
+        return page;
+    }
+
+    // Id всех задач по возрастанию после afterId: слияние упорядоченных множеств id по типам.
+    private Iterable<Integer> allIdsAfter(int afterId) {
+        return () -> new Iterator<>() {
+            private final List<Iterator<Integer>> sources = idsByType.values().stream()
+                    .map(typeIds -> typeIds.tailSet(afterId, false).iterator())
+                    .toList();
+            private final Integer[] heads = new Integer[sources.size()];
+
+            {
+                for (int i = 0; i < heads.length; i++) {
+                    heads[i] = sources.get(i).hasNext() ? sources.get(i).next() : null;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return Arrays.stream(heads).anyMatch(Objects::nonNull);
+            }
+
+            @Override
+            public Integer next() {
+                int smallest = -1;
+                for (int i = 0; i < heads.length; i++) {
+                    if (heads[i] != null && (smallest < 0 || heads[i] < heads[smallest])) {
+                        smallest = i;
+                    }
+                }
+                if (smallest < 0) {
+                    throw new NoSuchElementException();
+                }
+                Integer id = heads[smallest];
+                heads[smallest] = sources.get(smallest).hasNext() ? sources.get(smallest).next() : null;
+                return id;
+            }
+        };
+    }
+
+    @Override
+    public List<Task> search(String text, int afterId, int limit) {
+        SearchQuery query = SearchQuery.parse(text);
+        return pageOfIds(searchIds(query), afterId, limit, tasks::get);
+    }
+
+    int[] searchIds(SearchQuery query) {
+        buildTextIndex();
+        return textIndex.search(query);
+    }
+
+    protected boolean hasTextIndex() {
+        return textIndex != null;
+    }
+
+    // Первый поиск один раз проходит по всем задачам; при ленивой загрузке это прочитает файл целиком.
+    protected void buildTextIndex() {
+        if (textIndex != null) {
+            return;
+        }
+        TextIndex index = new TextIndex();
+        for (Task task : tasks.values()) {
+            index.put(task.getId(), task.getName(), task.getDescription());
+        }
+        textIndex = index;
+    }
+
+    // Не больше limit задач с id больше afterId из упорядоченного массива id.
+    static List<Task> pageOfIds(int[] ids, int afterId, int limit, IntFunction<Task> lookup) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        int position = Arrays.binarySearch(ids, afterId);
+        List<Task> page = new ArrayList<>();
+        for (int i = position >= 0 ? position + 1 : -position - 1; i < ids.length && page.size() < limit; i++) {
+            Task task = lookup.apply(ids[i]);
+            if (task != null) {
+                page.add(task);
+            }
+        }
+        return page;
     }
 
     protected void addTaskIfHasTime(Task task) {
-        LocalDateTime startTime = task.getStartTime();
+        if (hasTime(task)) {
+            schedule(ScheduleEntry.of(task));
+        }
+    }
+
+    // Для ленивой загрузки: расписание заполняется из индекса файла без создания самих задач.
+    void addToSchedule(int id, LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime != null && !startTime.isEqual(UNDEFINED_TIME)) {
-            tasksSortedByStartTime.add(task);
+            schedule(ScheduleEntry.of(id, startTime, endTime));
         }
     }
 
-    private void removeTaskIfPresent(Task task) {
-        tasksSortedByStartTime.removeIf(existingTask -> existingTask.getId() == task.getId());
+    // Ключ записи — пара (начало, id), а по id запись находится через отдельную карту,
+    // поэтому перенос задачи на другое время — это два логарифмических шага: удалить и вставить.
+    private void schedule(ScheduleEntry entry) {
+        ScheduleEntry previous = scheduledById.put(entry.getId(), entry);
+        if (previous != null) {
+            tasksSortedByStartTime.remove(previous);
+        }
+        tasksSortedByStartTime.add(entry);
+    }
+
+    protected void removeTaskIfPresent(Task task) {
+        ScheduleEntry entry = scheduledById.remove(task.getId());
+        if (entry != null) {
+            tasksSortedByStartTime.remove(entry);
+        }
     }
 }
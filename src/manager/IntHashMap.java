@@ -0,0 +1,287 @@
+package manager;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Хеш-таблица int -> значение с открытой адресацией и линейным пробированием.
+// Ключи и значения лежат в двух параллельных массивах: ни упаковки ключа, ни узла на каждую запись.
+// Пустая ячейка — ячейка с null в массиве значений, поэтому null хранить нельзя, а ключ может быть любым.
+// Удаление сдвигает следующие записи цепочки назад, так что надгробий нет и поиск не деградирует.
+public final class IntHashMap<V> extends AbstractMap<Integer, V> implements IntKeyMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    public IntHashMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    public IntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = slot(key);
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value, "IntHashMap не хранит null");
+        int slot = slot(key);
+        Object current;
+        while ((current = values[slot]) != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return (V) current;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash(values.length * 2);
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = slot(key);
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                size--;
+                shiftBack(slot, null);
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    V element(int key, V value) {
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    Entry<Integer, V> element(int key, V value) {
+                        return new SimpleImmutableEntry<>(key, value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Старшие биты подмешиваются к младшим так же, как в HashMap, поэтому плотные id ложатся
+    // в соседние ячейки по возрастанию и обход идёт почти в порядке id, как у прежней карты.
+    private int slot(int key) {
+        return (key ^ (key >>> 16)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = capacity / 2;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Освобождает ячейку и переносит в неё записи, которые иначе стали бы недостижимы.
+    // Итератор после удаления заново смотрит освободившуюся ячейку, поэтому записи, пришедшие
+    // из ещё не пройденных ячеек, он не пропустит. Запись, переехавшая через конец массива,
+    // уже была пройдена в его начале, и итератор запоминает её, чтобы не выдать второй раз.
+    private void shiftBack(int slot, SlotIterator<?> iterator) {
+        while (true) {
+            int last = slot;
+            slot = (slot + 1) & mask;
+            while (true) {
+                if (values[slot] == null) {
+                    values[last] = null;
+                    return;
+                }
+                int home = slot(keys[slot]);
+                if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (iterator != null && slot < last) {
+                iterator.skip(keys[slot]);
+            }
+            keys[last] = keys[slot];
+            values[last] = values[slot];
+        }
+    }
+
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int position = -1;
+        private int remaining = size;
+        private int last = -1;
+        private int[] skipped;
+        private int skippedCount;
+
+        abstract T element(int key, V value);
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            while (++position < values.length) {
+                if (values[position] != null && !unskip(keys[position])) {
+                    remaining--;
+                    last = position;
+                    return element(keys[position], (V) values[position]);
+                }
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            size--;
+            shiftBack(last, this);
+            position = last - 1;
+            last = -1;
+        }
+
+        private void skip(int key) {
+            if (skipped == null) {
+                skipped = new int[2];
+            } else if (skippedCount == skipped.length) {
+                skipped = Arrays.copyOf(skipped, skippedCount * 2);
+            }
+            skipped[skippedCount++] = key;
+        }
+
+        private boolean unskip(int key) {
+            for (int i = 0; i < skippedCount; i++) {
+                if (skipped[i] == key) {
+                    skipped[i] = skipped[--skippedCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
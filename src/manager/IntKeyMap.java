@@ -0,0 +1,80 @@
+package manager;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+// Карта с ключом int. Вызовы с примитивным ключом не упаковывают его в Integer,
+// а для хранилищ без своей примитивной реализации переходят на обычные методы Map.
+public interface IntKeyMap<V> extends Map<Integer, V> {
+
+    default V get(int key) {
+        return get((Object) key);
+    }
+
+    default boolean containsKey(int key) {
+        return containsKey((Object) key);
+    }
+
+    default V put(int key, V value) {
+        return put((Integer) key, value);
+    }
+
+    default V remove(int key) {
+        return remove((Object) key);
+    }
+
+    // Обёртка над обычной картой, например конкурентной, где упаковка ключа остаётся.
+    static <V> IntKeyMap<V> boxed(Map<Integer, V> map) {
+        return new Boxed<>(map);
+    }
+
+    final class Boxed<V> extends AbstractMap<Integer, V> implements IntKeyMap<V> {
+        private final Map<Integer, V> map;
+
+        private Boxed(Map<Integer, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public V get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public V put(Integer key, V value) {
+            return map.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public Collection<V> values() {
+            return map.values();
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            return map.entrySet();
+        }
+    }
+}
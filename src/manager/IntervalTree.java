@@ -0,0 +1,261 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+// АВЛ-дерево интервалов расписания, упорядоченное по началу, а при равном начале — по id.
+// Каждый узел помнит запись с самым поздним концом в своём поддереве, поэтому поиск пересечений
+// отсекает поддеревья, которые заканчиваются раньше начала искомого интервала, и занимает O(log n + k).
+// Ещё узел помнит первую запись поддерева и наибольший промежуток между его записями: поиск
+// свободного времени пропускает поддеревья без подходящего промежутка и стоит O((k + 1) log n).
+class IntervalTree {
+    private final Comparator<ScheduleEntry> order;
+    private Node root;
+    private int size;
+
+    IntervalTree(Comparator<ScheduleEntry> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    // Возвращает false, если запись с тем же ключом уже есть.
+    boolean add(ScheduleEntry entry) {
+        int before = size;
+        root = insert(root, entry);
+        return size > before;
+    }
+
+    boolean remove(ScheduleEntry entry) {
+        int before = size;
+        root = delete(root, entry);
+        return size < before;
+    }
+
+    // Есть ли запись, пересекающая интервал, кроме записи с id exceptId.
+    boolean overlapsAny(ScheduleEntry interval, int exceptId) {
+        return overlapsAny(interval, id -> id == exceptId);
+    }
+
+    // Есть ли запись, пересекающая интервал, кроме записей с id, для которых ignored истинно.
+    boolean overlapsAny(ScheduleEntry interval, IntPredicate ignored) {
+        return findOverlap(root, interval, ignored) != null;
+    }
+
+    // Все записи, пересекающие интервал, в порядке начала.
+    List<ScheduleEntry> overlapping(ScheduleEntry interval) {
+        List<ScheduleEntry> result = new ArrayList<>();
+        forEachOverlapping(interval, null, result::add);
+        return result;
+    }
+
+    // Записи, пересекающие интервал, в порядке дерева начиная сразу после after (null — с начала),
+    // пока action возвращает true. false — обход прерван. Записи до after отсекаются целыми
+    // поддеревьями, поэтому продолжение с середины стоит O(log n + k).
+    boolean forEachOverlapping(ScheduleEntry interval, ScheduleEntry after, Predicate<ScheduleEntry> action) {
+        return visitOverlaps(root, interval, after, action);
+    }
+
+    void forEach(Consumer<ScheduleEntry> action) {
+        forEach(root, action);
+    }
+
+    // Свободные промежутки в порядке начала; дерево должно быть упорядочено по началу.
+    List<TimeSlot> freeSlots(FreeSlotSearch search) {
+        visitGaps(root, search);
+        return search.finish();
+    }
+
+    private static class Node {
+        private final ScheduleEntry entry;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private ScheduleEntry maxEnd;
+        private ScheduleEntry first;
+        private long maxGap;
+
+        private Node(ScheduleEntry entry) {
+            this.entry = entry;
+            this.maxEnd = entry;
+            this.first = entry;
+        }
+    }
+
+    private ScheduleEntry findOverlap(Node node, ScheduleEntry interval, IntPredicate ignored) {
+        while (node != null) {
+            if (!node.maxEnd.endsAfterStartOf(interval)) {
+                return null;
+            }
+            if (node.left != null && node.left.maxEnd.endsAfterStartOf(interval)) {
+                ScheduleEntry found = findOverlap(node.left, interval, ignored);
+                if (found != null) {
+                    return found;
+                }
+            }
+            if (!node.entry.startsBeforeEndOf(interval)) {
+                return null;
+            }
+            if (!ignored.test(node.entry.getId()) && node.entry.endsAfterStartOf(interval)) {
+                return node.entry;
+            }
+            node = node.right;
+        }
+        return null;
+    }
+
+    private boolean visitOverlaps(Node node, ScheduleEntry interval, ScheduleEntry after,
+                                  Predicate<ScheduleEntry> action) {
+        if (node == null || !node.maxEnd.endsAfterStartOf(interval)) {
+            return true;
+        }
+        if (after != null && order.compare(node.entry, after) <= 0) {
+            return visitOverlaps(node.right, interval, after, action);
+        }
+        if (!visitOverlaps(node.left, interval, after, action)) {
+            return false;
+        }
+        if (!node.entry.startsBeforeEndOf(interval)) {
+            return true;
+        }
+        if (node.entry.endsAfterStartOf(interval) && !action.test(node.entry)) {
+            return false;
+        }
+        return visitOverlaps(node.right, interval, after, action);
+    }
+
+    private static boolean visitGaps(Node node, FreeSlotSearch search) {
+        if (node == null || search.skips(node.first, node.maxGap, node.maxEnd)) {
+            return true;
+        }
+        return visitGaps(node.left, search) && search.visit(node.entry) && visitGaps(node.right, search);
+    }
+
+    private void forEach(Node node, Consumer<ScheduleEntry> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.entry);
+            node = node.right;
+        }
+    }
+
+    private Node insert(Node node, ScheduleEntry entry) {
+        if (node == null) {
+            size++;
+            return new Node(entry);
+        }
+        int cmp = order.compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = insert(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, entry);
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, ScheduleEntry entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = order.compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = delete(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, entry);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.entry);
+            replacement.right = deleteMin(node.right);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        ScheduleEntry maxEnd = node.entry;
+        if (node.left != null && ScheduleEntry.compareByEnd(node.left.maxEnd, maxEnd) > 0) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && ScheduleEntry.compareByEnd(node.right.maxEnd, maxEnd) > 0) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+        node.first = node.left != null ? node.left.first : node.entry;
+        node.maxGap = FreeSlotSearch.maxGap(node.entry,
+                node.left != null ? node.left.maxEnd : null, node.left != null ? node.left.maxGap : 0,
+                node.right != null ? node.right.first : null, node.right != null ? node.right.maxGap : 0);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
@@ -0,0 +1,441 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Хранилище задач поверх снимка CSV: в памяти только индекс файла, изменённые после загрузки задачи
+// и ограниченный кэш прочитанных. Задача из файла разбирается при первом обращении.
+// Изменённые задачи (включая эпики, у которых поменялся список подзадач или статус) закрепляются
+// в памяти до следующего снимка, после которого хранилище переключается на новый файл.
+class LazyTaskStore extends AbstractMap<Integer, Task> implements IntKeyMap<Task>, AutoCloseable {
+    private final Path path;
+    private final int cacheSize;
+    private final Map<Integer, Task> cache;
+    private final Map<Integer, Task> overlay = new HashMap<>();
+    private final Map<Integer, Long> overlayStamps = new HashMap<>();
+    private final Map<Integer, Long> removedStamps = new HashMap<>();
+
+    private CsvTaskIndex index;
+    private FileChannel channel;
+    private BitSet hidden;
+    private int visibleInFile;
+    private long stamp;
+    private long clearStamp;
+
+    LazyTaskStore(Path path, CsvTaskIndex index, int cacheSize) {
+        this.path = path;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Task> eldest) {
+                return size() > LazyTaskStore.this.cacheSize;
+            }
+        };
+        switchTo(index);
+    }
+
+    static LazyTaskStore open(Path path, int cacheSize) {
+        return new LazyTaskStore(path, CsvTaskIndex.build(path), cacheSize);
+    }
+
+    CsvTaskIndex getIndex() {
+        return index;
+    }
+
+    synchronized int getCachedCount() {
+        return cache.size();
+    }
+
+    synchronized int getPinnedCount() {
+        return overlay.size();
+    }
+
+    synchronized int getMaxId() {
+        int max = index.getMaxId();
+        for (int id : overlay.keySet()) {
+            max = Math.max(max, id);
+        }
+        return max;
+    }
+
+    // Задача из файла видима, если она не удалена и не заменена изменённой версией.
+    synchronized boolean isVisibleInFile(int position) {
+        return !hidden.get(position);
+    }
+
+    synchronized List<Task> getPinned() {
+        return new ArrayList<>(overlay.values());
+    }
+
+    // Закрепляет задачу, изменённую на месте, чтобы она не потерялась при вытеснении из кэша.
+    synchronized void pin(Task task) {
+        put(task.getId(), task);
+    }
+
+    // Подзадачи эпика по данным файла, без удалённых и изменённых после загрузки.
+    synchronized List<Subtask> getSubTasksFromFile(int epicId) {
+        List<Subtask> subTasks = new ArrayList<>();
+        for (int position : index.getChildPositions(epicId)) {
+            if (!hidden.get(position)) {
+                subTasks.add((Subtask) load(position));
+            }
+        }
+        return subTasks;
+    }
+
+    @Override
+    public Task get(int id) {
+        return lookup(id, true);
+    }
+
+    @Override
+    public Task get(Object key) {
+        return key instanceof Integer id ? lookup(id, true) : null;
+    }
+
+    // Обход всех задач не должен вытеснять из кэша часто читаемые, поэтому при обходе кэш не пополняется.
+    private synchronized Task lookup(int id, boolean cacheResult) {
+        Task task = overlay.get(id);
+        if (task != null) {
+            return task;
+        }
+        int position = index.find(id);
+        if (position < 0 || hidden.get(position)) {
+            return null;
+        }
+
+        task = cache.get(id);
+        if (task == null) {
+            task = load(position);
+            if (cacheResult) {
+                cache.put(id, task);
+            }
+        }
+        return task;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public synchronized boolean containsKey(int id) {
+        if (overlay.containsKey(id)) {
+            return true;
+        }
+        int position = index.find(id);
+        return position >= 0 && !hidden.get(position);
+    }
+
+    @Override
+    public Task put(Integer id, Task task) {
+        return put(id.intValue(), task);
+    }
+
+    @Override
+    public synchronized Task put(int id, Task task) {
+        Task previous = lookup(id, false);
+        overlay.put(id, task);
+        overlayStamps.put(id, ++stamp);
+        removedStamps.remove(id);
+        cache.remove(id);
+        hide(index.find(id));
+        return previous;
+    }
+
+    @Override
+    public Task remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public synchronized Task remove(int id) {
+        Task previous = lookup(id, false);
+        if (previous == null) {
+            return null;
+        }
+        overlay.remove(id);
+        overlayStamps.remove(id);
+        removedStamps.put(id, ++stamp);
+        cache.remove(id);
+        hide(index.find(id));
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        overlay.clear();
+        overlayStamps.clear();
+        removedStamps.clear();
+        cache.clear();
+        hidden.set(0, index.size());
+        visibleInFile = 0;
+        clearStamp = ++stamp;
+    }
+
+    @Override
+    public synchronized int size() {
+        return visibleInFile + overlay.size();
+    }
+
+    @Override
+    public Set<Entry<Integer, Task>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, Task>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return LazyTaskStore.this.size();
+            }
+        };
+    }
+
+    // Неизменяемый срез состояния для записи снимка вне блокировок: закреплённые задачи копируются,
+    // а задачи из файла читаются при обходе напрямую, минуя кэш.
+    synchronized Snapshot snapshot() {
+        Map<Integer, Task> pinned = new LinkedHashMap<>();
+        for (Task task : overlay.values()) {
+            if (task instanceof Epic epic) {
+                List<Subtask> subTasks = epic.getSubTasks() == null
+                        ? new ArrayList<>() : new ArrayList<>(epic.getSubTasks());
+                pinned.put(epic.getId(), new Epic(epic.getName(), epic.getDescription(), epic.getId(),
+                        subTasks, epic.getStatus()));
+            } else {
+                pinned.put(task.getId(), task);
+            }
+        }
+        return new Snapshot(index, channel, (BitSet) hidden.clone(), visibleInFile, pinned, stamp);
+    }
+
+    // После записи снимка хранилище переключается на новый файл. Закреплёнными остаются только задачи,
+    // изменённые уже после среза: их версия новее той, что попала в файл. Так же скрываются задачи,
+    // удалённые после среза, и весь файл, если после среза хранилище очищалось.
+    void rebase(Snapshot written) {
+        CsvTaskIndex rebuilt = CsvTaskIndex.build(path);
+        rebuilt.dropScheduleData();
+
+        synchronized (this) {
+            Set<Integer> changed = new HashSet<>();
+            for (Map.Entry<Integer, Long> entry : overlayStamps.entrySet()) {
+                if (entry.getValue() > written.stamp) {
+                    changed.add(entry.getKey());
+                }
+            }
+            removedStamps.values().removeIf(removedStamp -> removedStamp <= written.stamp);
+
+            FileChannel previous = channel;
+            switchTo(rebuilt);
+            closeQuietly(previous);
+            cache.clear();
+            overlay.keySet().retainAll(changed);
+            overlayStamps.keySet().retainAll(changed);
+
+            if (clearStamp > written.stamp) {
+                hidden.set(0, index.size());
+                visibleInFile = 0;
+                return;
+            }
+            for (int id : changed) {
+                hide(index.find(id));
+            }
+            for (int id : removedStamps.keySet()) {
+                hide(index.find(id));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly(channel);
+        channel = null;
+    }
+
+    private void switchTo(CsvTaskIndex index) {
+        this.index = index;
+        this.hidden = new BitSet(index.size());
+        this.visibleInFile = index.size();
+        try {
+            channel = index.size() == 0 || !Files.exists(path)
+                    ? null : FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    private void hide(int position) {
+        if (position >= 0 && !hidden.get(position)) {
+            hidden.set(position);
+            visibleInFile--;
+        }
+    }
+
+    private Task load(int position) {
+        Task task = read(channel, index, position);
+        if (task instanceof Epic epic) {
+            epic.setSubTasks(getSubTasksFromFile(epic.getId()));
+        }
+        return task;
+    }
+
+    private static Task read(FileChannel channel, CsvTaskIndex index, int position) {
+        ByteBuffer buffer = ByteBuffer.allocate(index.getLength(position));
+        long offset = index.getOffset(position);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new ManagerSaveException("Файл снимка короче индекса");
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+        return CsvTaskReader.parse(new String(buffer.array(), StandardCharsets.UTF_8));
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Не удалось закрыть файл снимка: " + e.getMessage());
+        }
+    }
+
+    static final class Snapshot extends AbstractCollection<Task> {
+        private final CsvTaskIndex index;
+        private final FileChannel channel;
+        private final BitSet hidden;
+        private final int visibleInFile;
+        private final Map<Integer, Task> pinned;
+        private final long stamp;
+
+        private Snapshot(CsvTaskIndex index, FileChannel channel, BitSet hidden, int visibleInFile,
+                         Map<Integer, Task> pinned, long stamp) {
+            this.index = index;
+            this.channel = channel;
+            this.hidden = hidden;
+            this.visibleInFile = visibleInFile;
+            this.pinned = pinned;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public int size() {
+            return visibleInFile + pinned.size();
+        }
+
+        // Эпики из файла пишутся как есть: их подзадачи не менялись, а статус хранится в самой записи.
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private int position = hidden.nextClearBit(0);
+                private final Iterator<Task> rest = pinned.values().iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return position < index.size() || rest.hasNext();
+                }
+
+                @Override
+                public Task next() {
+                    if (position < index.size()) {
+                        Task task = read(channel, index, position);
+                        position = hidden.nextClearBit(position + 1);
+                        return task;
+                    }
+                    return rest.next();
+                }
+            };
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<Integer, Task>> {
+        private final CsvTaskIndex iterated = index;
+        private final Iterator<Integer> pinnedIds;
+        private int position = -1;
+        private Integer nextPinned;
+        private Integer lastId;
+
+        private EntryIterator() {
+            synchronized (LazyTaskStore.this) {
+                pinnedIds = new ArrayList<>(overlay.keySet()).iterator();
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < iterated.size() || nextPinned != null;
+        }
+
+        @Override
+        public Entry<Integer, Task> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Integer id = position < iterated.size() ? iterated.getId(position) : nextPinned;
+            Task task = lookup(id, false);
+            lastId = id;
+            advance();
+            return new SimpleImmutableEntry<>(id, task);
+        }
+
+        @Override
+        public void remove() {
+            if (lastId == null) {
+                throw new IllegalStateException();
+            }
+            LazyTaskStore.this.remove(lastId);
+            lastId = null;
+        }
+
+        // Сначала задачи из файла, затем закреплённые, которых в файле не было или которые в нём скрыты.
+        private void advance() {
+            synchronized (LazyTaskStore.this) {
+                if (position < iterated.size()) {
+                    position = iterated == index ? hidden.nextClearBit(position + 1) : iterated.size();
+                    if (position < iterated.size()) {
+                        return;
+                    }
+                }
+                nextPinned = null;
+                while (pinnedIds.hasNext()) {
+                    Integer id = pinnedIds.next();
+                    if (overlay.containsKey(id)) {
+                        nextPinned = id;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
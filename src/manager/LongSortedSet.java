@@ -0,0 +1,130 @@
+package manager;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+// Упорядоченное множество long без объекта на элемент: отсортированные блоки до BLOCK_SIZE значений
+// и каталог блоков по их первым значениям. Поиск — два двоичных поиска, вставка и удаление сдвигают
+// не больше одного блока, а обход по возрастанию идёт подряд по массивам.
+final class LongSortedSet {
+    private static final int BLOCK_SIZE = 512;
+
+    private long[][] blocks = new long[4][];
+    private int[] counts = new int[4];
+    private int blockCount;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean add(long value) {
+        if (blockCount == 0) {
+            insertBlock(0, new long[BLOCK_SIZE], 0);
+        }
+        int block = findBlock(value);
+        int position = Arrays.binarySearch(blocks[block], 0, counts[block], value);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+
+        if (counts[block] == BLOCK_SIZE) {
+            split(block);
+            if (position > BLOCK_SIZE / 2) {
+                block++;
+                position -= BLOCK_SIZE / 2;
+            }
+        }
+        long[] values = blocks[block];
+        System.arraycopy(values, position, values, position + 1, counts[block] - position);
+        values[position] = value;
+        counts[block]++;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        if (blockCount == 0) {
+            return false;
+        }
+        int block = findBlock(value);
+        int position = Arrays.binarySearch(blocks[block], 0, counts[block], value);
+        if (position < 0) {
+            return false;
+        }
+        long[] values = blocks[block];
+        System.arraycopy(values, position + 1, values, position, counts[block] - position - 1);
+        size--;
+        if (--counts[block] == 0) {
+            removeBlock(block);
+        }
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(blocks, 0, blockCount, null);
+        blockCount = 0;
+        size = 0;
+    }
+
+    // Обходит значения не меньше from по возрастанию, пока visitor возвращает true.
+    void forEachFrom(long from, LongPredicate visitor) {
+        if (blockCount == 0) {
+            return;
+        }
+        int block = findBlock(from);
+        int position = Arrays.binarySearch(blocks[block], 0, counts[block], from);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        for (; block < blockCount; block++, position = 0) {
+            long[] values = blocks[block];
+            for (int count = counts[block]; position < count; position++) {
+                if (!visitor.test(values[position])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Последний блок, первое значение которого не больше value, или первый блок.
+    private int findBlock(long value) {
+        int low = 1;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (blocks[middle][0] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    private void split(int block) {
+        long[] upper = new long[BLOCK_SIZE];
+        System.arraycopy(blocks[block], BLOCK_SIZE / 2, upper, 0, BLOCK_SIZE / 2);
+        counts[block] = BLOCK_SIZE / 2;
+        insertBlock(block + 1, upper, BLOCK_SIZE / 2);
+    }
+
+    private void insertBlock(int index, long[] values, int count) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            counts = Arrays.copyOf(counts, blockCount * 2);
+        }
+        System.arraycopy(blocks, index, blocks, index + 1, blockCount - index);
+        System.arraycopy(counts, index, counts, index + 1, blockCount - index);
+        blocks[index] = values;
+        counts[index] = count;
+        blockCount++;
+    }
+
+    private void removeBlock(int index) {
+        System.arraycopy(blocks, index + 1, blocks, index, blockCount - index - 1);
+        System.arraycopy(counts, index + 1, counts, index, blockCount - index - 1);
+        blocks[--blockCount] = null;
+    }
+}
@@ -9,6 +9,18 @@ public class Managers {
         return new FileBackedTaskManager("tasks.csv");
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    public static TaskManager getSnapshotting() {
+        return new SnapshotTaskManager();
+    }
+
+    public static TaskManager getColumnar() {
+        return new ColumnarTaskManager();
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
@@ -0,0 +1,141 @@
+package manager;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Неизменяемая карта int -> значение: префиксное дерево по 5 бит ключа с копированием пути.
+// Изменение копирует не больше семи узлов по 32 ссылки, остальные узлы делятся со старой версией.
+// Обход идёт по возрастанию ключа (как беззнакового числа).
+final class PersistentIntMap<V> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final int TOP_SHIFT = 30;
+
+    private static final PersistentIntMap<Object> EMPTY = new PersistentIntMap<>(null, 0);
+
+    private final Object[] root;
+    private final int size;
+
+    private PersistentIntMap(Object[] root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        Object[] node = root;
+        for (int shift = TOP_SHIFT; node != null && shift > 0; shift -= BITS) {
+            node = (Object[]) node[(key >>> shift) & MASK];
+        }
+        return node == null ? null : (V) node[key & MASK];
+    }
+
+    PersistentIntMap<V> put(int key, V value) {
+        if (value == null) {
+            return remove(key);
+        }
+        boolean[] added = new boolean[1];
+        Object[] updated = put(root, TOP_SHIFT, key, value, added);
+        return new PersistentIntMap<>(updated, added[0] ? size + 1 : size);
+    }
+
+    PersistentIntMap<V> remove(int key) {
+        if (get(key) == null) {
+            return this;
+        }
+        Object[] updated = remove(root, TOP_SHIFT, key);
+        return size == 1 ? empty() : new PersistentIntMap<>(updated, size - 1);
+    }
+
+    void forEach(Consumer<V> action) {
+        forEach(root, TOP_SHIFT, action);
+    }
+
+    // Значения с ключами не меньше from (как беззнаковых чисел), пока action возвращает true.
+    // Узлы левее from пропускаются целиком, поэтому обход с середины не просматривает начало карты.
+    boolean forEachFrom(int from, Predicate<V> action) {
+        return forEachFrom(root, TOP_SHIFT, from, true, action);
+    }
+
+    private static Object[] put(Object[] node, int shift, int key, Object value, boolean[] added) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int slot = (key >>> shift) & MASK;
+        if (shift == 0) {
+            added[0] = copy[slot] == null;
+            copy[slot] = value;
+        } else {
+            copy[slot] = put((Object[]) copy[slot], shift - BITS, key, value, added);
+        }
+        return copy;
+    }
+
+    // Опустевший узел не копируется, а выбрасывается, чтобы удаления не оставляли пустых веток.
+    private static Object[] remove(Object[] node, int shift, int key) {
+        int slot = (key >>> shift) & MASK;
+        Object child = shift == 0 ? null : remove((Object[]) node[slot], shift - BITS, key);
+        for (int i = 0; i < WIDTH; i++) {
+            if (i != slot && node[i] != null) {
+                Object[] copy = node.clone();
+                copy[slot] = child;
+                return copy;
+            }
+        }
+        if (child == null) {
+            return null;
+        }
+        Object[] copy = new Object[WIDTH];
+        copy[slot] = child;
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> boolean forEachFrom(Object[] node, int shift, int from, boolean bounded,
+                                           Predicate<V> action) {
+        if (node == null) {
+            return true;
+        }
+        int first = bounded ? (from >>> shift) & MASK : 0;
+        for (int slot = first; slot < node.length; slot++) {
+            Object child = node[slot];
+            if (child == null) {
+                continue;
+            }
+            boolean edge = bounded && slot == first;
+            if (shift == 0) {
+                if (!action.test((V) child)) {
+                    return false;
+                }
+            } else if (!forEachFrom((Object[]) child, shift - BITS, from, edge, action)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Object[] node, int shift, Consumer<V> action) {
+        if (node == null) {
+            return;
+        }
+        for (Object child : node) {
+            if (child == null) {
+                continue;
+            }
+            if (shift == 0) {
+                action.accept((V) child);
+            } else {
+                forEach((Object[]) child, shift - BITS, action);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package manager;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Неизменяемый вариант IntervalTree: АВЛ-дерево с тем же порядком (начало, id) и тем же полем
+// самого позднего конца в поддереве. Вставка и удаление пересоздают только узлы на пути от корня,
+// поэтому старые версии остаются целыми и делят с новой всё остальное дерево. Поля для поиска
+// свободного времени (первая запись и наибольший промежуток поддерева) — тоже как в IntervalTree.
+final class PersistentIntervalTree {
+    private static final PersistentIntervalTree EMPTY = new PersistentIntervalTree(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentIntervalTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    static PersistentIntervalTree empty() {
+        return EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    PersistentIntervalTree add(ScheduleEntry entry) {
+        return new PersistentIntervalTree(insert(root, entry), size + 1);
+    }
+
+    PersistentIntervalTree remove(ScheduleEntry entry) {
+        return new PersistentIntervalTree(delete(root, entry), size - 1);
+    }
+
+    void forEach(Consumer<ScheduleEntry> action) {
+        forEach(root, action);
+    }
+
+    // Записи, пересекающие интервал, в порядке начала.
+    void collectOverlapping(ScheduleEntry interval, List<ScheduleEntry> result) {
+        visit(root, interval, null, result::add);
+    }
+
+    // Как IntervalTree.forEachOverlapping: начиная сразу после after, пока action возвращает true.
+    boolean forEachOverlapping(ScheduleEntry interval, ScheduleEntry after, Predicate<ScheduleEntry> action) {
+        return visit(root, interval, after, action);
+    }
+
+    List<TimeSlot> freeSlots(FreeSlotSearch search) {
+        visitGaps(root, search);
+        return search.finish();
+    }
+
+    private static final class Node {
+        private final ScheduleEntry entry;
+        private final Node left;
+        private final Node right;
+        private final int height;
+        private final ScheduleEntry maxEnd;
+        private final ScheduleEntry first;
+        private final long maxGap;
+
+        private Node(ScheduleEntry entry, Node left, Node right) {
+            this.entry = entry;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            ScheduleEntry max = entry;
+            if (left != null && ScheduleEntry.compareByEnd(left.maxEnd, max) > 0) {
+                max = left.maxEnd;
+            }
+            if (right != null && ScheduleEntry.compareByEnd(right.maxEnd, max) > 0) {
+                max = right.maxEnd;
+            }
+            this.maxEnd = max;
+            this.first = left != null ? left.first : entry;
+            this.maxGap = FreeSlotSearch.maxGap(entry,
+                    left != null ? left.maxEnd : null, left != null ? left.maxGap : 0,
+                    right != null ? right.first : null, right != null ? right.maxGap : 0);
+        }
+    }
+
+    // Ключи уникальны: вызывающий код удаляет прежнюю запись задачи до вставки новой.
+    private static Node insert(Node node, ScheduleEntry entry) {
+        if (node == null) {
+            return new Node(entry, null, null);
+        }
+        if (ScheduleEntry.compareByStartAndId(entry, node.entry) < 0) {
+            return balance(node.entry, insert(node.left, entry), node.right);
+        }
+        return balance(node.entry, node.left, insert(node.right, entry));
+    }
+
+    private static Node delete(Node node, ScheduleEntry entry) {
+        int cmp = ScheduleEntry.compareByStartAndId(entry, node.entry);
+        if (cmp < 0) {
+            return balance(node.entry, delete(node.left, entry), node.right);
+        }
+        if (cmp > 0) {
+            return balance(node.entry, node.left, delete(node.right, entry));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.entry, node.left, deleteMin(node.right));
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.entry, deleteMin(node.left), node.right);
+    }
+
+    private static Node balance(ScheduleEntry entry, Node left, Node right) {
+        int factor = height(left) - height(right);
+        if (factor > 1) {
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left.entry, left.left, left.right);
+            }
+            return rotateRight(entry, left, right);
+        }
+        if (factor < -1) {
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right.entry, right.left, right.right);
+            }
+            return rotateLeft(entry, left, right);
+        }
+        return new Node(entry, left, right);
+    }
+
+    private static Node rotateRight(ScheduleEntry entry, Node left, Node right) {
+        return new Node(left.entry, left.left, new Node(entry, left.right, right));
+    }
+
+    private static Node rotateLeft(ScheduleEntry entry, Node left, Node right) {
+        return new Node(right.entry, new Node(entry, left, right.left), right.right);
+    }
+
+    private static void forEach(Node node, Consumer<ScheduleEntry> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.entry);
+            node = node.right;
+        }
+    }
+
+    private static boolean visitGaps(Node node, FreeSlotSearch search) {
+        if (node == null || search.skips(node.first, node.maxGap, node.maxEnd)) {
+            return true;
+        }
+        return visitGaps(node.left, search) && search.visit(node.entry) && visitGaps(node.right, search);
+    }
+
+    private static boolean visit(Node node, ScheduleEntry interval, ScheduleEntry after,
+                                 Predicate<ScheduleEntry> action) {
+        if (node == null || !node.maxEnd.endsAfterStartOf(interval)) {
+            return true;
+        }
+        if (after != null && ScheduleEntry.compareByStartAndId(node.entry, after) <= 0) {
+            return visit(node.right, interval, after, action);
+        }
+        if (!visit(node.left, interval, after, action)) {
+            return false;
+        }
+        if (!node.entry.startsBeforeEndOf(interval)) {
+            return true;
+        }
+        if (node.entry.endsAfterStartOf(interval) && !action.test(node.entry)) {
+            return false;
+        }
+        return visit(node.right, interval, after, action);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
@@ -0,0 +1,41 @@
+package manager;
+
+import task.Task;
+
+import java.time.LocalDateTime;
+
+// Задача без времени для AutoScheduler и окно [earliest, latest), в которое она должна целиком
+// попасть. null вместо границы — ограничивает только горизонт планирования.
+public class PlacementRequest {
+    private final Task task;
+    private final LocalDateTime earliest;
+    private final LocalDateTime latest;
+
+    public PlacementRequest(Task task) {
+        this(task, null, null);
+    }
+
+    public PlacementRequest(Task task, LocalDateTime earliest, LocalDateTime latest) {
+        if (task == null) {
+            throw new IllegalArgumentException("Нет задачи для планирования");
+        }
+        if (earliest != null && latest != null && !earliest.isBefore(latest)) {
+            throw new IllegalArgumentException("Начало окна задачи " + task.getId() + " должно быть раньше конца");
+        }
+        this.task = task;
+        this.earliest = earliest;
+        this.latest = latest;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public LocalDateTime getEarliest() {
+        return earliest;
+    }
+
+    public LocalDateTime getLatest() {
+        return latest;
+    }
+}
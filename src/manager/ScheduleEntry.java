@@ -0,0 +1,95 @@
+package manager;
+
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Компактная запись расписания: вместо ссылки на задачу хранит только id и границы интервала,
+// поэтому расписание не удерживает в памяти сами задачи.
+final class ScheduleEntry {
+    private final int id;
+    private final long startSecond;
+    private final int startNano;
+    private final long endSecond;
+    private final int endNano;
+
+    private ScheduleEntry(int id, long startSecond, int startNano, long endSecond, int endNano) {
+        this.id = id;
+        this.startSecond = startSecond;
+        this.startNano = startNano;
+        this.endSecond = endSecond;
+        this.endNano = endNano;
+    }
+
+    static ScheduleEntry of(Task task) {
+        return of(task.getId(), task.getStartTime(), task.getEndTime());
+    }
+
+    // Задача без длительности занимает в расписании нулевой интервал.
+    static ScheduleEntry of(int id, LocalDateTime start, LocalDateTime end) {
+        if (end == null) {
+            end = start;
+        }
+        return new ScheduleEntry(id, start.toEpochSecond(ZoneOffset.UTC), start.getNano(),
+                end.toEpochSecond(ZoneOffset.UTC), end.getNano());
+    }
+
+    int getId() {
+        return id;
+    }
+
+    LocalDateTime getStart() {
+        return LocalDateTime.ofEpochSecond(startSecond, startNano, ZoneOffset.UTC);
+    }
+
+    LocalDateTime getEnd() {
+        return LocalDateTime.ofEpochSecond(endSecond, endNano, ZoneOffset.UTC);
+    }
+
+    boolean overlaps(ScheduleEntry other) {
+        return startsBeforeEndOf(other) && endsAfterStartOf(other);
+    }
+
+    boolean startsBeforeEndOf(ScheduleEntry other) {
+        return compare(startSecond, startNano, other.endSecond, other.endNano) < 0;
+    }
+
+    boolean endsAfterStartOf(ScheduleEntry other) {
+        return compare(endSecond, endNano, other.startSecond, other.startNano) > 0;
+    }
+
+    // Время от конца этой записи до начала other в наносекундах; за пределами long — насыщение.
+    long nanosUntilStartOf(ScheduleEntry other) {
+        return saturatedNanos(other.startSecond - endSecond, other.startNano - endNano);
+    }
+
+    static long saturatedNanos(long seconds, long nanos) {
+        if (seconds >= Long.MAX_VALUE / 1_000_000_000L) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / 1_000_000_000L) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * 1_000_000_000L + nanos;
+    }
+
+    static int compareByStart(ScheduleEntry a, ScheduleEntry b) {
+        return compare(a.startSecond, a.startNano, b.startSecond, b.startNano);
+    }
+
+    // Задачи с одинаковым началом различаются по id и не вытесняют друг друга.
+    static int compareByStartAndId(ScheduleEntry a, ScheduleEntry b) {
+        int result = compareByStart(a, b);
+        return result != 0 ? result : Integer.compare(a.id, b.id);
+    }
+
+    static int compareByEnd(ScheduleEntry a, ScheduleEntry b) {
+        return compare(a.endSecond, a.endNano, b.endSecond, b.endNano);
+    }
+
+    private static int compare(long secondA, int nanoA, long secondB, int nanoB) {
+        int result = Long.compare(secondA, secondB);
+        return result != 0 ? result : Integer.compare(nanoA, nanoB);
+    }
+}
@@ -0,0 +1,24 @@
+package manager;
+
+import task.Task;
+
+import java.util.List;
+
+// Итог AutoScheduler: записанные задачи с назначенным временем и задачи, которым не нашлось места.
+public class ScheduleResult {
+    private final List<Task> scheduled;
+    private final List<Task> unplaced;
+
+    public ScheduleResult(List<Task> scheduled, List<Task> unplaced) {
+        this.scheduled = scheduled;
+        this.unplaced = unplaced;
+    }
+
+    public List<Task> getScheduled() {
+        return scheduled;
+    }
+
+    public List<Task> getUnplaced() {
+        return unplaced;
+    }
+}
@@ -0,0 +1,116 @@
+package manager;
+
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Разобранный поисковый запрос: альтернативы, разделённые OR (или |), каждая — набор слов,
+// которые все должны встретиться в названии или описании. Слово со звёздочкой в конце
+// ищется по префиксу. Слова запроса и текста задач приводятся к одному виду (normalize).
+final class SearchQuery {
+    private final List<List<Term>> alternatives;
+
+    private SearchQuery(List<List<Term>> alternatives) {
+        this.alternatives = alternatives;
+    }
+
+    static SearchQuery parse(String text) {
+        List<List<Term>> alternatives = new ArrayList<>();
+        List<Term> current = new ArrayList<>();
+        for (String word : text == null ? new String[0] : text.trim().split("\\s+")) {
+            if (word.equals("OR") || word.equals("|")) {
+                addAlternative(alternatives, current);
+                current = new ArrayList<>();
+                continue;
+            }
+            if (word.equals("AND")) {
+                continue;
+            }
+            boolean prefix = word.endsWith("*");
+            List<String> tokens = tokens(prefix ? word.substring(0, word.length() - 1) : word);
+            for (int i = 0; i < tokens.size(); i++) {
+                // Слово с дефисом даёт несколько токенов, префиксом считается только последний.
+                current.add(new Term(tokens.get(i), prefix && i == tokens.size() - 1));
+            }
+        }
+        addAlternative(alternatives, current);
+        if (alternatives.isEmpty()) {
+            throw new IllegalArgumentException("Поисковый запрос не содержит слов");
+        }
+        return new SearchQuery(alternatives);
+    }
+
+    private static void addAlternative(List<List<Term>> alternatives, List<Term> terms) {
+        if (!terms.isEmpty()) {
+            alternatives.add(terms);
+        }
+    }
+
+    List<List<Term>> getAlternatives() {
+        return alternatives;
+    }
+
+    boolean matches(Task task) {
+        Set<String> words = new HashSet<>(tokens(task.getName()));
+        words.addAll(tokens(task.getDescription()));
+        for (List<Term> alternative : alternatives) {
+            if (alternative.stream().allMatch(term -> term.matchesAny(words))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Слова — непрерывные последовательности букв и цифр. Регистр снимается, ё читается как е,
+    // поэтому «Ёлка», «ёлка» и «елка» — одно и то же слово.
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(normalize(c));
+            } else if (!word.isEmpty()) {
+                tokens.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            tokens.add(word.toString());
+        }
+        return tokens;
+    }
+
+    private static char normalize(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    static final class Term {
+        private final String text;
+        private final boolean prefix;
+
+        Term(String text, boolean prefix) {
+            this.text = text;
+            this.prefix = prefix;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        boolean isPrefix() {
+            return prefix;
+        }
+
+        private boolean matchesAny(Set<String> words) {
+            return prefix ? words.stream().anyMatch(word -> word.startsWith(text)) : words.contains(text);
+        }
+    }
+}
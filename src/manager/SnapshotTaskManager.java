@@ -0,0 +1,134 @@
+package manager;
+
+import task.Epic;
+import task.Task;
+import task.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Конкурентный менеджер с чтением из неизменяемых снимков (MVCC). Записи идут как в
+// ConcurrentTaskManager, а в конце каждой записи её изменения одной публикацией попадают
+// в новый снимок, доступный через единственную volatile-ссылку. Чтение берёт текущий снимок
+// без блокировок: оно не ждёт писателей и не видит записи наполовину.
+// Эпики в снимке — копии: менеджер меняет живой эпик на месте, а копия остаётся такой,
+// какой была на момент записи.
+public class SnapshotTaskManager extends ConcurrentTaskManager {
+    private final Object publishLock = new Object();
+    private final ThreadLocal<Changes> changes = ThreadLocal.withInitial(Changes::new);
+    private volatile BoardSnapshot snapshot = BoardSnapshot.empty();
+
+    @Override
+    public List<Task> getAll() {
+        return snapshot.getAll();
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return snapshot.getAll(TaskType.TASK);
+    }
+
+    @Override
+    public List<Task> getAllSubTasks() {
+        return snapshot.getAll(TaskType.SUBTASK);
+    }
+
+    @Override
+    public List<Task> getAllEpics() {
+        return snapshot.getAll(TaskType.EPIC);
+    }
+
+    @Override
+    public Task getById(int id) {
+        Task task = snapshot.get(id);
+        if (task != null) {
+            getHistoryManager().add(task);
+        }
+        return task;
+    }
+
+    @Override
+    public ArrayList<Task> getSubTaskByEpic(int epicId) {
+        return snapshot.getSubTaskByEpic(epicId);
+    }
+
+    @Override
+    public List<Task> getSortedTasksByTime() {
+        return snapshot.getSortedTasksByTime();
+    }
+
+    @Override
+    public List<Task> getTasksOverlapping(LocalDateTime from, LocalDateTime to) {
+        return snapshot.getTasksOverlapping(from, to);
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(Duration duration, LocalDateTime from, LocalDateTime to, int limit) {
+        return snapshot.findFreeSlots(new FreeSlotSearch(duration, from, to, limit));
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return snapshot.query(query);
+    }
+
+    // Индекс общий с живой доской и может опережать снимок, поэтому найденные задачи берутся
+    // из снимка и сверяются с запросом ещё раз.
+    @Override
+    public List<Task> search(String text, int afterId, int limit) {
+        SearchQuery query = SearchQuery.parse(text);
+        BoardSnapshot current = snapshot;
+        return pageOfIds(searchIds(query), afterId, limit, id -> {
+            Task task = current.get(id);
+            return task != null && query.matches(task) ? task : null;
+        });
+    }
+
+    @Override
+    protected void onTaskStored(Task task) {
+        changes.get().tasks.put(task.getId(), task);
+    }
+
+    @Override
+    protected void onTaskRemoved(int id) {
+        changes.get().tasks.put(id, null);
+    }
+
+    @Override
+    protected void onAllRemoved() {
+        Changes pending = changes.get();
+        pending.tasks.clear();
+        pending.cleared = true;
+    }
+
+    // Блокировки записи ещё удерживаются, поэтому более поздняя запись тех же задач
+    // не может опубликоваться раньше этой. Записи разных групп меняют разные id
+    // и публикуются в любом порядке.
+    @Override
+    protected void onWriteFinished() {
+        Changes pending = changes.get();
+        if (pending.tasks.isEmpty() && !pending.cleared) {
+            return;
+        }
+        pending.tasks.replaceAll((id, task) -> task instanceof Epic epic ? copyOf(epic) : task);
+        synchronized (publishLock) {
+            snapshot = snapshot.apply(pending.tasks, pending.cleared);
+        }
+        pending.tasks.clear();
+        pending.cleared = false;
+    }
+
+    private static Epic copyOf(Epic epic) {
+        return new Epic(epic.getName(), epic.getDescription(), epic.getId(), epic.getSubTasks(), epic.getStatus());
+    }
+
+    // Изменения потока в порядке записи: задача или null для удалённой.
+    private static final class Changes {
+        private final Map<Integer, Task> tasks = new LinkedHashMap<>();
+        private boolean cleared;
+    }
+}
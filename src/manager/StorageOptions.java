@@ -0,0 +1,133 @@
+package manager;
+
+public class StorageOptions {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+    public static final long DEFAULT_CHECKPOINT_JOURNAL_BYTES = 64L * 1024 * 1024;
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private boolean journaled;
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private DurabilityPolicy durability = DurabilityPolicy.sync();
+    private boolean historyPersisted;
+    private SnapshotFormat snapshotFormat = SnapshotFormat.CSV;
+    private long checkpointIntervalMillis;
+    private long checkpointJournalBytes = DEFAULT_CHECKPOINT_JOURNAL_BYTES;
+    private boolean lazyLoading;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private int idBlockSize = IdAllocator.DEFAULT_BLOCK_SIZE;
+
+    public static StorageOptions defaults() {
+        return new StorageOptions();
+    }
+
+    public static StorageOptions journaled() {
+        return new StorageOptions().withJournal(true);
+    }
+
+    public StorageOptions withJournal(boolean journaled) {
+        this.journaled = journaled;
+        return this;
+    }
+
+    public StorageOptions withCompactionThreshold(int compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Порог компактификации должен быть положительным");
+        }
+        this.compactionThreshold = compactionThreshold;
+        return this;
+    }
+
+    public StorageOptions withDurability(DurabilityPolicy durability) {
+        this.durability = durability;
+        return this;
+    }
+
+    public StorageOptions withHistoryPersistence(boolean historyPersisted) {
+        this.historyPersisted = historyPersisted;
+        return this;
+    }
+
+    public StorageOptions withSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+        return this;
+    }
+
+    // 0 — контрольные точки только по порогам размера журнала
+    public StorageOptions withCheckpointInterval(long checkpointIntervalMillis) {
+        if (checkpointIntervalMillis < 0) {
+            throw new IllegalArgumentException("Интервал контрольных точек не может быть отрицательным");
+        }
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+        return this;
+    }
+
+    public StorageOptions withCheckpointJournalBytes(long checkpointJournalBytes) {
+        if (checkpointJournalBytes <= 0) {
+            throw new IllegalArgumentException("Порог размера журнала должен быть положительным");
+        }
+        this.checkpointJournalBytes = checkpointJournalBytes;
+        return this;
+    }
+
+    // Ленивая загрузка работает только со снимком CSV: двоичный снимок всегда загружается целиком.
+    public StorageOptions withLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+        return this;
+    }
+
+    public StorageOptions withCacheSize(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    public StorageOptions withIdBlockSize(int idBlockSize) {
+        if (idBlockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока id должен быть положительным");
+        }
+        this.idBlockSize = idBlockSize;
+        return this;
+    }
+
+    public boolean isJournaled() {
+        return journaled;
+    }
+
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public DurabilityPolicy getDurability() {
+        return durability;
+    }
+
+    public boolean isHistoryPersisted() {
+        return historyPersisted;
+    }
+
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+
+    public long getCheckpointIntervalMillis() {
+        return checkpointIntervalMillis;
+    }
+
+    public long getCheckpointJournalBytes() {
+        return checkpointJournalBytes;
+    }
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public int getIdBlockSize() {
+        return idBlockSize;
+    }
+}
@@ -0,0 +1,128 @@
+package manager;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Пул одинаковых строк для имён и описаний: повторяющийся текст хранится в куче одним объектом.
+// Размер ограничен числом ячеек, а строки удерживаются слабо, поэтому пул не мешает сборке
+// удалённых задач. Ячейки двухвходовые: строка ищется в паре соседних ячеек, новая занимает
+// первую, а прежняя первая сдвигается во вторую. При коллизиях пул просто промахивается.
+public final class StringPool {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final StringPool DEFAULT = new StringPool(DEFAULT_CAPACITY);
+    // Заголовки String и его массива байтов на 64-битной JVM со сжатыми указателями.
+    private static final int STRING_OVERHEAD = 24 + 16;
+
+    private final AtomicReferenceArray<WeakReference<String>> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public StringPool(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 2;
+    }
+
+    public static StringPool getDefault() {
+        return DEFAULT;
+    }
+
+    public String intern(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int slot = slot(hash);
+        String pooled = find(slot, hash, value);
+        if (pooled != null) {
+            hit(pooled);
+            return pooled;
+        }
+        insert(slot, value);
+        return value;
+    }
+
+    // Строка из участка массива символов; при попадании новая строка не создаётся вовсе.
+    public String intern(char[] data, int from, int to) {
+        if (from == to) {
+            return "";
+        }
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int slot = slot(hash);
+        for (int i = 0; i < 2; i++) {
+            String pooled = get(slot + i);
+            if (pooled != null && pooled.hashCode() == hash && matches(pooled, data, from, to)) {
+                hit(pooled);
+                return pooled;
+            }
+        }
+        String value = new String(data, from, to - from);
+        insert(slot, value);
+        return value;
+    }
+
+    public StringPoolStats getStats() {
+        return new StringPoolStats(hits.sum(), misses.sum(), bytesSaved.sum());
+    }
+
+    private String find(int slot, int hash, String value) {
+        for (int i = 0; i < 2; i++) {
+            String pooled = get(slot + i);
+            if (pooled != null && pooled.hashCode() == hash && pooled.equals(value)) {
+                return pooled;
+            }
+        }
+        return null;
+    }
+
+    private void hit(String pooled) {
+        hits.increment();
+        bytesSaved.add(sizeOf(pooled));
+    }
+
+    // Гонка двух вставок безопасна: проигравшая строка просто не попадёт в пул.
+    private void insert(int slot, String value) {
+        misses.increment();
+        WeakReference<String> first = slots.get(slot);
+        if (first != null && first.get() != null) {
+            slots.set(slot + 1, first);
+        }
+        slots.set(slot, new WeakReference<>(value));
+    }
+
+    private String get(int slot) {
+        WeakReference<String> reference = slots.get(slot);
+        return reference == null ? null : reference.get();
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean matches(String pooled, char[] data, int from, int to) {
+        if (pooled.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (pooled.charAt(i - from) != data[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Оценка размера копии: латиница занимает байт на символ, остальное — два.
+    private static long sizeOf(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        return STRING_OVERHEAD + (long) value.length() * (latin1 ? 1 : 2);
+    }
+}
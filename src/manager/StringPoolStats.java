@@ -0,0 +1,41 @@
+package manager;
+
+public class StringPoolStats {
+    private final long hits;
+    private final long misses;
+    private final long bytesSaved;
+
+    StringPoolStats(long hits, long misses, long bytesSaved) {
+        this.hits = hits;
+        this.misses = misses;
+        this.bytesSaved = bytesSaved;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : hits / (double) lookups;
+    }
+
+    // Оценка байтов кучи, которые заняли бы копии строк, найденных в пуле.
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    @Override
+    public String toString() {
+        return "StringPoolStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                ", bytesSaved=" + bytesSaved +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package manager;
+
+import task.Task;
+
+import java.util.List;
+
+// История просмотров для менеджера, в который пишут из нескольких потоков.
+class SynchronizedHistoryManager implements HistoryManager {
+    private final HistoryManager delegate;
+
+    SynchronizedHistoryManager(HistoryManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        delegate.add(task);
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public synchronized TaskPage getHistoryPage(String cursor, int limit) {
+        return delegate.getHistoryPage(cursor, limit);
+    }
+}
@@ -0,0 +1,345 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Задачи в параллельных массивах примитивов, по строке на задачу: id, тип, статус, эпик,
+// начало в минутах от эпохи и длительность в минутах. Тексты лежат в отдельной арене.
+// Подзадачи эпика связаны двусвязным списком строк в порядке добавления.
+// Время хранится с точностью до минуты: секунды и доли секунды отбрасываются.
+final class TaskColumns {
+    static final int NO_ROW = -1;
+    static final int NO_TIME = Integer.MIN_VALUE;
+    static final int NO_DURATION = -1;
+    static final byte FREE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private int[] ids;
+    private byte[] types;
+    private byte[] statuses;
+    private int[] epicIds;
+    private int[] starts;
+    private int[] durations;
+    private long[] texts;
+    // Для подзадачи — соседние строки в списке эпика, для эпика — первая и последняя подзадачи.
+    private int[] next;
+    private int[] previous;
+
+    private int[] freeRows = new int[MIN_CAPACITY];
+    private int freeCount;
+    private int rowLimit;
+    private int size;
+    private TextArena text = new TextArena();
+    private final RowIndex index = new RowIndex();
+
+    TaskColumns() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Строки от 0 до rowLimit, часть из них может быть свободна.
+    int rowLimit() {
+        return rowLimit;
+    }
+
+    int find(int id) {
+        return index.find(id);
+    }
+
+    boolean isLive(int row) {
+        return types[row] != FREE;
+    }
+
+    int id(int row) {
+        return ids[row];
+    }
+
+    byte typeCode(int row) {
+        return types[row];
+    }
+
+    TaskType type(int row) {
+        return TYPES[types[row]];
+    }
+
+    byte statusCode(int row) {
+        return statuses[row];
+    }
+
+    TaskStatus status(int row) {
+        return STATUSES[statuses[row]];
+    }
+
+    void setStatus(int row, TaskStatus status) {
+        statuses[row] = (byte) status.ordinal();
+    }
+
+    int epicId(int row) {
+        return epicIds[row];
+    }
+
+    int start(int row) {
+        return starts[row];
+    }
+
+    int duration(int row) {
+        return durations[row];
+    }
+
+    // Строка с id задачи: существующая или новая. Связи с эпиком не меняются, это дело вызывающего.
+    int write(Task task) {
+        int row = index.find(task.getId());
+        if (row == NO_ROW) {
+            row = allocateRow();
+            ids[row] = task.getId();
+            next[row] = NO_ROW;
+            previous[row] = NO_ROW;
+            index.add(row);
+            size++;
+        } else {
+            text.release(texts[row]);
+        }
+
+        types[row] = (byte) task.getType().ordinal();
+        statuses[row] = (byte) (task.getStatus() == null ? TaskStatus.NEW : task.getStatus()).ordinal();
+        epicIds[row] = task instanceof Subtask subtask ? subtask.getEpicId() : 0;
+        texts[row] = text.append(task.getName(), task.getDescription());
+        if (task.getType() == TaskType.EPIC) {
+            starts[row] = NO_TIME;
+            durations[row] = NO_DURATION;
+        } else {
+            starts[row] = toMinute(task.getStartTime());
+            durations[row] = task.getDuration() == null ? NO_DURATION : (int) task.getDuration().toMinutes();
+        }
+        compactTextIfNeeded();
+        return row;
+    }
+
+    void free(int row) {
+        index.remove(row);
+        text.release(texts[row]);
+        types[row] = FREE;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+        size--;
+        compactTextIfNeeded();
+    }
+
+    void clear() {
+        Arrays.fill(types, 0, rowLimit, FREE);
+        index.clear();
+        freeCount = 0;
+        rowLimit = 0;
+        size = 0;
+        text = new TextArena();
+    }
+
+    void appendChild(int epicRow, int row) {
+        int last = previous[epicRow];
+        previous[row] = last;
+        next[row] = NO_ROW;
+        if (last == NO_ROW) {
+            next[epicRow] = row;
+        } else {
+            next[last] = row;
+        }
+        previous[epicRow] = row;
+    }
+
+    void unlinkChild(int epicRow, int row) {
+        int before = previous[row];
+        int after = next[row];
+        if (before == NO_ROW) {
+            next[epicRow] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NO_ROW) {
+            previous[epicRow] = before;
+        } else {
+            previous[after] = before;
+        }
+        next[row] = NO_ROW;
+        previous[row] = NO_ROW;
+    }
+
+    int firstChild(int epicRow) {
+        return next[epicRow];
+    }
+
+    int nextChild(int row) {
+        return next[row];
+    }
+
+    String name(int row) {
+        return text.name(texts[row]);
+    }
+
+    String description(int row) {
+        return text.description(texts[row]);
+    }
+
+    // Объект задачи собирается из строки только на границе API; эпик получает свежие копии подзадач.
+    Task toTask(int row) {
+        String name = text.name(texts[row]);
+        String description = text.description(texts[row]);
+        return switch (type(row)) {
+            case TASK -> withTime(new Task(name, description, ids[row], status(row)), row);
+            case SUBTASK -> withTime(new Subtask(name, description, ids[row], epicIds[row], status(row)), row);
+            case EPIC -> new Epic(name, description, ids[row], childTasks(row), status(row));
+        };
+    }
+
+    List<Subtask> childTasks(int epicRow) {
+        List<Subtask> subTasks = new ArrayList<>();
+        for (int child = next[epicRow]; child != NO_ROW; child = next[child]) {
+            subTasks.add((Subtask) toTask(child));
+        }
+        return subTasks;
+    }
+
+    static int toMinute(LocalDateTime time) {
+        return time == null ? NO_TIME : Math.toIntExact(Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    static LocalDateTime toTime(int minute) {
+        return minute == NO_TIME ? null : LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private Task withTime(Task task, int row) {
+        task.setStartTime(toTime(starts[row]));
+        task.setDuration(durations[row] == NO_DURATION ? null : Duration.ofMinutes(durations[row]));
+        return task;
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (rowLimit == ids.length) {
+            allocate(ids.length * 2);
+        }
+        return rowLimit++;
+    }
+
+    private void allocate(int capacity) {
+        ids = ids == null ? new int[capacity] : Arrays.copyOf(ids, capacity);
+        types = types == null ? new byte[capacity] : Arrays.copyOf(types, capacity);
+        statuses = statuses == null ? new byte[capacity] : Arrays.copyOf(statuses, capacity);
+        epicIds = epicIds == null ? new int[capacity] : Arrays.copyOf(epicIds, capacity);
+        starts = starts == null ? new int[capacity] : Arrays.copyOf(starts, capacity);
+        durations = durations == null ? new int[capacity] : Arrays.copyOf(durations, capacity);
+        texts = texts == null ? new long[capacity] : Arrays.copyOf(texts, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+        previous = previous == null ? new int[capacity] : Arrays.copyOf(previous, capacity);
+    }
+
+    private void compactTextIfNeeded() {
+        if (!text.needsCompaction()) {
+            return;
+        }
+        TextArena compacted = new TextArena();
+        for (int row = 0; row < rowLimit; row++) {
+            if (types[row] != FREE) {
+                texts[row] = compacted.copy(text, texts[row]);
+            }
+        }
+        text = compacted;
+    }
+
+    // id -> строка: открытая адресация, в ячейке хранится номер строки + 1, а ключ берётся из столбца id,
+    // поэтому индекс занимает по одному int на ячейку.
+    private final class RowIndex {
+        private int[] slots = new int[MIN_CAPACITY * 2];
+        private int mask = slots.length - 1;
+        private int count;
+
+        int find(int id) {
+            for (int slot = slot(id); slots[slot] != 0; slot = (slot + 1) & mask) {
+                int row = slots[slot] - 1;
+                if (ids[row] == id) {
+                    return row;
+                }
+            }
+            return NO_ROW;
+        }
+
+        void add(int row) {
+            if (++count > slots.length / 2) {
+                rehash(slots.length * 2);
+            }
+            insert(row);
+        }
+
+        void remove(int row) {
+            int slot = slot(ids[row]);
+            while (slots[slot] != row + 1) {
+                slot = (slot + 1) & mask;
+            }
+            count--;
+            // Сдвиг назад вместо надгробий, как в IntHashMap.
+            while (true) {
+                int last = slot;
+                slot = (slot + 1) & mask;
+                while (true) {
+                    if (slots[slot] == 0) {
+                        slots[last] = 0;
+                        return;
+                    }
+                    int home = slot(ids[slots[slot] - 1]);
+                    if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                slots[last] = slots[slot];
+            }
+        }
+
+        void clear() {
+            Arrays.fill(slots, 0);
+            count = 0;
+        }
+
+        private void insert(int row) {
+            int slot = slot(ids[row]);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = row + 1;
+        }
+
+        private void rehash(int capacity) {
+            int[] old = slots;
+            slots = new int[capacity];
+            mask = capacity - 1;
+            for (int value : old) {
+                if (value != 0) {
+                    insert(value - 1);
+                }
+            }
+        }
+
+        private int slot(int id) {
+            return (id ^ (id >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package manager;
+
+import exception.ManagerSaveException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+class TaskJournal {
+    static final String PUT = "PUT";
+    static final String DELETE = "DEL";
+    static final String CLEAR = "CLEAR";
+    static final String BEGIN = "BEGIN";
+    static final String COMMIT = "COMMIT";
+
+    private static final String ROTATED_SUFFIX = ".old";
+
+    private final Path path;
+    private final Path rotatedPath;
+    private long recordCount;
+    private long sizeBytes;
+
+    TaskJournal(String path) {
+        this.path = Path.of(path);
+        this.rotatedPath = Path.of(path + ROTATED_SUFFIX);
+    }
+
+    static String put(String row) {
+        return PUT + "," + row;
+    }
+
+    static String delete(int id) {
+        return DELETE + "," + id;
+    }
+
+    static String clear() {
+        return CLEAR;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    boolean exists() {
+        return Files.exists(path) || Files.exists(rotatedPath);
+    }
+
+    void append(List<String> records, boolean fsync) {
+        try (FileOutputStream out = new FileOutputStream(path.toFile(), true);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            for (String record : records) {
+                writer.write(record);
+                writer.write('\n');
+            }
+            writer.flush();
+            if (fsync) {
+                out.getFD().sync();
+            }
+            sizeBytes = out.getChannel().size();
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+        recordCount += records.size();
+    }
+
+    // Откладывает текущий журнал в сторону, чтобы новые записи шли в чистый файл, пока пишется снимок.
+    // Если предыдущая контрольная точка не завершилась, записи дописываются к уже отложенному журналу.
+    void rotate() {
+        try {
+            if (Files.exists(path)) {
+                if (Files.exists(rotatedPath)) {
+                    try (OutputStream out = Files.newOutputStream(rotatedPath, StandardOpenOption.APPEND)) {
+                        Files.copy(path, out);
+                    }
+                    Files.delete(path);
+                } else {
+                    Files.move(path, rotatedPath, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+        recordCount = 0;
+        sizeBytes = 0;
+    }
+
+    void dropRotated() {
+        try {
+            Files.deleteIfExists(rotatedPath);
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    void truncate() {
+        try {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(rotatedPath);
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+        recordCount = 0;
+        sizeBytes = 0;
+    }
+
+    void replay(Consumer<String> consumer) {
+        replay(rotatedPath, consumer);
+        replay(path, consumer);
+        try {
+            sizeBytes = Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    // Записи разделяются переводом строки вне кавычек: в полях CSV переводы строк допустимы.
+    // Последняя запись могла быть оборвана при аварийной остановке, поэтому ошибку в ней пропускаем.
+    private void replay(Path file, Consumer<String> target) {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        Transactions consumer = new Transactions(file, target);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            StringBuilder record = new StringBuilder();
+            boolean inQuotes = false;
+            String pending = null;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '"') {
+                    inQuotes = !inQuotes;
+                } else if (c == '\n' && !inQuotes) {
+                    int length = record.length();
+                    if (length > 0 && record.charAt(length - 1) == '\r') {
+                        record.setLength(length - 1);
+                    }
+                    if (record.length() > 0) {
+                        if (pending != null) {
+                            consumer.accept(pending);
+                            recordCount++;
+                        }
+                        pending = record.toString();
+                    }
+                    record.setLength(0);
+                    continue;
+                }
+                record.append((char) c);
+            }
+            if (record.length() > 0) {
+                if (pending != null) {
+                    consumer.accept(pending);
+                    recordCount++;
+                }
+                pending = record.toString();
+            }
+            if (pending != null) {
+                try {
+                    consumer.accept(pending);
+                    recordCount++;
+                } catch (RuntimeException e) {
+                    System.err.println("Пропущена повреждённая последняя запись журнала " + file + ": "
+                            + e.getMessage());
+                }
+            }
+            consumer.discardOpen();
+        } catch (IOException e) {
+            throw new ManagerSaveException(e.getMessage());
+        }
+    }
+
+    // Записи между BEGIN и COMMIT отдаются только вместе с COMMIT. Пакет без COMMIT оборван аварийной
+    // остановкой и отбрасывается целиком — и в конце файла, и перед следующим BEGIN.
+    private static final class Transactions implements Consumer<String> {
+        private final Path file;
+        private final Consumer<String> target;
+        private List<String> open;
+
+        private Transactions(Path file, Consumer<String> target) {
+            this.file = file;
+            this.target = target;
+        }
+
+        @Override
+        public void accept(String record) {
+            if (record.equals(BEGIN)) {
+                discardOpen();
+                open = new ArrayList<>();
+            } else if (record.equals(COMMIT)) {
+                if (open != null) {
+                    open.forEach(target);
+                    open = null;
+                }
+            } else if (open != null) {
+                open.add(record);
+            } else {
+                target.accept(record);
+            }
+        }
+
+        private void discardOpen() {
+            if (open != null) {
+                System.err.println("Отброшен незавершённый пакет журнала " + file + " из " + open.size()
+                        + " записей");
+                open = null;
+            }
+        }
+    }
+}
@@ -2,7 +2,10 @@ package manager;
 
 import task.Task;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskManager {
@@ -13,11 +16,18 @@ public interface TaskManager {
 
     Task getById(int id);
 
+    int newId();
+
     void createTask(Task task);
 
     void updateTask(Task task);
 
-    void deleteById(Integer id);
+    // Пакетные версии: пакет проверяется целиком и применяется весь или не применяется вовсе.
+    void createTasks(Collection<? extends Task> tasks);
+
+    void updateTasks(Collection<? extends Task> tasks);
+
+    void deleteById(int id);
 
     HistoryManager getHistoryManager();
 
@@ -36,4 +46,31 @@ public interface TaskManager {
     List<Task> getAllTasks();
 
     List<Task> getSortedTasksByTime();
+
+    List<Task> getTasksOverlapping(LocalDateTime from, LocalDateTime to);
+
+    // Первые limit свободных промежутков окна [from, to) длиной не меньше duration, по порядку.
+    // Задача с такой длительностью, поставленная в начало любого из них, не пересечётся с расписанием.
+    // null вместо границы — окно открыто с этой стороны.
+    List<TimeSlot> findFreeSlots(Duration duration, LocalDateTime from, LocalDateTime to, int limit);
+
+    // Выборка по условиям без копирования всей доски.
+    List<Task> query(TaskQuery query);
+
+    // Полнотекстовый поиск по названию и описанию без учёта регистра и разницы ё/е. Слова через пробел
+    // обязательны все, OR (или |) разделяет альтернативы, звёздочка в конце слова — поиск по префиксу.
+    // Задачи идут по возрастанию id: не больше limit задач с id больше afterId.
+    List<Task> search(String query, int afterId, int limit);
+
+    default List<Task> search(String query) {
+        return search(query, 0, Integer.MAX_VALUE);
+    }
+
+    // Страница выборки: query.getLimit() задач после курсора запроса. Полная страница может быть
+    // последней — тогда следующая окажется пустой.
+    default TaskPage getPage(TaskQuery query) {
+        List<Task> tasks = query(query);
+        boolean full = query.getLimit() > 0 && tasks.size() == query.getLimit();
+        return new TaskPage(tasks, full ? query.cursorOf(tasks.get(tasks.size() - 1)) : null);
+    }
 }
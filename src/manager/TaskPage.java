@@ -0,0 +1,28 @@
+package manager;
+
+import task.Task;
+
+import java.util.List;
+
+// Страница выборки и курсор следующей страницы; курсора нет, если страница последняя.
+public class TaskPage {
+    private final List<Task> tasks;
+    private final String nextCursor;
+
+    public TaskPage(List<Task> tasks, String nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,192 @@
+package manager;
+
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+
+// Условия выборки задач: тип, статус, эпик и окно времени [from, to). Незаданное условие
+// пропускает любые задачи. Окно, как и getTasksOverlapping, выбирает только задачи из расписания,
+// поэтому эпики и задачи без времени в него не попадают.
+// Результат с окном упорядочен по началу, без окна — по id.
+// Страницы — по ключу порядка: курсор хранит ключ последней задачи страницы (id или начало и id),
+// и следующая страница начинается сразу за ним, даже если доска между запросами изменилась.
+public class TaskQuery {
+    private TaskType type;
+    private TaskStatus status;
+    private Integer epicId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private int limit;
+    private String cursor;
+    private int afterId;
+    private LocalDateTime afterStart;
+
+    public static TaskQuery all() {
+        return new TaskQuery();
+    }
+
+    public TaskQuery withType(TaskType type) {
+        this.type = type;
+        return this;
+    }
+
+    public TaskQuery withStatus(TaskStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    // Только подзадачи эпика epicId.
+    public TaskQuery withEpicId(int epicId) {
+        this.epicId = epicId;
+        return this;
+    }
+
+    // null вместо границы — окно открыто с этой стороны.
+    public TaskQuery withWindow(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from == null ? LocalDateTime.MIN : from;
+        LocalDateTime end = to == null ? LocalDateTime.MAX : to;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Начало окна должно быть раньше его конца");
+        }
+        this.from = start;
+        this.to = end;
+        return this;
+    }
+
+    public TaskQuery withLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    // Курсор из cursorOf: "id" для порядка по id или "начало,id" для порядка по началу.
+    public TaskQuery withCursor(String cursor) {
+        if (cursor == null) {
+            this.cursor = null;
+            return this;
+        }
+        try {
+            int separator = cursor.indexOf(',');
+            afterStart = separator < 0 ? null : LocalDateTime.parse(cursor.substring(0, separator));
+            afterId = Integer.parseInt(cursor.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Неверный курсор: " + cursor);
+        }
+        this.cursor = cursor;
+        return this;
+    }
+
+    public String cursorOf(Task task) {
+        return hasWindow() ? task.getStartTime() + "," + task.getId() : String.valueOf(task.getId());
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public Integer getEpicId() {
+        return epicId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public boolean hasWindow() {
+        return from != null;
+    }
+
+    // 0 — без ограничения.
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean matches(Task task) {
+        if (type != null && task.getType() != type) {
+            return false;
+        }
+        if (status != null && task.getStatus() != status) {
+            return false;
+        }
+        if (epicId != null && !(task instanceof Subtask subtask && subtask.getEpicId() == epicId)) {
+            return false;
+        }
+        if (hasWindow()) {
+            return task.getType() != TaskType.EPIC && InMemoryTaskManager.hasTime(task)
+                    && ScheduleEntry.of(task).overlaps(window());
+        }
+        return true;
+    }
+
+    // Условия, которым не удовлетворяет ни одна задача: эпик в окне или не подзадача эпика.
+    boolean isEmpty() {
+        return hasWindow() && type == TaskType.EPIC || epicId != null && type != null && type != TaskType.SUBTASK;
+    }
+
+    ScheduleEntry window() {
+        return ScheduleEntry.of(-1, from, to);
+    }
+
+    int pageSize() {
+        return limit > 0 ? limit : Integer.MAX_VALUE;
+    }
+
+    boolean hasCursor() {
+        return cursor != null;
+    }
+
+    // Id задачи, после которой начинается страница; без курсора — меньше любого id.
+    int afterId() {
+        return cursor == null ? Integer.MIN_VALUE : afterId;
+    }
+
+    // Курсор в расписании; без курсора — null.
+    ScheduleEntry afterEntry() {
+        if (cursor == null) {
+            return null;
+        }
+        return ScheduleEntry.of(afterId, afterStart(), afterStart());
+    }
+
+    LocalDateTime afterStart() {
+        if (cursor != null && afterStart == null && hasWindow()) {
+            throw new IllegalArgumentException("Курсор без времени не подходит к выборке с окном");
+        }
+        return afterStart;
+    }
+
+    boolean isAfterCursor(Task task) {
+        if (cursor == null) {
+            return true;
+        }
+        if (!hasWindow()) {
+            return task.getId() > afterId;
+        }
+        int byStart = task.getStartTime().compareTo(afterStart());
+        return byStart > 0 || byStart == 0 && task.getId() > afterId;
+    }
+
+    Comparator<Task> order() {
+        Comparator<Task> byId = Comparator.comparingInt(Task::getId);
+        return hasWindow() ? Comparator.comparing(Task::getStartTime).thenComparing(byId) : byId;
+    }
+}
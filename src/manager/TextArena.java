@@ -0,0 +1,150 @@
+package manager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Названия и описания задач в общих страницах байтов UTF-8 вместо пары объектов String на задачу.
+// Запись — длина и байты названия, затем длина и байты описания; адрес записи — номер страницы
+// в старших 32 битах и смещение в младших. Заменённые записи не освобождаются, а учитываются
+// как мусор, пока владелец не перепишет живые записи в новую арену.
+final class TextArena {
+    private static final int PAGE_SIZE = 1 << 20;
+
+    private byte[][] pages = new byte[4][];
+    private int pageCount;
+    private int used = PAGE_SIZE;
+    private long liveBytes;
+    private long garbageBytes;
+
+    long append(String name, String description) {
+        byte[] nameBytes = encode(name);
+        byte[] descriptionBytes = encode(description);
+        int size = lengthSize(nameBytes) + length(nameBytes) + lengthSize(descriptionBytes) + length(descriptionBytes);
+        long address = reserve(size);
+
+        byte[] page = pages[page(address)];
+        int offset = writeBytes(page, offset(address), nameBytes);
+        writeBytes(page, offset, descriptionBytes);
+        return address;
+    }
+
+    // Копия записи из другой арены без декодирования строк.
+    long copy(TextArena source, long address) {
+        byte[] sourcePage = source.pages[page(address)];
+        int sourceOffset = offset(address);
+        int size = source.recordSize(address);
+        long copied = reserve(size);
+        System.arraycopy(sourcePage, sourceOffset, pages[page(copied)], offset(copied), size);
+        return copied;
+    }
+
+    String name(long address) {
+        return readString(pages[page(address)], offset(address));
+    }
+
+    String description(long address) {
+        byte[] page = pages[page(address)];
+        int offset = offset(address);
+        return readString(page, skipString(page, offset));
+    }
+
+    void release(long address) {
+        int size = recordSize(address);
+        liveBytes -= size;
+        garbageBytes += size;
+    }
+
+    // Уплотнять стоит, когда мусора больше, чем живых данных, и он занимает хотя бы страницу.
+    boolean needsCompaction() {
+        return garbageBytes > PAGE_SIZE && garbageBytes > liveBytes;
+    }
+
+    long getLiveBytes() {
+        return liveBytes;
+    }
+
+    private long reserve(int size) {
+        if (size > PAGE_SIZE - used) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            // Запись длиннее страницы получает собственную страницу ровно своего размера.
+            pages[pageCount++] = new byte[Math.max(PAGE_SIZE, size)];
+            used = 0;
+        }
+        long address = ((long) (pageCount - 1) << 32) | used;
+        used = size > PAGE_SIZE ? PAGE_SIZE : used + size;
+        liveBytes += size;
+        return address;
+    }
+
+    private int recordSize(long address) {
+        byte[] page = pages[page(address)];
+        int start = offset(address);
+        return skipString(page, skipString(page, start)) - start;
+    }
+
+    private static int page(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    // Длина хранится как длина + 1 в формате varint, ноль означает null.
+    private static int lengthSize(byte[] bytes) {
+        int value = bytes == null ? 0 : bytes.length + 1;
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeBytes(byte[] page, int offset, byte[] bytes) {
+        int value = bytes == null ? 0 : bytes.length + 1;
+        while ((value & ~0x7F) != 0) {
+            page[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        page[offset++] = (byte) value;
+        if (bytes != null) {
+            System.arraycopy(bytes, 0, page, offset, bytes.length);
+            offset += bytes.length;
+        }
+        return offset;
+    }
+
+    private static String readString(byte[] page, int offset) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = page[offset++];
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value == 0 ? null : new String(page, offset, value - 1, StandardCharsets.UTF_8);
+    }
+
+    private static int skipString(byte[] page, int offset) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = page[offset++];
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value == 0 ? offset : offset + value - 1;
+    }
+}
@@ -0,0 +1,197 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Инвертированный индекс по словам названия и описания: слово -> упорядоченный массив id задач.
+// Словарь отсортирован, поэтому слова с префиксом — это одна подкарта. Для каждой задачи
+// хранится её набор слов (сами строки — ключи словаря), чтобы изменение и удаление задачи
+// убирали id только из её списков. Методы синхронизированы: индекс обновляют писатели
+// из разных полос ConcurrentTaskManager.
+final class TextIndex {
+    private static final int[] NO_IDS = new int[0];
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final IntHashMap<String[]> wordsById = new IntHashMap<>();
+
+    synchronized void put(int id, String name, String description) {
+        Set<String> words = new LinkedHashSet<>(SearchQuery.tokens(name));
+        words.addAll(SearchQuery.tokens(description));
+        String[] previous = wordsById.get(id);
+        if (previous != null && Arrays.equals(previous, words.toArray())) {
+            return;
+        }
+        remove(id);
+        String[] stored = new String[words.size()];
+        int i = 0;
+        for (String word : words) {
+            Map.Entry<String, Postings> entry = postings.ceilingEntry(word);
+            if (entry == null || !entry.getKey().equals(word)) {
+                postings.put(word, new Postings());
+                entry = postings.ceilingEntry(word);
+            }
+            entry.getValue().add(id);
+            stored[i++] = entry.getKey();
+        }
+        wordsById.put(id, stored);
+    }
+
+    synchronized void remove(int id) {
+        String[] words = wordsById.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Postings list = postings.get(word);
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        postings.clear();
+        wordsById.clear();
+    }
+
+    synchronized int size() {
+        return wordsById.size();
+    }
+
+    // Id задач, подходящих под запрос, по возрастанию. Внутри альтернативы списки пересекаются
+    // от самого короткого, поэтому редкое слово сразу сужает поиск; альтернативы объединяются.
+    synchronized int[] search(SearchQuery query) {
+        int[] result = NO_IDS;
+        for (List<SearchQuery.Term> alternative : query.getAlternatives()) {
+            List<int[]> lists = new ArrayList<>(alternative.size());
+            for (SearchQuery.Term term : alternative) {
+                lists.add(idsOf(term));
+            }
+            lists.sort(Comparator.comparingInt(ids -> ids.length));
+            int[] matched = lists.get(0);
+            for (int i = 1; i < lists.size() && matched.length > 0; i++) {
+                matched = intersect(matched, lists.get(i));
+            }
+            result = union(result, matched);
+        }
+        return result;
+    }
+
+    private int[] idsOf(SearchQuery.Term term) {
+        if (!term.isPrefix()) {
+            Postings list = postings.get(term.getText());
+            return list == null ? NO_IDS : Arrays.copyOf(list.ids, list.size);
+        }
+        Collection<Postings> lists = postings.subMap(term.getText(), term.getText() + Character.MAX_VALUE).values();
+        int total = 0;
+        for (Postings list : lists) {
+            total += list.size;
+        }
+        int[] ids = new int[total];
+        int size = 0;
+        for (Postings list : lists) {
+            System.arraycopy(list.ids, 0, ids, size, list.size);
+            size += list.size;
+        }
+        if (lists.size() > 1) {
+            Arrays.sort(ids);
+            size = dedupe(ids);
+        }
+        return size == ids.length ? ids : Arrays.copyOf(ids, size);
+    }
+
+    // Каждый id короткого списка ищется в длинном двоичным поиском с места предыдущей находки.
+    private static int[] intersect(int[] shorter, int[] longer) {
+        int[] result = new int[shorter.length];
+        int size = 0;
+        int from = 0;
+        for (int id : shorter) {
+            int position = Arrays.binarySearch(longer, from, longer.length, id);
+            if (position >= 0) {
+                result[size++] = id;
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+            if (from == longer.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            int next = j == b.length || i < a.length && a[i] <= b[j] ? a[i] : b[j];
+            if (i < a.length && a[i] == next) {
+                i++;
+            }
+            if (j < b.length && b[j] == next) {
+                j++;
+            }
+            result[size++] = next;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int dedupe(int[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size;
+    }
+
+    // Упорядоченный массив id. Новые задачи получают растущие id, поэтому вставка почти всегда
+    // дописывает в конец; вставка в середину и удаление сдвигают хвост массива.
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private void insertAt(int position, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -2,20 +2,38 @@ package server;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.sun.net.httpserver.HttpExchange;
+import manager.TaskPage;
+import manager.TaskQuery;
 import server.adapter.DurationAdapter;
+import server.adapter.EpicAdapter;
 import server.adapter.LocalDateTimeAdapter;
+import server.adapter.PooledStringAdapter;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
 
 import java.io.IOException;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
 
 public class BaseHttpHandler {
+    protected static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private static final Gson gson = new GsonBuilder()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .registerTypeAdapter(Duration.class, new DurationAdapter())
+            .registerTypeAdapter(Epic.class, new EpicAdapter())
+            .registerTypeAdapter(String.class, new PooledStringAdapter())
             .create();
 
     protected Gson getGson() {
@@ -26,6 +44,14 @@ public class BaseHttpHandler {
         sendRawResponse(exchange, HttpCodeResponse.OK, body, true);
     }
 
+    protected void sendCreated(HttpExchange exchange, String body) throws IOException {
+        sendRawResponse(exchange, HttpCodeResponse.MODIFIED, body, true);
+    }
+
+    protected void sendBadRequest(HttpExchange exchange, String message) throws IOException {
+        sendRawResponse(exchange, HttpCodeResponse.BAD_REQUEST, message, true);
+    }
+
     protected void sendNotFound(HttpExchange exchange, String message) throws IOException {
         sendRawResponse(exchange, HttpCodeResponse.NOT_FOUND, message, true);
     }
@@ -54,11 +80,98 @@ public class BaseHttpHandler {
         exchange.getResponseBody().close();
     }
 
-    protected Integer parseTaskId(String path) {
+    protected int parseTaskId(String path) {
         try {
             return Integer.parseInt(path);
         } catch (NumberFormatException e) {
             return -1;
         }
     }
-}
\ No newline at end of file
+
+    // Параметры строки запроса; повторный параметр заменяет прежний.
+    protected Map<String, String> parseQueryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Условия выборки из параметров status, epic, from и to (время в ISO: 2025-05-06T10:00)
+    // и страница из limit и after; параметр type читается, только если тип не задан самим путём.
+    // null — ни условий, ни страницы нет.
+    protected TaskQuery parseTaskQuery(HttpExchange exchange, TaskType type) {
+        Map<String, String> params = parseQueryParams(exchange);
+        TaskQuery query = TaskQuery.all().withType(type);
+        boolean filtered = false;
+        if (type == null && params.containsKey("type")) {
+            query.withType(TaskType.valueOf(params.get("type").toUpperCase()));
+            filtered = true;
+        }
+        if (params.containsKey("status")) {
+            query.withStatus(TaskStatus.valueOf(params.get("status").toUpperCase()));
+            filtered = true;
+        }
+        if (params.containsKey("epic")) {
+            query.withEpicId(Integer.parseInt(params.get("epic")));
+            filtered = true;
+        }
+        if (params.containsKey("from") || params.containsKey("to")) {
+            query.withWindow(parseTime(params.get("from")), parseTime(params.get("to")));
+            filtered = true;
+        }
+        if (params.containsKey("limit")) {
+            query.withLimit(Integer.parseInt(params.get("limit")));
+            filtered = true;
+        }
+        if (params.containsKey("after")) {
+            query.withCursor(params.get("after"));
+            filtered = true;
+        }
+        return filtered ? query : null;
+    }
+
+    // Класс задачи в теле запроса: по полю "type", а без него по полям — epicId у подзадачи,
+    // subTasks у эпика, иначе обычная задача.
+    protected static Class<? extends Task> taskClassOf(JsonObject item) {
+        JsonElement type = item.get("type");
+        if (type != null) {
+            return switch (TaskType.valueOf(type.getAsString())) {
+                case TASK -> Task.class;
+                case SUBTASK -> Subtask.class;
+                case EPIC -> Epic.class;
+            };
+        }
+        if (item.has("epicId")) {
+            return Subtask.class;
+        }
+        return item.has("subTasks") ? Epic.class : Task.class;
+    }
+
+    // Курсор следующей страницы уходит в заголовке, а тело остаётся массивом задач.
+    protected void sendPage(HttpExchange exchange, TaskPage page) throws IOException {
+        if (page.hasNext()) {
+            exchange.getResponseHeaders().add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        sendResponse(exchange, gson.toJson(page.getTasks()));
+    }
+
+    protected static LocalDateTime parseTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Неверное время: " + value);
+        }
+    }
+}
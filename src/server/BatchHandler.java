@@ -0,0 +1,86 @@
+package server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import exception.NotFoundException;
+import exception.TaskScheduleConflictException;
+import manager.TaskManager;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Пакетная запись: POST /batch с массивом задач, подзадач и эпиков. Тип элемента задаётся полем
+// "type", а без него определяется по полям: epicId — подзадача, subTasks — эпик, иначе задача.
+// Элементы без id получают новые id. Если все элементы новые, пакет создаётся (createTasks),
+// иначе записывается как обновление (updateTasks). В ответ — id элементов в порядке запроса.
+public class BatchHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Pattern BATCH_PATTERN = Pattern.compile("^/batch$");
+
+    private final TaskManager taskManager;
+
+    public BatchHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        try {
+            HttpRequestMethods method = HttpRequestMethods.valueOf(httpExchange.getRequestMethod());
+            if (method == HttpRequestMethods.POST && BATCH_PATTERN.matcher(httpExchange.getRequestURI().getPath())
+                    .matches()) {
+                handlePost(httpExchange);
+            } else {
+                sendMethodNotAllowed(httpExchange);
+            }
+        } catch (TaskScheduleConflictException e) {
+            sendHasOverlap(httpExchange);
+        } catch (NotFoundException e) {
+            sendNotFound(httpExchange, e.getMessage());
+        } catch (JsonParseException | IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
+        } catch (Exception e) {
+            sendServerError(httpExchange, e.getMessage());
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+    private void handlePost(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        JsonElement json = JsonParser.parseString(body);
+        if (!json.isJsonArray()) {
+            throw new IllegalArgumentException("Ожидался массив задач");
+        }
+
+        JsonArray items = json.getAsJsonArray();
+        List<Task> batch = new ArrayList<>(items.size());
+        boolean allNew = true;
+        for (JsonElement item : items) {
+            if (!item.isJsonObject()) {
+                throw new IllegalArgumentException("Элемент пакета должен быть объектом");
+            }
+            Task task = getGson().fromJson(item, taskClassOf(item.getAsJsonObject()));
+            if (task.getId() == 0) {
+                task.setId(taskManager.newId());
+            } else {
+                allNew = false;
+            }
+            batch.add(task);
+        }
+
+        if (allNew) {
+            taskManager.createTasks(batch);
+        } else {
+            taskManager.updateTasks(batch);
+        }
+        sendCreated(exchange, getGson().toJson(batch.stream().map(Task::getId).toList()));
+    }
+}
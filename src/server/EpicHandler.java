@@ -5,7 +5,9 @@ import com.sun.net.httpserver.HttpHandler;
 import exception.NotFoundException;
 import exception.TaskScheduleConflictException;
 import manager.TaskManager;
+import manager.TaskQuery;
 import task.Epic;
+import task.TaskType;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -39,6 +41,8 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
         } catch (NotFoundException e) {
             System.out.println(e.getMessage());
             sendNotFound(httpExchange, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
         } catch (Exception e) {
             System.err.println("Internal error: " + e.getMessage());
             sendServerError(httpExchange, e.getMessage());
@@ -51,7 +55,12 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
         String path = exchange.getRequestURI().getPath();
 
         if (EPICS_PATTERN.matcher(path).matches()) {
-            sendResponse(exchange, getGson().toJson(taskManager.getAllEpics()));
+            TaskQuery query = parseTaskQuery(exchange, TaskType.EPIC);
+            if (query == null) {
+                sendResponse(exchange, getGson().toJson(taskManager.getAllEpics()));
+            } else {
+                sendPage(exchange, taskManager.getPage(query));
+            }
             return;
         }
 
@@ -88,6 +97,7 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
         Epic epicTask = getGson().fromJson(body, Epic.class);
 
         if (epicTask.getId() == 0) {
+            epicTask.setId(taskManager.newId());
             taskManager.createTask(epicTask);
         } else {
             taskManager.updateTask(epicTask);
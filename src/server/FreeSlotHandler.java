@@ -0,0 +1,58 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.TaskManager;
+import manager.TimeSlot;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Свободное время: GET /slots?duration=90&from=2025-05-06T09:00&to=2025-05-07T18:00&limit=5.
+// Длительность — в минутах, окно обязательно, по умолчанию возвращается до 10 промежутков {start, end}.
+public class FreeSlotHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Pattern SLOTS_PATTERN = Pattern.compile("^/slots$");
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final TaskManager taskManager;
+
+    public FreeSlotHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        try {
+            HttpRequestMethods method = HttpRequestMethods.valueOf(httpExchange.getRequestMethod());
+            if (method == HttpRequestMethods.GET && SLOTS_PATTERN.matcher(httpExchange.getRequestURI().getPath())
+                    .matches()) {
+                handleGet(httpExchange);
+            } else {
+                sendMethodNotAllowed(httpExchange);
+            }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
+        } catch (Exception e) {
+            sendServerError(httpExchange, e.getMessage());
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+    private void handleGet(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parseQueryParams(exchange);
+        if (!params.containsKey("duration") || !params.containsKey("from") || !params.containsKey("to")) {
+            throw new IllegalArgumentException("Нужны параметры duration, from и to");
+        }
+        Duration duration = Duration.ofMinutes(Long.parseLong(params.get("duration")));
+        LocalDateTime from = parseTime(params.get("from"));
+        LocalDateTime to = parseTime(params.get("to"));
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_LIMIT;
+        List<TimeSlot> slots = taskManager.findFreeSlots(duration, from, to, limit);
+        sendResponse(exchange, getGson().toJson(slots));
+    }
+}
@@ -6,6 +6,7 @@ import manager.HistoryManager;
 import manager.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
@@ -28,6 +29,8 @@ public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
                     sendMethodNotAllowed(httpExchange);
                 }
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
         } catch (Exception e) {
             sendServerError(httpExchange, e.getMessage());
         } finally {
@@ -40,8 +43,14 @@ public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
 
         if (HISTORY_PATTERN.matcher(path).matches()) {
             HistoryManager historyManager = taskManager.getHistoryManager();
-            String response = getGson().toJson(historyManager.getHistory());
-            sendResponse(exchange, response);
+            Map<String, String> params = parseQueryParams(exchange);
+            if (!params.containsKey("limit") && !params.containsKey("after")) {
+                String response = getGson().toJson(historyManager.getHistory());
+                sendResponse(exchange, response);
+                return;
+            }
+            int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : Integer.MAX_VALUE;
+            sendPage(exchange, historyManager.getHistoryPage(params.get("after"), limit));
         } else {
             sendMethodNotAllowed(exchange);
         }
@@ -4,6 +4,7 @@ public enum HttpCodeResponse {
 
     OK(200, "OK"),
     MODIFIED(201, "Created or Modified"),
+    BAD_REQUEST(400, "Bad Request"),
     NOT_FOUND(404, "Not Found"),
     NOT_ALLOWED(405, "Method Not Allowed"),
     OVERLAP(406, "Overlap Error"),
@@ -7,6 +7,7 @@ import manager.TaskManager;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 public class HttpTaskServer {
 
@@ -21,6 +22,12 @@ public class HttpTaskServer {
         registerContexts();
     }
 
+    // Пул потоков имеет смысл только с менеджером, безопасным для параллельной записи (Managers.getConcurrent()).
+    public HttpTaskServer(TaskManager taskManager, Executor executor) throws IOException {
+        this(taskManager);
+        server.setExecutor(executor);
+    }
+
     public void start() {
         server.start();
     }
@@ -35,7 +42,11 @@ public class HttpTaskServer {
                 "/epics",       new EpicHandler(taskManager),
                 "/subtasks",    new SubTaskHandler(taskManager),
                 "/history",     new HistoryHandler(taskManager),
-                "/prioritized", new PrioritizedHandler(taskManager)
+                "/prioritized", new PrioritizedHandler(taskManager),
+                "/batch",       new BatchHandler(taskManager),
+                "/search",      new SearchHandler(taskManager),
+                "/slots",       new FreeSlotHandler(taskManager),
+                "/schedule",    new ScheduleHandler(taskManager)
         );
 
         contexts.forEach(this::createContext);
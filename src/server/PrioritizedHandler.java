@@ -3,6 +3,7 @@ package server;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import manager.TaskManager;
+import manager.TaskQuery;
 
 import java.io.IOException;
 import java.util.regex.Pattern;
@@ -27,6 +28,8 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
                     sendMethodNotAllowed(httpExchange);
                 }
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
         } catch (Exception e) {
             sendServerError(httpExchange, e.getMessage());
         } finally {
@@ -38,8 +41,16 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
         String path = exchange.getRequestURI().getPath();
 
         if (PRIORITIZED_PATTERN.matcher(path).matches()) {
-            String response = getGson().toJson(taskManager.getSortedTasksByTime());
-            sendResponse(exchange, response);
+            // Приоритетный список — это расписание, поэтому без from и to окно охватывает всё время.
+            TaskQuery query = parseTaskQuery(exchange, null);
+            if (query != null && !query.hasWindow()) {
+                query.withWindow(null, null);
+            }
+            if (query == null) {
+                sendResponse(exchange, getGson().toJson(taskManager.getSortedTasksByTime()));
+            } else {
+                sendPage(exchange, taskManager.getPage(query));
+            }
         } else {
             sendMethodNotAllowed(exchange);
         }
@@ -0,0 +1,90 @@
+package server;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import exception.NotFoundException;
+import exception.TaskScheduleConflictException;
+import manager.AutoScheduler;
+import manager.PlacementRequest;
+import manager.TaskManager;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Автоматическая раскладка: POST /schedule с телом {"from": ..., "to": ..., "tasks": [...]}.
+// Элементы tasks — задачи без времени, как в /batch (без id — новые задачи), с необязательными полями
+// "earliest" и "latest";
+// время — в том же формате, что и у задач. В ответ — поставленные задачи и задачи без места.
+public class ScheduleHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Pattern SCHEDULE_PATTERN = Pattern.compile("^/schedule$");
+
+    private final TaskManager taskManager;
+
+    public ScheduleHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        try {
+            HttpRequestMethods method = HttpRequestMethods.valueOf(httpExchange.getRequestMethod());
+            if (method == HttpRequestMethods.POST && SCHEDULE_PATTERN.matcher(httpExchange.getRequestURI().getPath())
+                    .matches()) {
+                handlePost(httpExchange);
+            } else {
+                sendMethodNotAllowed(httpExchange);
+            }
+        } catch (TaskScheduleConflictException e) {
+            sendHasOverlap(httpExchange);
+        } catch (NotFoundException e) {
+            sendNotFound(httpExchange, e.getMessage());
+        } catch (JsonParseException | IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
+        } catch (Exception e) {
+            sendServerError(httpExchange, e.getMessage());
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+    private void handlePost(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        JsonElement json = JsonParser.parseString(body);
+        if (!json.isJsonObject() || !json.getAsJsonObject().has("tasks")
+                || !json.getAsJsonObject().get("tasks").isJsonArray()) {
+            throw new IllegalArgumentException("Ожидался объект с массивом tasks");
+        }
+
+        JsonObject request = json.getAsJsonObject();
+        List<PlacementRequest> requests = new ArrayList<>();
+        for (JsonElement item : request.getAsJsonArray("tasks")) {
+            if (!item.isJsonObject()) {
+                throw new IllegalArgumentException("Элемент tasks должен быть объектом");
+            }
+            JsonObject fields = item.getAsJsonObject();
+            Task task = getGson().fromJson(fields, taskClassOf(fields));
+            if (task.getId() == 0) {
+                task.setId(taskManager.newId());
+            }
+            requests.add(new PlacementRequest(task, timeOf(fields, "earliest"), timeOf(fields, "latest")));
+        }
+
+        AutoScheduler scheduler = new AutoScheduler(taskManager);
+        sendCreated(exchange, getGson().toJson(scheduler.schedule(requests, timeOf(request, "from"),
+                timeOf(request, "to"))));
+    }
+
+    private LocalDateTime timeOf(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        return value == null || value.isJsonNull() ? null : getGson().fromJson(value, LocalDateTime.class);
+    }
+}
@@ -0,0 +1,52 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.TaskManager;
+import manager.TaskPage;
+import task.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Полнотекстовый поиск: GET /search?q=отчёт+OR+ревью*&limit=50&after=120.
+// Задачи идут по возрастанию id, курсор следующей страницы — id последней задачи.
+public class SearchHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Pattern SEARCH_PATTERN = Pattern.compile("^/search$");
+
+    private final TaskManager taskManager;
+
+    public SearchHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        try {
+            HttpRequestMethods method = HttpRequestMethods.valueOf(httpExchange.getRequestMethod());
+            if (method == HttpRequestMethods.GET && SEARCH_PATTERN.matcher(httpExchange.getRequestURI().getPath())
+                    .matches()) {
+                handleGet(httpExchange);
+            } else {
+                sendMethodNotAllowed(httpExchange);
+            }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
+        } catch (Exception e) {
+            sendServerError(httpExchange, e.getMessage());
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+    private void handleGet(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parseQueryParams(exchange);
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : Integer.MAX_VALUE;
+        int after = params.containsKey("after") ? Integer.parseInt(params.get("after")) : 0;
+        List<Task> found = taskManager.search(params.get("q"), after, limit);
+        String next = found.size() == limit ? String.valueOf(found.get(found.size() - 1).getId()) : null;
+        sendPage(exchange, new TaskPage(found, next));
+    }
+}
@@ -5,8 +5,10 @@ import com.sun.net.httpserver.HttpHandler;
 import exception.NotFoundException;
 import exception.TaskScheduleConflictException;
 import manager.TaskManager;
+import manager.TaskQuery;
 import task.Subtask;
 import task.Task;
+import task.TaskType;
 
 import java.io.IOException;
 import java.util.regex.Pattern;
@@ -35,6 +37,8 @@ public class SubTaskHandler extends BaseHttpHandler implements HttpHandler {
             sendHasOverlap(httpExchange);
         } catch (NotFoundException e) {
             sendNotFound(httpExchange, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
         } catch (Exception e) {
             sendServerError(httpExchange, e.getMessage());
         } finally {
@@ -46,7 +50,12 @@ public class SubTaskHandler extends BaseHttpHandler implements HttpHandler {
         String path = exchange.getRequestURI().getPath();
 
         if (SUBTASKS_PATTERN.matcher(path).matches()) {
-            sendResponse(exchange, getGson().toJson(taskManager.getAllSubTasks()));
+            TaskQuery query = parseTaskQuery(exchange, TaskType.SUBTASK);
+            if (query == null) {
+                sendResponse(exchange, getGson().toJson(taskManager.getAllSubTasks()));
+            } else {
+                sendPage(exchange, taskManager.getPage(query));
+            }
             return;
         }
 
@@ -76,6 +85,7 @@ public class SubTaskHandler extends BaseHttpHandler implements HttpHandler {
         Subtask subTask = getGson().fromJson(body, Subtask.class);
 
         if (subTask.getId() == 0) {
+            subTask.setId(taskManager.newId());
             taskManager.createTask(subTask);
         } else {
             taskManager.updateTask(subTask);
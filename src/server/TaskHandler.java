@@ -5,7 +5,9 @@ import com.sun.net.httpserver.HttpHandler;
 import exception.NotFoundException;
 import exception.TaskScheduleConflictException;
 import manager.TaskManager;
+import manager.TaskQuery;
 import task.Task;
+import task.TaskType;
 import java.nio.charset.StandardCharsets;
 import java.io.IOException;
 import java.util.regex.Pattern;
@@ -39,6 +41,8 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
         } catch (NotFoundException e) {
             System.out.println(e.getMessage());
             sendNotFound(httpExchange, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(httpExchange, e.getMessage());
         } catch (Exception e) {
             System.err.println("Internal error: " + e.getMessage());
             sendServerError(httpExchange, e.getMessage());
@@ -72,7 +76,12 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
         String path = exchange.getRequestURI().getPath();
 
         if (COLLECTION_PATH.matcher(path).matches()) {
-            sendJson(exchange, taskManager.getAllTasks());
+            TaskQuery query = parseTaskQuery(exchange, TaskType.TASK);
+            if (query == null) {
+                sendJson(exchange, taskManager.getAllTasks());
+            } else {
+                sendPage(exchange, taskManager.getPage(query));
+            }
             return;
         }
 
@@ -100,6 +109,7 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
             Task task = getGson().fromJson(body, Task.class);
 
             if (task.getId() == 0) {
+                task.setId(taskManager.newId());
                 taskManager.createTask(task);
             } else {
                 taskManager.updateTask(task);
@@ -0,0 +1,43 @@
+package server.adapter;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.reflect.TypeToken;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Эпик хранит подзадачи в словаре по id, а в JSON они по-прежнему передаются массивом subTasks.
+public class EpicAdapter implements JsonSerializer<Epic>, JsonDeserializer<Epic> {
+    private static final String SUB_TASKS = "subTasks";
+    private static final Type SUB_TASK_LIST = new TypeToken<List<Subtask>>() {
+    }.getType();
+
+    @Override
+    public JsonElement serialize(Epic epic, Type type, JsonSerializationContext context) {
+        JsonObject json = context.serialize(epic, Task.class).getAsJsonObject();
+        json.add(SUB_TASKS, context.serialize(epic.getSubTasks(), SUB_TASK_LIST));
+        return json;
+    }
+
+    @Override
+    public Epic deserialize(JsonElement json, Type type, JsonDeserializationContext context)
+            throws JsonParseException {
+        Task task = context.deserialize(json, Task.class);
+        Epic epic = new Epic(task.getName(), task.getDescription(), task.getId(), task.getStatus());
+
+        JsonElement subTasks = json.getAsJsonObject().get(SUB_TASKS);
+        if (subTasks != null && subTasks.isJsonArray()) {
+            epic.setSubTasks(context.deserialize(subTasks, SUB_TASK_LIST));
+        }
+        return epic;
+    }
+}
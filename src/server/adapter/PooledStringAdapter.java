@@ -0,0 +1,28 @@
+package server.adapter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import manager.StringPool;
+
+import java.io.IOException;
+
+// Строки из тел запросов проходят через общий пул: одинаковые имена и описания задач
+// хранятся одним объектом, сколько бы раз их ни прислали.
+public class PooledStringAdapter extends TypeAdapter<String> {
+
+    @Override
+    public void write(JsonWriter jsonWriter, String value) throws IOException {
+        jsonWriter.value(value);
+    }
+
+    @Override
+    public String read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        return StringPool.getDefault().intern(jsonReader.nextString());
+    }
+}
@@ -2,104 +2,125 @@ package task;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 public class Epic extends Task {
-    private List<Subtask> subTasks;
+    // Подзадачи по id в порядке добавления: поиск, замена и удаление за O(1).
+    private transient Map<Integer, Subtask> subTasks;
+    private transient List<Subtask> subTasksView;
+    private transient EpicAggregates aggregates;
 
     public Epic(String name, String description, int id) {
         super(name, description, id);
-        this.subTasks = new ArrayList<Subtask>();
+        this.subTasks = new LinkedHashMap<>();
     }
 
     public Epic(String name, String description, int id, List<Subtask> subTasks, TaskStatus status) {
         super(name, description, id, status);
-        this.subTasks = subTasks;
+        this.subTasks = new LinkedHashMap<>();
+        fill(subTasks);
     }
 
     public Epic(String name, String description, int id, TaskStatus status) {
         super(name, description, id, status);
-        this.subTasks = new ArrayList<>();
+        this.subTasks = new LinkedHashMap<>();
     }
 
-    public List<Subtask> getSubTasks() {
-        return subTasks;
+    // Неизменяемый список подзадач в порядке добавления; пересобирается только после изменений.
+    // Методы подзадач синхронизированы на эпике: его читают и вне блокировок менеджера.
+    public synchronized List<Subtask> getSubTasks() {
+        if (subTasksView == null) {
+            subTasksView = List.copyOf(subTasks.values());
+        }
+        return subTasksView;
+    }
+
+    public synchronized void setSubTasks(List<Subtask> subTasks) {
+        this.subTasks = new LinkedHashMap<>();
+        fill(subTasks);
+        this.subTasksView = null;
+        this.aggregates = null;
     }
 
-    public void setSubTasks(List<Subtask> subTasks) {
-        this.subTasks = subTasks;
+    public synchronized boolean containsSubTask(int subtaskId) {
+        return subTasks.containsKey(subtaskId);
     }
 
-    public void addSubTask(Subtask subtask) {
+    public synchronized void addSubTask(Subtask subtask) {
         if (subtask == null || subtask.getId() == this.getId()) {
             return;
         }
 
-        boolean alreadyExists = subTasks.stream()
-                .anyMatch(s -> s.getId() == subtask.getId());
+        if (subTasks.putIfAbsent(subtask.getId(), subtask) == null) {
+            subTasksView = null;
+            aggregates().put(subtask);
+        }
+    }
+
+    // Замена сохраняет позицию подзадачи, новая подзадача добавляется в конец.
+    public synchronized void modifySubTask(Subtask subTask) {
+        subTasks.put(subTask.getId(), subTask);
+        subTasksView = null;
+        aggregates().put(subTask);
+    }
 
-        if (!alreadyExists) {
-            subTasks.add(subtask);
+    public synchronized void removeSubTask(int subtaskId) {
+        if (subTasks.remove(subtaskId) != null) {
+            subTasksView = null;
         }
+        aggregates().remove(subtaskId);
     }
 
-    public void modifySubTask(Subtask subTask) {
-        int index = -1;
-        for (int i = 0; i < subTasks.size(); i++) {
-            if (subTasks.get(i).getId() == subTask.getId()) {
-                index = i;
-                break;
+    private void fill(List<Subtask> source) {
+        if (source == null) {
+            return;
+        }
+        for (Subtask subtask : source) {
+            if (subtask != null && subtask.getId() != this.getId()) {
+                subTasks.putIfAbsent(subtask.getId(), subtask);
             }
         }
+    }
 
-        if (index != -1) {
-            subTasks.set(index, subTask);
-        } else {
-            subTasks.add(subTask);
-        }
+    // Статус по подзадачам: NEW, если все новые или подзадач нет, DONE, если все выполнены, иначе IN_PROGRESS.
+    public synchronized TaskStatus calculateStatus() {
+        return aggregates().getStatus();
     }
 
-    public void removeSubTask(int subtaskId) {
-        subTasks.removeIf(subtask -> subtask.getId() == subtaskId);
+    // Сводные данные строятся заново после замены списка целиком.
+    private EpicAggregates aggregates() {
+        if (aggregates == null) {
+            aggregates = EpicAggregates.of(subTasks.values());
+        }
+        return aggregates;
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         return "task.Epic{" +
                 "name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", id=" + id +
                 ", status='" + status + '\'' +
-                ", subTasks=" + subTasks +
+                ", subTasks=" + subTasks.values() +
                 '}';
     }
 
     @Override
-    public LocalDateTime getStartTime() {
-        return subTasks.stream()
-                .map(Subtask::getStartTime)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
+    public synchronized LocalDateTime getStartTime() {
+        return aggregates().getStartTime();
     }
 
     @Override
-    public Duration getDuration() {
-        return subTasks.stream()
-                .map(Subtask::getDuration)
-                .filter(Objects::nonNull)
-                .reduce(Duration.ZERO, Duration::plus);
+    public synchronized Duration getDuration() {
+        return aggregates().getDuration();
     }
 
     @Override
-    public LocalDateTime getEndTime() {
-        return subTasks.stream()
-                .map(Subtask::getEndTime)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
+    public synchronized LocalDateTime getEndTime() {
+        return aggregates().getEndTime();
     }
 
     @Override
@@ -0,0 +1,116 @@
+package task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Сводные данные эпика по подзадачам: счётчики статусов, упорядоченные мультимножества начал и концов
+// и сумма длительностей. Для каждой подзадачи запоминается её вклад, поэтому при замене подзадачи
+// вычитается ровно то, что было учтено раньше, даже если сам объект успели изменить на месте.
+class EpicAggregates {
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+    private final TreeMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Integer> ends = new TreeMap<>();
+    private Duration duration = Duration.ZERO;
+    private int newCount;
+    private int doneCount;
+
+    static EpicAggregates of(Collection<Subtask> subTasks) {
+        EpicAggregates aggregates = new EpicAggregates();
+        if (subTasks != null) {
+            for (Subtask subtask : subTasks) {
+                if (subtask != null) {
+                    aggregates.put(subtask);
+                }
+            }
+        }
+        return aggregates;
+    }
+
+    void put(Subtask subtask) {
+        remove(subtask.getId());
+        Contribution contribution = new Contribution(subtask);
+        contributions.put(subtask.getId(), contribution);
+
+        if (contribution.status == TaskStatus.NEW) {
+            newCount++;
+        } else if (contribution.status == TaskStatus.DONE) {
+            doneCount++;
+        }
+        add(starts, contribution.start);
+        add(ends, contribution.end);
+        if (contribution.duration != null) {
+            duration = duration.plus(contribution.duration);
+        }
+    }
+
+    void remove(int subtaskId) {
+        Contribution contribution = contributions.remove(subtaskId);
+        if (contribution == null) {
+            return;
+        }
+
+        if (contribution.status == TaskStatus.NEW) {
+            newCount--;
+        } else if (contribution.status == TaskStatus.DONE) {
+            doneCount--;
+        }
+        subtract(starts, contribution.start);
+        subtract(ends, contribution.end);
+        if (contribution.duration != null) {
+            duration = duration.minus(contribution.duration);
+        }
+    }
+
+    LocalDateTime getStartTime() {
+        return starts.isEmpty() ? null : starts.firstKey();
+    }
+
+    LocalDateTime getEndTime() {
+        return ends.isEmpty() ? null : ends.lastKey();
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    TaskStatus getStatus() {
+        int count = contributions.size();
+        if (count == 0 || newCount == count) {
+            return TaskStatus.NEW;
+        }
+        if (doneCount == count) {
+            return TaskStatus.DONE;
+        }
+        return TaskStatus.IN_PROGRESS;
+    }
+
+    private static void add(TreeMap<LocalDateTime, Integer> times, LocalDateTime time) {
+        if (time != null) {
+            times.merge(time, 1, Integer::sum);
+        }
+    }
+
+    private static void subtract(TreeMap<LocalDateTime, Integer> times, LocalDateTime time) {
+        if (time != null) {
+            times.computeIfPresent(time, (key, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private static class Contribution {
+        private final TaskStatus status;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Duration duration;
+
+        private Contribution(Subtask subtask) {
+            this.status = subtask.getStatus();
+            this.start = subtask.getStartTime();
+            this.end = subtask.getEndTime();
+            this.duration = subtask.getDuration();
+        }
+    }
+}
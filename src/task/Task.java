@@ -1,5 +1,6 @@
 package task;
 
+import manager.CsvTaskReader;
 import manager.InMemoryTaskManager;
 
 import java.time.Duration;
@@ -58,6 +59,10 @@ public class Task {
         return id;
     }
 
+    public void setId(int id) {
+        this.id = id;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -93,36 +98,7 @@ public class Task {
     }
 
     public static Task fromString(String value) {
-        String[] parts = value.split(",", -1);
-        int id = Integer.parseInt(parts[0]);
-        TaskType type = TaskType.valueOf(parts[1]);
-        String name = parts[2];
-        TaskStatus status = TaskStatus.valueOf(parts[3]);
-        String description = parts[4];
-
-        int epicId = parts[5].isEmpty() ? -1 : Integer.parseInt(parts[5]);
-
-        LocalDateTime startTime = parts[6].isEmpty() ? null : LocalDateTime.parse(parts[6]);
-        Duration duration = parts[7].isEmpty() ? null : Duration.ofMinutes(Long.parseLong(parts[7]));
-
-        return switch (type) {
-            case TASK -> {
-                Task task = new Task(name, description, id, status);
-                task.setStartTime(startTime);
-                task.setDuration(duration);
-                yield task;
-            }
-            case EPIC -> {
-                Epic epic = new Epic(name, description, id, status);
-                yield epic;
-            }
-            case SUBTASK -> {
-                Subtask subtask = new Subtask(name, description, id, epicId, status);
-                subtask.setStartTime(startTime);
-                subtask.setDuration(duration);
-                yield subtask;
-            }
-        };
+        return CsvTaskReader.parse(value);
     }
 
     public TaskType getType() {
@@ -0,0 +1,161 @@
+import manager.AutoScheduler;
+import manager.ColumnarTaskManager;
+import manager.ConcurrentTaskManager;
+import manager.InMemoryTaskManager;
+import manager.PlacementRequest;
+import manager.ScheduleResult;
+import manager.SnapshotTaskManager;
+import manager.TaskManager;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoSchedulerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 6, 9, 0);
+
+    @Test
+    public void shouldPlaceTasksIntoEarliestGapsWithinTheirWindows() {
+        TaskManager manager = new InMemoryTaskManager();
+        manager.createTask(new Task("Планёрка", "", manager.newId(), START.plusMinutes(60), 60));
+        Epic epic = new Epic("Релиз", "", manager.newId());
+        manager.createTask(epic);
+        Task report = unscheduled(manager, "Отчёт", 60);
+        Subtask notes = new Subtask("Заметки", "", manager.newId(), epic.getId());
+        notes.setDuration(Duration.ofMinutes(30));
+        Task urgent = unscheduled(manager, "Срочное", 60);
+        Task tooLong = unscheduled(manager, "Большое", 600);
+        manager.createTasks(List.of(report, notes, urgent, tooLong));
+
+        ScheduleResult result = new AutoScheduler(manager).schedule(List.of(
+                new PlacementRequest(report),
+                new PlacementRequest(notes, START.plusMinutes(90), null),
+                new PlacementRequest(urgent, null, START.plusMinutes(60)),
+                new PlacementRequest(tooLong)), START, START.plusHours(5));
+
+        // Срочное занимает единственный час до планёрки, отчёт идёт сразу после неё.
+        assertEquals(START, manager.getById(urgent.getId()).getStartTime());
+        assertEquals(START.plusMinutes(120), manager.getById(report.getId()).getStartTime());
+        assertEquals(START.plusMinutes(180), manager.getById(notes.getId()).getStartTime());
+        assertEquals(START.plusMinutes(180), manager.getById(epic.getId()).getStartTime());
+        assertEquals(List.of(tooLong), result.getUnplaced());
+        assertEquals(3, result.getScheduled().size());
+        assertEquals(InMemoryTaskManager.UNDEFINED_TIME, report.getStartTime(), "Заявка не должна меняться");
+    }
+
+    @Test
+    public void shouldRejectScheduledTasksAndEpicsWithoutWriting() {
+        TaskManager manager = new InMemoryTaskManager();
+        Task scheduled = new Task("В расписании", "", manager.newId(), START, 30);
+        Task free = unscheduled(manager, "Без времени", 30);
+        Epic epic = new Epic("Эпик", "", manager.newId());
+        manager.createTasks(List.of(scheduled, free, epic));
+        AutoScheduler scheduler = new AutoScheduler(manager);
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule(
+                List.of(new PlacementRequest(free), new PlacementRequest(scheduled)), START, null));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule(
+                List.of(new PlacementRequest(free), new PlacementRequest(epic)), START, null));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule(
+                List.of(new PlacementRequest(free), new PlacementRequest(free)), START, null));
+        assertEquals(InMemoryTaskManager.UNDEFINED_TIME, manager.getById(free.getId()).getStartTime());
+    }
+
+    @Test
+    public void shouldPlaceStoredTaskTakingOnlyIdDurationAndWindowFromRequest() {
+        TaskManager manager = new InMemoryTaskManager();
+        Epic epic = new Epic("Релиз", "", manager.newId());
+        manager.createTask(epic);
+        Subtask stored = new Subtask("Заметки", "Черновик", manager.newId(), epic.getId(), TaskStatus.IN_PROGRESS);
+        stored.setDuration(Duration.ofMinutes(30));
+        manager.createTask(stored);
+        Task scheduled = new Task("Планёрка", "", manager.newId(), START, 30);
+        manager.createTask(scheduled);
+
+        Task request = new Task("Другое имя", "", stored.getId(), TaskStatus.DONE);
+        request.setDuration(Duration.ofMinutes(90));
+        new AutoScheduler(manager).schedule(List.of(new PlacementRequest(request)), START, null);
+        assertTrue(manager.getHistoryManager().getHistory().isEmpty(), "Планирование не должно попадать в историю");
+
+        Task placed = manager.getById(stored.getId());
+        assertTrue(placed instanceof Subtask, "Тип берётся из сохранённой задачи");
+        assertEquals("Заметки", placed.getName());
+        assertEquals(TaskStatus.IN_PROGRESS, placed.getStatus());
+        assertEquals(epic.getId(), ((Subtask) placed).getEpicId());
+        assertEquals(START.plusMinutes(30), placed.getStartTime());
+        assertEquals(Duration.ofMinutes(90), placed.getDuration());
+
+        // Сохранённая задача уже в расписании, хотя в заявке времени нет.
+        Task again = new Task("Планёрка", "", scheduled.getId());
+        again.setDuration(Duration.ofMinutes(30));
+        assertThrows(IllegalArgumentException.class, () -> new AutoScheduler(manager).schedule(
+                List.of(new PlacementRequest(again)), START, null));
+    }
+
+    @Test
+    public void scheduledTasksShouldStayInWindowsAndUnplacedShouldHaveNoRoom() {
+        for (TaskManager manager : List.of(new InMemoryTaskManager(), new ConcurrentTaskManager(),
+                new SnapshotTaskManager(), new ColumnarTaskManager())) {
+            Random random = new Random(25);
+            for (int i = 0; i < 300; i++) {
+                try {
+                    manager.createTask(new Task("Встреча " + i, "", manager.newId(),
+                            START.plusMinutes(random.nextInt(40_000)), 15 + random.nextInt(60)));
+                } catch (RuntimeException e) {
+                    // Пересечения пропускаются: нужно просто занятое расписание.
+                }
+            }
+            List<PlacementRequest> requests = new ArrayList<>();
+            Map<Integer, PlacementRequest> byId = new HashMap<>();
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                Task task = unscheduled(manager, "Задача " + i, 5 + random.nextInt(120));
+                LocalDateTime earliest = random.nextBoolean() ? null : START.plusMinutes(random.nextInt(40_000));
+                LocalDateTime latest = earliest == null || random.nextBoolean() ? null
+                        : earliest.plusMinutes(30 + random.nextInt(600));
+                PlacementRequest request = new PlacementRequest(task, earliest, latest);
+                batch.add(task);
+                requests.add(request);
+                byId.put(task.getId(), request);
+            }
+            manager.createTasks(batch);
+            LocalDateTime to = START.plusDays(30);
+
+            ScheduleResult result = new AutoScheduler(manager).schedule(requests, START, to);
+
+            assertEquals(requests.size(), result.getScheduled().size() + result.getUnplaced().size());
+            for (Task task : result.getScheduled()) {
+                PlacementRequest request = byId.get(task.getId());
+                assertEquals(task.getStartTime(), manager.getById(task.getId()).getStartTime());
+                LocalDateTime from = request.getEarliest() == null ? START : request.getEarliest();
+                LocalDateTime until = request.getLatest() == null ? to : request.getLatest();
+                assertFalse(task.getStartTime().isBefore(from));
+                assertFalse(task.getEndTime().isAfter(until));
+            }
+            for (Task task : result.getUnplaced()) {
+                PlacementRequest request = byId.get(task.getId());
+                LocalDateTime from = request.getEarliest() == null ? START : request.getEarliest();
+                LocalDateTime until = request.getLatest() == null ? to : request.getLatest();
+                assertTrue(!from.isBefore(until)
+                        || manager.findFreeSlots(task.getDuration(), from, until, 1).isEmpty());
+            }
+        }
+    }
+
+    private static Task unscheduled(TaskManager manager, String name, int minutes) {
+        Task task = new Task(name, "", manager.newId());
+        task.setDuration(Duration.ofMinutes(minutes));
+        return task;
+    }
+}
@@ -0,0 +1,297 @@
+import exception.NotFoundException;
+import exception.TaskScheduleConflictException;
+import manager.ColumnarTaskManager;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import manager.TaskPage;
+import manager.TaskQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTaskManagerTest {
+    private ColumnarTaskManager taskManager;
+    private LocalDateTime startTime;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new ColumnarTaskManager();
+        startTime = LocalDateTime.of(2025, 5, 6, 10, 0);
+    }
+
+    @Test
+    void shouldMaterialiseStoredFieldsAndTrackEpicStatus() {
+        Epic epic = new Epic("Переезд", "Собрать вещи — и в путь", taskManager.newId());
+        taskManager.createTask(epic);
+        Subtask boxes = new Subtask("Коробки", null, taskManager.newId(), startTime, 90, epic.getId());
+        Subtask truck = new Subtask("Грузовик", "", taskManager.newId(), startTime.plusHours(2), 30, epic.getId());
+        taskManager.createTask(boxes);
+        taskManager.createTask(truck);
+
+        Subtask loaded = (Subtask) taskManager.getById(boxes.getId());
+        assertEquals("Коробки", loaded.getName());
+        assertNull(loaded.getDescription());
+        assertEquals(startTime, loaded.getStartTime());
+        assertEquals(Duration.ofMinutes(90), loaded.getDuration());
+        assertEquals(epic.getId(), loaded.getEpicId());
+        assertEquals(List.of(loaded), taskManager.getHistoryManager().getHistory());
+
+        boxes.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(boxes);
+        assertEquals(TaskStatus.IN_PROGRESS, taskManager.getById(epic.getId()).getStatus());
+        truck.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(truck);
+
+        Epic loadedEpic = (Epic) taskManager.getById(epic.getId());
+        assertEquals(TaskStatus.DONE, loadedEpic.getStatus());
+        assertEquals("Собрать вещи — и в путь", loadedEpic.getDescription());
+        assertEquals(List.of(boxes.getId(), truck.getId()),
+                loadedEpic.getSubTasks().stream().map(Task::getId).toList());
+        assertEquals(startTime, loadedEpic.getStartTime());
+        assertEquals(startTime.plusHours(2).plusMinutes(30), loadedEpic.getEndTime());
+        assertEquals(1, taskManager.count(TaskType.EPIC, TaskStatus.DONE));
+        assertEquals(2, taskManager.count(TaskType.SUBTASK, null));
+
+        taskManager.deleteById(epic.getId());
+        assertEquals(0, taskManager.size());
+        assertTrue(taskManager.getSortedTasksByTime().isEmpty());
+        assertTrue(taskManager.getHistoryManager().getHistory().isEmpty());
+    }
+
+    @Test
+    void shouldRejectOverlapsAndSubtasksOfMissingEpics() {
+        taskManager.createTask(new Task("Встреча", "", taskManager.newId(), startTime, 60));
+
+        assertThrows(TaskScheduleConflictException.class, () -> taskManager.createTask(
+                new Task("Звонок", "", taskManager.newId(), startTime.plusMinutes(30), 60)));
+        assertThrows(NotFoundException.class, () -> taskManager.createTask(
+                new Subtask("Сирота", "", taskManager.newId(), startTime.plusHours(5), 10, 999_999)));
+        assertDoesNotThrow(() -> taskManager.createTask(
+                new Task("Обед", "", taskManager.newId(), startTime.plusHours(1), 60)));
+        assertEquals(2, taskManager.getSortedTasksByTime().size());
+    }
+
+    @Test
+    void shouldKeepTextIntactWhenArenaIsCompacted() {
+        Task task = new Task("Задача", "", taskManager.newId());
+        taskManager.createTask(task);
+        Task neighbour = new Task("Соседняя задача", "Описание не меняется", taskManager.newId());
+        taskManager.createTask(neighbour);
+
+        // Каждое обновление оставляет в арене мусор, и она несколько раз уплотняется.
+        String description = "описание ".repeat(2_000);
+        for (int i = 0; i < 500; i++) {
+            taskManager.updateTask(new Task("Задача " + i, description + i, task.getId()));
+        }
+
+        assertEquals("Задача 499", taskManager.getById(task.getId()).getName());
+        assertEquals(description + 499, taskManager.getById(task.getId()).getDescription());
+        assertEquals("Описание не меняется", taskManager.getById(neighbour.getId()).getDescription());
+    }
+
+    @Test
+    void shouldMatchInMemoryManagerUnderRandomOperations() {
+        TaskManager expected = new InMemoryTaskManager();
+        Random random = new Random(18);
+        List<Integer> epicIds = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation == 0 || epicIds.isEmpty()) {
+                int id = taskManager.newId();
+                apply(expected, taskManager, new Epic("Эпик " + id, "", id));
+                epicIds.add(id);
+            } else if (operation < 7) {
+                boolean reuse = !ids.isEmpty() && random.nextInt(3) == 0;
+                int id = reuse ? ids.get(random.nextInt(ids.size())) : taskManager.newId();
+                Task previous = expected.getById(id);
+                if (previous != null && previous.getType() == TaskType.EPIC) {
+                    continue;
+                }
+                LocalDateTime start = random.nextInt(4) == 0 ? InMemoryTaskManager.UNDEFINED_TIME
+                        : startTime.plusMinutes(random.nextInt(20_000));
+                // Повторно записанная задача сохраняет тип, а подзадача — свой эпик.
+                boolean subtask = previous == null ? random.nextBoolean() : previous instanceof Subtask;
+                Task task = subtask
+                        ? new Subtask("Подзадача " + id, "", id, start, random.nextInt(120),
+                        previous instanceof Subtask stored ? stored.getEpicId()
+                                : epicIds.get(random.nextInt(epicIds.size())))
+                        : new Task("Задача " + id, "", id, start, random.nextInt(120));
+                task.setStatus(TaskStatus.values()[random.nextInt(3)]);
+                if (apply(expected, taskManager, task) && !reuse) {
+                    ids.add(id);
+                }
+            } else if (operation < 9 && !ids.isEmpty()) {
+                int id = ids.remove(random.nextInt(ids.size()));
+                expected.deleteById(id);
+                taskManager.deleteById(id);
+            } else if (epicIds.size() > 1) {
+                int id = epicIds.remove(random.nextInt(epicIds.size()));
+                expected.deleteById(id);
+                taskManager.deleteById(id);
+                ids.removeIf(taskId -> expected.getById(taskId) == null);
+            }
+        }
+
+        assertSameTasks(expected.getAll(), taskManager.getAll());
+        assertEquals(ids(expected.getSortedTasksByTime()), ids(taskManager.getSortedTasksByTime()));
+        for (int epicId : epicIds) {
+            assertEquals(ids(expected.getSubTaskByEpic(epicId)), ids(taskManager.getSubTaskByEpic(epicId)));
+        }
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = startTime.plusMinutes(random.nextInt(20_000));
+            LocalDateTime to = from.plusMinutes(random.nextInt(600));
+            assertEquals(ids(expected.getTasksOverlapping(from, to)), ids(taskManager.getTasksOverlapping(from, to)));
+        }
+        for (int i = 0; i < 500; i++) {
+            TaskQuery query = TaskQuery.all();
+            if (random.nextBoolean()) {
+                query.withType(TaskType.values()[random.nextInt(3)]);
+            }
+            if (random.nextBoolean()) {
+                query.withStatus(TaskStatus.values()[random.nextInt(3)]);
+            }
+            if (random.nextInt(3) == 0) {
+                query.withEpicId(epicIds.get(random.nextInt(epicIds.size())));
+            }
+            if (random.nextBoolean()) {
+                LocalDateTime from = startTime.plusMinutes(random.nextInt(20_000));
+                query.withWindow(from, from.plusMinutes(1 + random.nextInt(3_000)));
+            }
+            assertEquals(ids(expected.query(query)), ids(taskManager.query(query)));
+            query.withLimit(1 + random.nextInt(50));
+            List<Task> pages = new ArrayList<>();
+            for (TaskPage page = taskManager.getPage(query); ; page = taskManager.getPage(query)) {
+                pages.addAll(page.getTasks());
+                if (!page.hasNext()) {
+                    break;
+                }
+                query.withCursor(page.getNextCursor());
+            }
+            assertEquals(ids(taskManager.query(query.withCursor(null).withLimit(Integer.MAX_VALUE))), ids(pages));
+        }
+    }
+
+    // Применяет операцию к обоим менеджерам и проверяет, что конфликт расписания найден одинаково.
+    private boolean apply(TaskManager expected, TaskManager actual, Task task) {
+        boolean existed = expected.getById(task.getId()) != null;
+        boolean conflict = false;
+        try {
+            if (existed) {
+                expected.updateTask(task);
+            } else {
+                expected.createTask(task);
+            }
+        } catch (TaskScheduleConflictException e) {
+            conflict = true;
+        }
+        if (conflict) {
+            assertThrows(TaskScheduleConflictException.class, () -> actual.updateTask(task));
+        } else {
+            actual.updateTask(task);
+        }
+        return !conflict;
+    }
+
+    private void assertSameTasks(List<Task> expected, List<Task> actual) {
+        Comparator<Task> byId = Comparator.comparingInt(Task::getId);
+        List<Task> left = expected.stream().sorted(byId).toList();
+        List<Task> right = actual.stream().sorted(byId).toList();
+        assertEquals(left.size(), right.size());
+        for (int i = 0; i < left.size(); i++) {
+            Task a = left.get(i);
+            Task b = right.get(i);
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getType(), b.getType());
+            assertEquals(a.getStatus(), b.getStatus(), "Статус задачи " + a.getId());
+            assertEquals(a.getName(), b.getName());
+            assertEquals(a.getStartTime(), b.getStartTime());
+            assertEquals(a.getDuration(), b.getDuration());
+        }
+    }
+
+    private List<Integer> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    void batchShouldBeWrittenWholeOrNotAtAll() {
+        Epic epic = new Epic("Релиз", "", taskManager.newId());
+        Subtask build = new Subtask("Сборка", "", taskManager.newId(), startTime, 30, epic.getId());
+        Subtask deploy = new Subtask("Выкладка", "", taskManager.newId(), startTime.plusMinutes(30), 30,
+                epic.getId());
+        taskManager.createTasks(List.of(build, epic, deploy));
+        assertEquals(2, taskManager.getSubTaskByEpic(epic.getId()).size());
+
+        Task free = new Task("Свободная", "", taskManager.newId(), startTime.plusHours(2), 30);
+        Task overlapping = new Task("Пересекает", "", taskManager.newId(), startTime.plusMinutes(45), 30);
+        Task missingEpic = new Subtask("Без эпика", "", taskManager.newId(), 9999);
+        assertThrows(TaskScheduleConflictException.class,
+                () -> taskManager.createTasks(List.of(free, overlapping)));
+        assertThrows(NotFoundException.class, () -> taskManager.createTasks(List.of(free, missingEpic)));
+
+        assertEquals(3, taskManager.getAll().size());
+        assertEquals(ids(List.of(build, deploy)), ids(taskManager.getSortedTasksByTime()));
+    }
+
+    @Test
+    void searchShouldMatchInMemoryManager() {
+        TaskManager expected = new InMemoryTaskManager();
+        String[] words = {"отчёт", "Отчеты", "ревью", "релиз", "сборка", "сборки", "тест"};
+        Random random = new Random(23);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int id = taskManager.newId();
+            Task task = new Task(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+                    words[random.nextInt(words.length)], id);
+            apply(expected, taskManager, task);
+            ids.add(id);
+            if (i == 200) {
+                // Индекс строится на середине, остальные изменения он получает по одному.
+                assertEquals(ids(expected.search("отчет*")), ids(taskManager.search("отчет*")));
+            }
+            if (random.nextInt(5) == 0) {
+                int removed = ids.remove(random.nextInt(ids.size()));
+                expected.deleteById(removed);
+                taskManager.deleteById(removed);
+            }
+        }
+        for (String query : List.of("отчет*", "ревью релиз", "сборк* OR тест", "отчёты | релиз ревью")) {
+            assertEquals(ids(expected.search(query)), ids(taskManager.search(query)), query);
+            assertEquals(ids(expected.search(query, ids.get(100), 7)), ids(taskManager.search(query, ids.get(100), 7)));
+        }
+    }
+
+    @Test
+    void freeSlotsShouldMatchInMemoryManager() {
+        TaskManager expected = new InMemoryTaskManager();
+        Random random = new Random(24);
+        for (int i = 0; i < 600; i++) {
+            int id = taskManager.newId();
+            apply(expected, taskManager, new Task("Задача " + id, "", id,
+                    startTime.plusMinutes(random.nextInt(30_000)), random.nextInt(90)));
+        }
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = startTime.plusMinutes(random.nextInt(32_000) - 1_000);
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(5_000));
+            Duration duration = Duration.ofMinutes(1 + random.nextInt(120));
+            int limit = 1 + random.nextInt(20);
+            assertEquals(expected.findFreeSlots(duration, from, to, limit),
+                    taskManager.findFreeSlots(duration, from, to, limit));
+        }
+    }
+}
@@ -0,0 +1,284 @@
+import exception.TaskScheduleConflictException;
+import manager.InMemoryTaskManager;
+import manager.Managers;
+import manager.TaskManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest {
+    private static final int THREADS = 8;
+
+    private TaskManager taskManager;
+    private LocalDateTime startTime;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = Managers.getConcurrent();
+        startTime = LocalDateTime.of(2025, 5, 6, 10, 0);
+    }
+
+    @Test
+    void newIdsShouldBeUniqueAcrossThreads() throws Exception {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        Set<Integer> managerIds = ConcurrentHashMap.newKeySet();
+        runInParallel(thread -> {
+            for (int i = 0; i < 10_000; i++) {
+                ids.add(InMemoryTaskManager.getNewId());
+                managerIds.add(taskManager.newId());
+            }
+        });
+
+        assertEquals(THREADS * 10_000, ids.size(), "Выданы повторяющиеся id");
+        assertEquals(THREADS * 10_000, managerIds.size(), "Менеджер выдал повторяющиеся id");
+    }
+
+    @Test
+    void parallelWritesShouldNotLoseSubtasks() throws Exception {
+        int perThread = 500;
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Epic epic = new Epic("Эпик " + i, "", InMemoryTaskManager.getNewId());
+            taskManager.createTask(epic);
+            epics.add(epic);
+        }
+
+        runInParallel(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                Epic epic = epics.get((thread + i) % epics.size());
+                Subtask subtask = new Subtask("Подзадача", "", InMemoryTaskManager.getNewId(), epic.getId());
+                taskManager.createTask(subtask);
+                subtask.setStatus(TaskStatus.DONE);
+                taskManager.updateTask(subtask);
+                taskManager.createTask(new Task("Задача", "", InMemoryTaskManager.getNewId()));
+            }
+        });
+
+        assertEquals(THREADS * perThread, taskManager.getAllSubTasks().size(), "Потеряны подзадачи");
+        assertEquals(THREADS * perThread, taskManager.getAllTasks().size(), "Потеряны задачи");
+        int linked = 0;
+        for (Epic epic : epics) {
+            linked += epic.getSubTasks().size();
+            assertEquals(TaskStatus.DONE, epic.getStatus(), "Статус эпика не пересчитан");
+        }
+        assertEquals(THREADS * perThread, linked, "Потеряны подзадачи в эпиках");
+    }
+
+    @Test
+    void parallelDeletesShouldKeepEpicsConsistent() throws Exception {
+        Epic epic = new Epic("Эпик", "", InMemoryTaskManager.getNewId());
+        taskManager.createTask(epic);
+        List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < THREADS * 200; i++) {
+            Subtask subtask = new Subtask("Подзадача", "", InMemoryTaskManager.getNewId(), epic.getId());
+            taskManager.createTask(subtask);
+            ids.add(subtask.getId());
+        }
+
+        runInParallel(thread -> {
+            for (int i = thread; i < ids.size(); i += THREADS) {
+                if (i % 2 == 0) {
+                    taskManager.deleteById(ids.get(i));
+                } else {
+                    taskManager.getById(ids.get(i));
+                }
+            }
+        });
+
+        assertEquals(ids.size() / 2, taskManager.getAllSubTasks().size());
+        assertEquals(ids.size() / 2, epic.getSubTasks().size());
+        assertEquals(ids.size() / 2, taskManager.getHistoryManager().getHistory().size());
+    }
+
+    @Test
+    void competingWritersShouldNotDoubleBookSlots() throws Exception {
+        assertNoDoubleBooking(taskManager);
+    }
+
+    @Test
+    void snapshotManagerShouldNotDoubleBookSlots() throws Exception {
+        assertNoDoubleBooking(Managers.getSnapshotting());
+    }
+
+    @Test
+    void snapshotReadsShouldNotChangeAfterLaterWrites() {
+        TaskManager manager = Managers.getSnapshotting();
+        Epic epic = new Epic("Эпик", "", InMemoryTaskManager.getNewId());
+        manager.createTask(epic);
+        manager.createTask(new Subtask("Первая", "", InMemoryTaskManager.getNewId(), startTime, 30, epic.getId()));
+
+        List<Task> epicsBefore = manager.getAllEpics();
+        List<Task> sortedBefore = manager.getSortedTasksByTime();
+        Subtask second = new Subtask("Вторая", "", InMemoryTaskManager.getNewId(),
+                startTime.plusHours(1), 30, epic.getId());
+        second.setStatus(TaskStatus.DONE);
+        manager.createTask(second);
+
+        Epic seen = (Epic) epicsBefore.get(0);
+        assertEquals(1, seen.getSubTasks().size(), "Прочитанный снимок изменился");
+        assertEquals(TaskStatus.NEW, seen.getStatus());
+        assertEquals(1, sortedBefore.size());
+        Epic current = (Epic) manager.getById(epic.getId());
+        assertEquals(2, current.getSubTasks().size());
+        assertEquals(TaskStatus.IN_PROGRESS, current.getStatus());
+        assertEquals(List.of(second), manager.getTasksOverlapping(startTime.plusMinutes(45), startTime.plusHours(2)));
+    }
+
+    @Test
+    void snapshotReadersShouldNeverSeeHalfDoneWrites() throws Exception {
+        TaskManager manager = Managers.getSnapshotting();
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Epic epic = new Epic("Эпик " + i, "", InMemoryTaskManager.getNewId());
+            manager.createTask(epic);
+            epics.add(epic);
+        }
+        AtomicInteger writersLeft = new AtomicInteger(THREADS / 2);
+        AtomicInteger checkedReads = new AtomicInteger();
+
+        runInParallel(thread -> {
+            if (thread % 2 == 0) {
+                try {
+                    Epic epic = epics.get(thread / 2);
+                    for (int i = 0; i < 1_000; i++) {
+                        Subtask subtask = new Subtask("Подзадача", "", InMemoryTaskManager.getNewId(), epic.getId());
+                        manager.createTask(subtask);
+                        if (i % 3 == 0) {
+                            manager.deleteById(subtask.getId());
+                        }
+                    }
+                } finally {
+                    writersLeft.decrementAndGet();
+                }
+                return;
+            }
+            do {
+                Map<Integer, Task> byId = new HashMap<>();
+                manager.getAll().forEach(task -> byId.put(task.getId(), task));
+                for (Task task : byId.values()) {
+                    if (task instanceof Epic epic) {
+                        epic.getSubTasks().forEach(subtask -> assertTrue(byId.containsKey(subtask.getId()),
+                                "Эпик ссылается на удалённую подзадачу"));
+                    } else if (task instanceof Subtask subtask) {
+                        Epic epic = (Epic) byId.get(subtask.getEpicId());
+                        assertTrue(epic.containsSubTask(subtask.getId()), "Подзадача не попала в эпик");
+                    }
+                }
+                checkedReads.incrementAndGet();
+            } while (writersLeft.get() > 0);
+        });
+
+        assertTrue(checkedReads.get() > 0);
+        assertEquals(4 * 666, manager.getAllSubTasks().size());
+    }
+
+    private void assertNoDoubleBooking(TaskManager taskManager) throws Exception {
+        int slots = 200;
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runInParallel(thread -> {
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < slots; i++) {
+                order.add(i);
+            }
+            Collections.shuffle(order, new Random(thread));
+            for (int slot : order) {
+                // Задачи сдвинуты на разное число минут, чтобы пересекались, но не совпадали.
+                Task task = new Task("Слот " + slot, "", InMemoryTaskManager.getNewId(),
+                        startTime.plusHours(slot).plusMinutes(thread), 30);
+                try {
+                    taskManager.createTask(task);
+                    booked.incrementAndGet();
+                } catch (TaskScheduleConflictException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(slots, booked.get(), "Каждый час должен быть занят ровно один раз");
+        assertEquals(slots * (THREADS - 1), rejected.get());
+        List<Task> sorted = taskManager.getSortedTasksByTime();
+        assertEquals(slots, sorted.size());
+        for (int i = 1; i < sorted.size(); i++) {
+            assertFalse(sorted.get(i).getStartTime().isBefore(sorted.get(i - 1).getEndTime()),
+                    "Задачи в расписании пересекаются");
+        }
+    }
+
+    @Test
+    void reschedulingShouldNotLetTwoTasksShareSlot() throws Exception {
+        List<Task> created = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Task task = new Task("Задача " + i, "", InMemoryTaskManager.getNewId(), startTime.plusDays(i), 60);
+            taskManager.createTask(task);
+            created.add(task);
+        }
+
+        runInParallel(thread -> {
+            Random random = new Random(thread);
+            Task own = created.get(thread);
+            for (int i = 0; i < 2_000; i++) {
+                Task moved = new Task(own.getName(), "", own.getId(), startTime.plusHours(random.nextInt(24)), 60);
+                try {
+                    taskManager.updateTask(moved);
+                } catch (TaskScheduleConflictException ignored) {
+                    // слот занят другим потоком
+                }
+            }
+        });
+
+        List<Task> sorted = taskManager.getSortedTasksByTime();
+        assertEquals(THREADS, sorted.size());
+        for (int i = 1; i < sorted.size(); i++) {
+            assertFalse(sorted.get(i).getStartTime().isBefore(sorted.get(i - 1).getEndTime()),
+                    "Задачи в расписании пересекаются");
+        }
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runInParallel(Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int number = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(number);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import exception.ManagerSaveException;
+import manager.CsvTaskReader;
+import manager.CsvTaskWriter;
+import manager.FileBackedTaskManager;
+import manager.InMemoryTaskManager;
+import manager.StringPool;
+import manager.StringPoolStats;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvTaskCodecTest {
+
+    private Task roundTrip(Task task) {
+        return CsvTaskReader.parse(CsvTaskWriter.format(task));
+    }
+
+    @Test
+    public void shouldRoundTripPlainTask() {
+        Task task = new Task("Сходить в магазин", "Купить продуктов на неделю", 1,
+                LocalDateTime.of(2025, 5, 6, 10, 0), 20);
+        task.setStatus(TaskStatus.IN_PROGRESS);
+
+        Task restored = roundTrip(task);
+
+        assertEquals(task.getId(), restored.getId());
+        assertEquals(task.getName(), restored.getName());
+        assertEquals(task.getDescription(), restored.getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, restored.getStatus());
+        assertEquals(task.getStartTime(), restored.getStartTime());
+        assertEquals(Duration.ofMinutes(20), restored.getDuration());
+    }
+
+    @Test
+    public void shouldQuoteSeparatorsQuotesAndLineBreaks() {
+        Task task = new Task("Купить: хлеб, молоко", "Сказать \"спасибо\"\nи уйти,\r\nне оглядываясь", 2);
+
+        String row = CsvTaskWriter.format(task);
+        Task restored = CsvTaskReader.parse(row);
+
+        assertTrue(row.contains("\"Купить: хлеб, молоко\""));
+        assertEquals(task.getName(), restored.getName());
+        assertEquals(task.getDescription(), restored.getDescription());
+    }
+
+    @Test
+    public void shouldRoundTripSubtaskWithSecondsAndNanos() {
+        LocalDateTime start = LocalDateTime.of(2025, 5, 6, 10, 0, 15, 120_000_000);
+        Subtask subtask = new Subtask("Подзадача", "", 3, start, 45, 7);
+
+        Subtask restored = (Subtask) roundTrip(subtask);
+
+        assertEquals(7, restored.getEpicId());
+        assertEquals(start, restored.getStartTime());
+        assertEquals("", restored.getDescription());
+    }
+
+    @Test
+    public void shouldRoundTripEpicAndUndefinedTime() {
+        Task epic = roundTrip(new Epic("Эпик", "Описание", 4));
+        Task unscheduled = roundTrip(new Task("Без времени", "", 5));
+
+        assertTrue(epic instanceof Epic, "Ожидался эпик");
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+        assertEquals(InMemoryTaskManager.UNDEFINED_TIME, unscheduled.getStartTime());
+    }
+
+    @Test
+    public void shouldReadLegacyRowsWrittenBySplitFormat() {
+        Task task = Task.fromString("6,SUBTASK,Выполнить первый урок,NEW,Прочитать теорию и выполнить практику,3,"
+                + "2025-05-06T15:00,80");
+
+        assertEquals(3, ((Subtask) task).getEpicId());
+        assertEquals(LocalDateTime.of(2025, 5, 6, 15, 0), task.getStartTime());
+        assertEquals(Duration.ofMinutes(80), task.getDuration());
+    }
+
+    @Test
+    public void shouldRejectMalformedRows() {
+        assertThrows(ManagerSaveException.class, () -> CsvTaskReader.parse("x,TASK,a,NEW,b,,,"));
+        assertThrows(ManagerSaveException.class, () -> CsvTaskReader.parse("1,TASK,\"a,NEW,b,,,"));
+        assertThrows(ManagerSaveException.class, () -> CsvTaskReader.parse("1,TASK,a,NEW,b,,"));
+    }
+
+    @Test
+    public void shouldRejectNumbersOutOfRange() {
+        assertThrows(ManagerSaveException.class, () -> CsvTaskReader.parse("4294967297,TASK,a,NEW,b,,,"));
+        assertThrows(ManagerSaveException.class, () -> CsvTaskReader.parse("2,SUBTASK,a,NEW,b,-2147483649,,"));
+        assertThrows(ManagerSaveException.class, () -> CsvTaskReader.parse("3,TASK,a,NEW,b,,,99999999999999999999"));
+        assertThrows(ManagerSaveException.class,
+                () -> CsvTaskReader.parse("4,TASK,a,NEW,b,,2025-05-06T10:00,9223372036854775807"));
+        assertThrows(ManagerSaveException.class,
+                () -> CsvTaskReader.parse("5,TASK,a,NEW,b,,4294969321-05-06T10:00,30"));
+        assertEquals(Integer.MAX_VALUE, CsvTaskReader.parse("2147483647,TASK,a,NEW,b,,,").getId());
+    }
+
+    @Test
+    public void writerShouldStreamRecordsThatReaderCanSplitBack() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvTaskWriter writer = new CsvTaskWriter(out);
+        writer.writeHeader();
+        writer.write(new Task("Первая", "строка\nс переносом", 1));
+        writer.write(new Task("Вторая", "\"в кавычках\"", 2));
+
+        char[] data = out.toString().toCharArray();
+        CsvTaskReader reader = new CsvTaskReader(data, 0, data.length);
+        reader.skipLine();
+
+        assertEquals("строка\nс переносом", reader.next().getDescription());
+        assertEquals("\"в кавычках\"", reader.next().getDescription());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void loaderShouldNotSplitRecordsOnQuotedLineBreaks() throws IOException {
+        File file = File.createTempFile("tasks", ".csv");
+        try {
+            StringBuilder csv = new StringBuilder(CsvTaskWriter.HEADER).append('\n');
+            int rows = 30_000;
+            for (int i = 1; i <= rows; i++) {
+                Task task = new Task("Задача " + i, "Первая строка,\nвторая \"строка\"\n" + i, i);
+                CsvTaskWriter.appendRecord(csv, task);
+                csv.append('\n');
+            }
+            Files.writeString(file.toPath(), csv);
+
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+
+            assertEquals(rows, loaded.getAll().size());
+            assertEquals("Первая строка,\nвторая \"строка\"\n" + rows, loaded.getById(rows).getDescription());
+        } finally {
+            FileBackedTaskManagerTest.deleteWithSidecars(file);
+        }
+    }
+
+    @Test
+    public void readerShouldShareRepeatedTextThroughStringPool() {
+        StringPoolStats before = StringPool.getDefault().getStats();
+
+        Task first = CsvTaskReader.parse("1,TASK,Спринт,NEW,Прочитать теорию и выполнить практику,,,");
+        Task second = CsvTaskReader.parse("2,TASK,Спринт,DONE,Прочитать теорию и выполнить практику,,,");
+        Task quoted = CsvTaskReader.parse("3,TASK,\"Спринт\",NEW,\"Прочитать теорию и выполнить практику\",,,");
+
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.getName(), quoted.getName());
+        assertSame(first.getDescription(), quoted.getDescription());
+
+        StringPoolStats after = StringPool.getDefault().getStats();
+        assertTrue(after.getHits() - before.getHits() >= 4);
+        assertTrue(after.getBytesSaved() > before.getBytesSaved());
+    }
+
+    @Test
+    public void stringPoolShouldStayBoundedAndKeepOnlyRecentCollisions() {
+        StringPool pool = new StringPool(4);
+        String first = pool.intern(new String("Прочитать теорию"));
+
+        for (int i = 0; i < 1_000; i++) {
+            pool.intern("Задача " + i);
+        }
+
+        assertEquals(1_001, pool.getStats().getMisses());
+        assertFalse(first == pool.intern(new String("Прочитать теорию")));
+        assertEquals(0.0, pool.getStats().getHitRate());
+        String again = pool.intern(new String("Задача 999"));
+        assertEquals("Задача 999", again);
+    }
+}
@@ -1,19 +1,33 @@
+import exception.ManagerSaveException;
+import manager.CheckpointStats;
+import manager.DurabilityPolicy;
 import manager.FileBackedTaskManager;
 import manager.InMemoryTaskManager;
+import manager.SnapshotFormat;
+import manager.StorageOptions;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 import task.Epic;
 import task.Subtask;
 import task.Task;
+import task.TaskStatus;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class FileBackedTaskManagerTest {
     private FileBackedTaskManager taskManager;
     private Task task1;
     private Epic epic2;
     private Subtask subtask3;
+    private final List<File> tempFiles = new ArrayList<>();
 
     @BeforeEach
     public void setup() {
@@ -24,6 +38,30 @@ public class FileBackedTaskManagerTest {
         subtask3 = createSubtask("Subtask3", "3", epic2.getId());
     }
 
+    @AfterEach
+    public void deleteTempFiles() {
+        for (File file : tempFiles) {
+            deleteWithSidecars(file);
+        }
+    }
+
+    // Временный снимок; после теста удаляется вместе с журналами и файлом аренды id.
+    private File createTempFile(String suffix) throws IOException {
+        File file = File.createTempFile("tasks", suffix);
+        tempFiles.add(file);
+        return file;
+    }
+
+    static void deleteWithSidecars(File file) {
+        File[] related = file.getAbsoluteFile().getParentFile()
+                .listFiles((dir, name) -> name.startsWith(file.getName()));
+        if (related != null) {
+            for (File sidecar : related) {
+                sidecar.delete();
+            }
+        }
+    }
+
     private Task createTask(String title, String description) {
         return new Task(title, description, InMemoryTaskManager.getNewId());
     }
@@ -54,4 +92,362 @@ public class FileBackedTaskManagerTest {
         assertEquals(epic2, loadedManager.getById(epic2.getId()));
         assertEquals(subtask3, loadedManager.getById(subtask3.getId()));
     }
+
+    @Test
+    public void journaledManager_ShouldAppendRecordsInsteadOfRewritingSnapshot() throws IOException {
+        File file = createTempFile(".csv");
+        file.delete();
+        FileBackedTaskManager journaled = new FileBackedTaskManager(file.getPath(), StorageOptions.journaled());
+
+        journaled.createTask(task1);
+        journaled.createTask(epic2);
+        journaled.createTask(subtask3);
+        journaled.deleteById(task1.getId());
+
+        assertFalse(file.exists(), "Снимок не должен переписываться при каждом изменении");
+        List<String> records = Files.readAllLines(Path.of(journaled.getJournalPath()));
+        // Подзадача и пересчитанный эпик записаны одним пакетом между BEGIN и COMMIT.
+        assertEquals(7, records.size());
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, StorageOptions.journaled());
+
+        assertNull(loaded.getById(task1.getId()));
+        assertEquals(epic2, loaded.getById(epic2.getId()));
+        assertEquals(subtask3, loaded.getById(subtask3.getId()));
+        assertEquals(1, ((Epic) loaded.getById(epic2.getId())).getSubTasks().size());
+    }
+
+    @Test
+    public void journaledManager_ShouldCompactJournalIntoSnapshot() throws Exception {
+        File file = createTempFile(".csv");
+        StorageOptions options = StorageOptions.journaled().withCompactionThreshold(3);
+        FileBackedTaskManager journaled = new FileBackedTaskManager(file.getPath(), options);
+
+        journaled.createTask(task1);
+        journaled.createTask(epic2);
+        journaled.createTask(subtask3);
+
+        awaitCheckpoints(journaled, 1);
+        assertFalse(new File(journaled.getJournalPath()).exists(), "Журнал должен быть очищен после компактификации");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, options);
+        assertEquals(3, loaded.getAll().size());
+    }
+
+    @Test
+    public void checkpoint_ShouldKeepWritesMadeDuringCheckpointInJournal() throws Exception {
+        File file = createTempFile(".csv");
+        StorageOptions options = StorageOptions.journaled().withCheckpointInterval(20);
+
+        try (FileBackedTaskManager journaled = new FileBackedTaskManager(file.getPath(), options)) {
+            journaled.createTask(task1);
+            journaled.createTask(epic2);
+            awaitCheckpoints(journaled, 1);
+
+            journaled.createTask(subtask3);
+            journaled.deleteById(task1.getId());
+            journaled.flush();
+
+            CheckpointStats stats = journaled.getCheckpointStats();
+            assertNotNull(stats.getLastCheckpointTime());
+            assertTrue(stats.getLastCheckpointVersion() >= 2);
+            assertTrue(stats.getLastSnapshotBytes() > 0);
+        }
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, options);
+        assertNull(loaded.getById(task1.getId()));
+        assertEquals(subtask3, loaded.getById(subtask3.getId()));
+        assertEquals(1, ((Epic) loaded.getById(epic2.getId())).getSubTasks().size());
+        loaded.close();
+    }
+
+    @Test
+    public void journal_ShouldReplayRecordsWithLineBreaksInsideFields() throws IOException {
+        File file = createTempFile(".csv");
+        StorageOptions options = StorageOptions.journaled();
+        FileBackedTaskManager journaled = new FileBackedTaskManager(file.getPath(), options);
+
+        Task multiline = new Task("Список, покупок", "Хлеб\nМолоко \"3,2%\"\r\nСыр", InMemoryTaskManager.getNewId());
+        journaled.createTask(multiline);
+        journaled.createTask(task1);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, options);
+        Task restored = loaded.getById(multiline.getId());
+        assertEquals(multiline.getName(), restored.getName());
+        assertEquals(multiline.getDescription(), restored.getDescription());
+        assertEquals(2, loaded.getAll().size());
+        journaled.close();
+        loaded.close();
+    }
+
+    @Test
+    public void journal_ShouldDiscardBatchCutOffBeforeCommit() throws IOException {
+        File file = createTempFile(".csv");
+        file.delete();
+        StorageOptions options = StorageOptions.journaled();
+        FileBackedTaskManager journaled = new FileBackedTaskManager(file.getPath(), options);
+        journaled.createTask(task1);
+        Task second = createTask("Task2", "2");
+        Task third = createTask("Task3", "3");
+        journaled.createTasks(List.of(second, third));
+
+        // Обрываем журнал посреди пакета: BEGIN и первая запись есть, вторая записана наполовину.
+        Path journal = Path.of(journaled.getJournalPath());
+        List<String> records = Files.readAllLines(journal);
+        assertEquals(List.of("BEGIN", "COMMIT"), List.of(records.get(1), records.get(4)));
+        Files.writeString(journal, String.join("\n", records.subList(0, 3)) + "\n"
+                + records.get(3).substring(0, 10));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, options);
+        assertEquals(List.of(task1), loaded.getAll(), "Оборванный пакет не должен применяться");
+
+        // Новые записи после оборванного пакета восстанавливаются.
+        Files.writeString(journal, String.join("\n", records.subList(0, 3)) + "\n"
+                + String.join("\n", records.subList(1, 5)) + "\n");
+        loaded = FileBackedTaskManager.loadFromFile(file, options);
+        assertEquals(3, loaded.getAll().size());
+        journaled.close();
+    }
+
+    private void awaitCheckpoints(FileBackedTaskManager manager, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (manager.getCheckpointStats().getCheckpointCount() < count) {
+            assertTrue(System.currentTimeMillis() < deadline, "Контрольная точка не была записана");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void writeBehindManager_ShouldBatchMutationsUntilFlush() throws IOException {
+        File file = createTempFile(".csv");
+        StorageOptions options = StorageOptions.journaled()
+                .withDurability(DurabilityPolicy.everyOps(100));
+
+        try (FileBackedTaskManager writeBehind = new FileBackedTaskManager(file.getPath(), options)) {
+            writeBehind.createTask(task1);
+            writeBehind.createTask(epic2);
+
+            assertFalse(new File(writeBehind.getJournalPath()).exists(), "Изменения должны копиться в памяти");
+            assertEquals(2, writeBehind.flush());
+            assertEquals(2, Files.readAllLines(Path.of(writeBehind.getJournalPath())).size());
+        }
+    }
+
+    @Test
+    public void writeBehindManager_FailedFlushShouldKeepRecordsForNextFlush() throws IOException {
+        File file = createTempFile(".csv");
+        StorageOptions options = StorageOptions.journaled().withHistoryPersistence(true)
+                .withDurability(DurabilityPolicy.everyOps(100));
+
+        try (FileBackedTaskManager writeBehind = new FileBackedTaskManager(file.getPath(), options)) {
+            writeBehind.createTask(task1);
+            writeBehind.createTask(epic2);
+            writeBehind.getById(task1.getId());
+            // Каталог на месте журнала истории: первая запись падает раньше журнала задач.
+            File history = new File(file.getPath() + ".history");
+            assertTrue(history.mkdir());
+
+            assertThrows(ManagerSaveException.class, writeBehind::flush);
+            assertEquals(0, writeBehind.getDurableVersion());
+
+            assertTrue(history.delete());
+            assertEquals(2, writeBehind.flush());
+            assertEquals(2, Files.readAllLines(Path.of(writeBehind.getJournalPath())).size());
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, options);
+            assertEquals(2, loaded.getAll().size());
+            assertEquals(List.of(task1), loaded.getHistoryManager().getHistory());
+        }
+    }
+
+    @Test
+    public void writeBehindManager_AwaitDurableShouldWaitForBackgroundFlush() throws Exception {
+        File file = createTempFile(".csv");
+        StorageOptions options = StorageOptions.defaults()
+                .withDurability(DurabilityPolicy.everyMillis(10_000).withFsync(true));
+
+        try (FileBackedTaskManager writeBehind = new FileBackedTaskManager(file.getPath(), options)) {
+            writeBehind.createTask(task1);
+            writeBehind.createTask(epic2);
+            writeBehind.createTask(subtask3);
+
+            long version = writeBehind.getVersion();
+            writeBehind.awaitDurable(version);
+
+            assertTrue(writeBehind.getDurableVersion() >= version);
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+            assertEquals(3, loaded.getAll().size());
+        }
+    }
+
+    @Test
+    public void getById_ShouldNotRewriteSnapshot() throws IOException {
+        File file = createTempFile(".csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getPath());
+        manager.createTask(epic2);
+        manager.createTask(subtask3);
+        assertTrue(file.delete());
+
+        manager.getById(epic2.getId());
+        manager.getSubTaskByEpic(epic2.getId());
+
+        assertFalse(file.exists(), "Чтение не должно приводить к записи на диск");
+    }
+
+    @Test
+    public void historyPersistence_ShouldRestoreViewOrderFromHistoryJournal() throws IOException {
+        File file = createTempFile(".csv");
+        StorageOptions options = StorageOptions.defaults().withHistoryPersistence(true);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getPath(), options);
+        manager.createTask(task1);
+        manager.createTask(epic2);
+        long snapshotModified = file.lastModified();
+        long version = manager.getVersion();
+
+        manager.getById(epic2.getId());
+        manager.getById(task1.getId());
+
+        assertEquals(version, manager.getVersion(), "Просмотр не должен менять версию задач");
+        assertEquals(snapshotModified, file.lastModified());
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, options);
+        assertEquals(List.of(epic2, task1), loaded.getHistoryManager().getHistory());
+    }
+
+    @Test
+    public void binarySnapshot_ShouldRoundTripAllFields() throws IOException {
+        File file = createTempFile(".bin");
+        StorageOptions options = StorageOptions.defaults().withSnapshotFormat(SnapshotFormat.BINARY);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getPath(), options);
+        LocalDateTime start = LocalDateTime.of(2025, 5, 6, 10, 0);
+        Subtask scheduled = new Subtask("Subtask4", "3", InMemoryTaskManager.getNewId(), start, 45,
+                epic2.getId());
+        scheduled.setStatus(TaskStatus.DONE);
+
+        manager.createTask(task1);
+        manager.createTask(epic2);
+        manager.createTask(subtask3);
+        manager.createTask(scheduled);
+
+        byte[] header = Arrays.copyOf(Files.readAllBytes(file.toPath()), 3);
+        assertEquals("JKB", new String(header));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, options);
+        Subtask restored = (Subtask) loaded.getById(scheduled.getId());
+
+        assertEquals(4, loaded.getAll().size());
+        assertEquals(scheduled.getName(), restored.getName());
+        assertEquals(scheduled.getDescription(), restored.getDescription());
+        assertEquals(TaskStatus.DONE, restored.getStatus());
+        assertEquals(epic2.getId(), restored.getEpicId());
+        assertEquals(start, restored.getStartTime());
+        assertEquals(Duration.ofMinutes(45), restored.getDuration());
+        assertEquals(TaskStatus.IN_PROGRESS, loaded.getById(epic2.getId()).getStatus());
+        assertEquals(2, ((Epic) loaded.getById(epic2.getId())).getSubTasks().size());
+    }
+
+    @Test
+    public void loadFromFile_ShouldParseLargeFileSplitIntoChunks() throws IOException {
+        File file = createTempFile(".csv");
+        int epicId = 1_000_000;
+        int rows = 40_000;
+        StringBuilder csv = new StringBuilder("id,type,name,status,description,epic,start_time,duration\n");
+        csv.append(epicId).append(",EPIC,Эпик,NEW,Описание эпика,,,0\n");
+        for (int i = 1; i <= rows; i++) {
+            csv.append(epicId + i).append(",SUBTASK,Подзадача ").append(i)
+                    .append(",DONE,Прочитать теорию и выполнить практику,").append(epicId).append(",,0\r\n");
+        }
+        Files.writeString(file.toPath(), csv);
+        assertTrue(file.length() > 2 * 1024 * 1024, "Файл должен разбиваться на несколько кусков");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+
+        assertEquals(rows + 1, loaded.getAll().size());
+        assertEquals(rows, ((Epic) loaded.getById(epicId)).getSubTasks().size());
+        assertEquals("Подзадача " + rows, loaded.getById(epicId + rows).getName());
+        assertTrue(loaded.newId() > epicId + rows, "Счётчик id должен быть восстановлен");
+    }
+
+    @Test
+    public void newId_ShouldLeaseBlocksPerManagerAndPersistHighWaterMark() throws IOException {
+        File file = createTempFile(".csv");
+        file.delete();
+        StorageOptions options = StorageOptions.defaults().withIdBlockSize(16);
+        FileBackedTaskManager first = new FileBackedTaskManager(file.getPath(), options);
+        InMemoryTaskManager other = new InMemoryTaskManager();
+
+        int leased = first.newId();
+        other.setTaskId(1_000);
+        int next = first.newId();
+        first.setTaskId(500);
+
+        assertEquals(leased + 1, next, "Id внутри блока выдаются подряд");
+        assertTrue(other.newId() >= 1_000);
+        assertTrue(new File(file.getPath() + ".ids").exists(), "Граница аренды должна быть сохранена");
+
+        // Новый менеджер того же хранилища (например, после перезапуска) не получит уже арендованные id.
+        FileBackedTaskManager restarted = new FileBackedTaskManager(file.getPath(), options);
+        assertTrue(restarted.newId() >= leased + 16, "Арендованный блок не должен выдаваться повторно");
+        assertTrue(first.newId() < 500, "Блок, уже арендованный потоком, дорабатывается до конца");
+        new File(file.getPath() + ".ids").delete();
+    }
+
+    @Test
+    public void lazyLoading_ShouldDecodeTasksOnDemandAndKeepChangesAcrossCheckpoints() throws Exception {
+        File file = createTempFile(".csv");
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 9, 0);
+        Subtask scheduled = new Subtask("Подзадача, со временем", "Описание\nв две строки",
+                InMemoryTaskManager.getNewId(), start, 30, epic2.getId());
+        FileBackedTaskManager eager = new FileBackedTaskManager(file.getPath());
+        eager.createTask(task1);
+        eager.createTask(epic2);
+        eager.createTask(subtask3);
+        eager.createTask(scheduled);
+
+        StorageOptions options = StorageOptions.journaled().withLazyLoading(true).withCacheSize(1);
+        FileBackedTaskManager lazy = FileBackedTaskManager.loadFromFile(file, options);
+
+        assertEquals(4, lazy.getAll().size());
+        assertEquals(List.of(scheduled), lazy.getSortedTasksByTime());
+        Subtask restored = (Subtask) lazy.getById(scheduled.getId());
+        assertEquals(scheduled.getDescription(), restored.getDescription());
+        assertEquals(start, restored.getStartTime());
+        assertEquals(2, ((Epic) lazy.getById(epic2.getId())).getSubTasks().size());
+
+        Subtask done = new Subtask(subtask3.getName(), subtask3.getDescription(), subtask3.getId(),
+                epic2.getId(), TaskStatus.DONE);
+        lazy.updateTask(done);
+        lazy.deleteById(task1.getId());
+        lazy.getById(scheduled.getId());
+        assertEquals(TaskStatus.IN_PROGRESS, lazy.getById(epic2.getId()).getStatus(), "Эпик пересчитан после изменения");
+
+        Subtask second = new Subtask("Ещё подзадача", "", InMemoryTaskManager.getNewId(), epic2.getId(),
+                TaskStatus.IN_PROGRESS);
+        lazy.createTask(second);
+        lazy.checkpoint();
+        lazy.getById(scheduled.getId());
+
+        assertNull(lazy.getById(task1.getId()));
+        assertEquals(TaskStatus.IN_PROGRESS, lazy.getById(epic2.getId()).getStatus());
+        assertEquals(3, ((Epic) lazy.getById(epic2.getId())).getSubTasks().size());
+        lazy.close();
+
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(file, options);
+        assertEquals(4, reloaded.getAll().size());
+        assertEquals(TaskStatus.DONE, reloaded.getById(subtask3.getId()).getStatus());
+        assertEquals(3, reloaded.getSubTaskByEpic(epic2.getId()).size());
+        assertEquals(List.of(scheduled), reloaded.getSortedTasksByTime());
+        reloaded.close();
+    }
+
+    @Test
+    public void createTasks_ShouldWriteBatchAsSingleVersion() {
+        long version = taskManager.getVersion();
+
+        taskManager.createTasks(List.of(task1, subtask3, epic2));
+
+        assertEquals(version + 1, taskManager.getVersion(), "Пакет должен менять версию один раз");
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(new File(taskManager.getSavePath()));
+        assertEquals(List.of(subtask3), loaded.getSubTaskByEpic(epic2.getId()));
+        assertEquals(task1, loaded.getById(task1.getId()));
+    }
 }
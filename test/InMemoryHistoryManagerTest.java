@@ -2,6 +2,7 @@ import manager.HistoryManager;
 import manager.InMemoryTaskManager;
 import manager.Managers;
 import manager.TaskManager;
+import manager.TaskPage;
 
 import task.Epic;
 import task.Subtask;
@@ -112,6 +113,35 @@ public class InMemoryHistoryManagerTest {
         assertEquals(11, history.size(), "История должна содержать 11 задач");
     }
 
+    @Test
+    void getHistoryPage_ShouldContinueAfterCursorTask() {
+        List.of(task2, task5, subtask4, subtask1, epic1).forEach(task -> taskManager.getById(task.getId()));
+
+        TaskPage first = historyManager.getHistoryPage(null, 2);
+        TaskPage second = historyManager.getHistoryPage(first.getNextCursor(), 2);
+        TaskPage third = historyManager.getHistoryPage(second.getNextCursor(), 2);
+
+        assertEquals(List.of(task2, task5), first.getTasks());
+        assertEquals(List.of(subtask4, subtask1), second.getTasks());
+        assertEquals(List.of(epic1), third.getTasks());
+        assertFalse(third.hasNext(), "Последняя страница не должна иметь курсора");
+        assertThrows(IllegalArgumentException.class, () -> historyManager.getHistoryPage("мусор", 2));
+    }
+
+    @Test
+    void getHistoryPage_ShouldNotSkipTasksWhenCursorTaskIsViewedAgain() {
+        List.of(task2, task5, subtask4, subtask1).forEach(task -> taskManager.getById(task.getId()));
+        TaskPage first = historyManager.getHistoryPage(null, 2);
+
+        taskManager.getById(task5.getId());
+        TaskPage second = historyManager.getHistoryPage(first.getNextCursor(), 2);
+        TaskPage third = historyManager.getHistoryPage(second.getNextCursor(), 2);
+
+        assertEquals(List.of(task2, task5), first.getTasks());
+        assertEquals(List.of(subtask4, subtask1), second.getTasks());
+        assertEquals(List.of(task5), third.getTasks(), "Повторный просмотр должен оказаться в конце истории");
+    }
+
     @Test
     void getHistory_ShouldMoveRevisitedTaskToEnd() {
         taskManager.getById(task1.getId());
@@ -0,0 +1,82 @@
+import manager.IntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntHashMapTest {
+
+    @Test
+    public void shouldBehaveLikeHashMapUnderRandomPutsAndRemoves() {
+        IntHashMap<String> map = new IntHashMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(17);
+
+        for (int i = 0; i < 50_000; i++) {
+            // Узкий диапазон ключей даёт длинные цепочки и частые сдвиги при удалении.
+            int key = random.nextBoolean() ? random.nextInt(512) : random.nextInt(512) << 16;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        for (int key = 0; key < 512; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key << 16), map.containsKey(key << 16));
+        }
+    }
+
+    @Test
+    public void iteratorRemoveShouldVisitEveryEntryExactlyOnce() {
+        IntHashMap<String> map = new IntHashMap<>();
+        Random random = new Random(42);
+        Set<Integer> keys = new HashSet<>();
+        while (keys.size() < 10_000) {
+            int key = random.nextInt();
+            keys.add(key);
+            map.put(key, "Задача " + key);
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        Set<Integer> kept = new HashSet<>();
+        Iterator<Map.Entry<Integer, String>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, String> entry = iterator.next();
+            assertTrue(seen.add(entry.getKey()), "Ключ выдан дважды: " + entry.getKey());
+            if (entry.getKey() % 3 == 0) {
+                iterator.remove();
+            } else {
+                kept.add(entry.getKey());
+            }
+        }
+
+        assertEquals(keys, seen);
+        assertEquals(kept, map.keySet());
+        for (int key : keys) {
+            assertEquals(kept.contains(key), map.containsKey(key));
+        }
+    }
+
+    @Test
+    public void shouldIterateDenseIdsInAscendingOrder() {
+        IntHashMap<String> map = new IntHashMap<>();
+        for (int id = 5; id >= 1; id--) {
+            map.put(id, "Задача " + id);
+        }
+
+        assertEquals(List.of(1, 2, 3, 4, 5), List.copyOf(map.keySet()));
+        assertThrows(NullPointerException.class, () -> map.put(6, (String) null));
+    }
+}
@@ -1,18 +1,28 @@
 import exception.TaskScheduleConflictException;
+import manager.ColumnarTaskManager;
 import manager.HistoryManager;
+import manager.ConcurrentTaskManager;
 import manager.InMemoryTaskManager;
 import manager.Managers;
+import manager.SnapshotTaskManager;
 import manager.TaskManager;
+import manager.TaskPage;
+import manager.TaskQuery;
+import manager.TimeSlot;
 import task.Epic;
 import task.Subtask;
 import task.Task;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import task.TaskStatus;
+import task.TaskType;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -59,6 +69,16 @@ class TaskManagerTest {
         assertEquals(subtask1, subtask2);
     }
 
+    @Test
+    void newIdShouldStartAfterExplicitlyStoredIds() {
+        for (TaskManager manager : List.of(new InMemoryTaskManager(), new ColumnarTaskManager())) {
+            manager.createTask(new Task("Task", "Description", 5000));
+            manager.createTasks(List.of(new Task("Task", "Description", 7000)));
+
+            assertTrue(manager.newId() > 7000, "newId не должен выдавать id меньше сохранённых");
+        }
+    }
+
     @Test
     void shouldNotAllowEpicToAddItselfAsSubtask() {
         Epic epic = new Epic("Изучить Java", "Разобраться в основах", InMemoryTaskManager.getNewId());
@@ -210,4 +230,410 @@ class TaskManagerTest {
         assertEquals(taskEarly, prioritized.get(0), "Первая задача должна быть с самым ранним временем");
         assertEquals(taskLate, prioritized.get(2), "Последняя задача должна быть с самым поздним временем");
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteByTypeShouldKeepOtherTypesAndFreeTimeSlots() {
+        Task scheduled = new Task("Со временем", "Занимает слот", InMemoryTaskManager.getNewId(), startTime, 60);
+        taskManager.createTask(task1);
+        taskManager.createTask(scheduled);
+
+        assertEquals(2, taskManager.getAllTasks().size());
+        assertEquals(2, taskManager.getAllSubTasks().size());
+        assertEquals(1, taskManager.getAllEpics().size());
+
+        taskManager.deleteAllTasks();
+
+        assertTrue(taskManager.getAllTasks().isEmpty());
+        assertEquals(2, taskManager.getAllSubTasks().size());
+        assertTrue(taskManager.getSortedTasksByTime().isEmpty(), "Удалённая задача не должна оставаться в расписании");
+        assertDoesNotThrow(() -> taskManager.createTask(
+                new Task("На освободившееся время", "", InMemoryTaskManager.getNewId(), startTime, 30)));
+
+        taskManager.deleteAllSubTasks();
+
+        assertTrue(taskManager.getAllSubTasks().isEmpty());
+        assertEquals(List.of(epic2), taskManager.getAllEpics());
+        assertTrue(((Epic) taskManager.getById(epic2.getId())).getSubTasks().isEmpty());
+    }
+
+    @Test
+    void shouldFindTasksOverlappingHalfOpenInterval() {
+        Task morning = new Task("Утро", "", InMemoryTaskManager.getNewId(), startTime, 60);
+        Task noon = new Task("Полдень", "", InMemoryTaskManager.getNewId(), startTime.plusHours(2), 60);
+        Task evening = new Task("Вечер", "", InMemoryTaskManager.getNewId(), startTime.plusHours(8), 60);
+        taskManager.createTask(evening);
+        taskManager.createTask(morning);
+        taskManager.createTask(noon);
+
+        assertEquals(List.of(morning, noon),
+                taskManager.getTasksOverlapping(startTime.plusMinutes(30), startTime.plusHours(3)));
+        assertEquals(List.of(noon), taskManager.getTasksOverlapping(startTime.plusHours(1), startTime.plusHours(2).plusMinutes(1)),
+                "Конец интервала не входит в него");
+        assertTrue(taskManager.getTasksOverlapping(startTime.plusHours(3), startTime.plusHours(8)).isEmpty());
+    }
+
+    @Test
+    void shouldKeepTasksWithSameStartTime() {
+        Task first = new Task("Напоминание 1", "", InMemoryTaskManager.getNewId(), startTime, 0);
+        Task second = new Task("Напоминание 2", "", InMemoryTaskManager.getNewId(), startTime, 0);
+        taskManager.createTask(second);
+        taskManager.createTask(first);
+
+        assertEquals(List.of(first, second), taskManager.getSortedTasksByTime());
+
+        taskManager.deleteById(first.getId());
+        assertEquals(List.of(second), taskManager.getSortedTasksByTime());
+    }
+
+    @Test
+    void sortedTasksShouldStayConsistentUnderRescheduling() {
+        int count = 200;
+        List<Task> scheduled = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Задача " + i, "", InMemoryTaskManager.getNewId(), startTime.plusMinutes(10L * i), 5);
+            taskManager.createTask(task);
+            scheduled.add(task);
+        }
+
+        Random random = new Random(42);
+        for (int step = 0; step < 2_000; step++) {
+            int index = random.nextInt(count);
+            Task moved = new Task("Задача " + index, "", scheduled.get(index).getId(),
+                    startTime.plusMinutes(10L * count + 10L * step), 5);
+            taskManager.updateTask(moved);
+            scheduled.set(index, moved);
+        }
+
+        List<Task> expected = scheduled.stream()
+                .sorted(Comparator.comparing(Task::getStartTime))
+                .toList();
+        List<Task> actual = taskManager.getSortedTasksByTime();
+        assertEquals(expected, actual);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.get(i).getStartTime(), actual.get(i).getStartTime());
+        }
+    }
+
+    @Test
+    void epicAggregatesShouldFollowSubtaskChanges() {
+        taskManager.createTask(epic);
+        Subtask first = new Subtask("Первая", "", InMemoryTaskManager.getNewId(), startTime, 30, epic.getId());
+        Subtask second = new Subtask("Вторая", "", InMemoryTaskManager.getNewId(),
+                startTime.plusHours(2), 60, epic.getId());
+        taskManager.createTask(first);
+        taskManager.createTask(second);
+
+        first.setStartTime(startTime.plusHours(4));
+        first.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(first);
+
+        assertEquals(startTime.plusHours(2), epic.getStartTime());
+        assertEquals(startTime.plusHours(4).plusMinutes(30), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(90), epic.getDuration());
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+
+        taskManager.deleteById(second.getId());
+
+        assertEquals(startTime.plusHours(4), epic.getStartTime());
+        assertEquals(Duration.ofMinutes(30), epic.getDuration());
+        assertEquals(TaskStatus.DONE, epic.getStatus());
+
+        taskManager.deleteById(first.getId());
+
+        assertNull(epic.getStartTime());
+        assertNull(epic.getEndTime());
+        assertEquals(Duration.ZERO, epic.getDuration());
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+    }
+
+    @Test
+    void epicSubtasksShouldKeepInsertionOrderOnUpdateAndRemove() {
+        taskManager.createTask(epic);
+        List<Subtask> created = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Subtask subtask = new Subtask("Подзадача " + i, "", InMemoryTaskManager.getNewId(), epic.getId());
+            taskManager.createTask(subtask);
+            created.add(subtask);
+        }
+
+        Subtask updated = new Subtask("Новое имя", "", created.get(1).getId(), epic.getId());
+        taskManager.updateTask(updated);
+        taskManager.deleteById(created.get(2).getId());
+
+        assertEquals(List.of(created.get(0), updated, created.get(3)), epic.getSubTasks());
+        assertEquals("Новое имя", epic.getSubTasks().get(1).getName());
+        assertTrue(epic.containsSubTask(created.get(3).getId()));
+        assertFalse(epic.containsSubTask(created.get(2).getId()));
+    }
+
+    @Test
+    void createTasksShouldStoreEpicWithSubtasksFromSameBatch() {
+        Subtask first = new Subtask("Первая", "", InMemoryTaskManager.getNewId(), startTime, 30, epic.getId());
+        Subtask second = new Subtask("Вторая", "", InMemoryTaskManager.getNewId(),
+                startTime.plusMinutes(30), 30, epic.getId());
+
+        taskManager.createTasks(List.of(first, second, epic));
+
+        assertEquals(List.of(first, second), taskManager.getSubTaskByEpic(epic.getId()));
+        assertEquals(startTime, taskManager.getById(epic.getId()).getStartTime());
+        assertEquals(List.of(first, second), taskManager.getSortedTasksByTime());
+    }
+
+    @Test
+    void conflictingBatchShouldLeaveManagerUnchanged() {
+        Task scheduled = new Task("В расписании", "", InMemoryTaskManager.getNewId(), startTime, 60);
+        taskManager.createTask(scheduled);
+        List<Task> before = taskManager.getAll();
+
+        Task free = new Task("Свободная", "", InMemoryTaskManager.getNewId(), startTime.plusHours(2), 30);
+        Task insideBatch = new Task("Пересекает пакет", "", InMemoryTaskManager.getNewId(),
+                startTime.plusHours(2).plusMinutes(15), 30);
+        assertThrows(TaskScheduleConflictException.class,
+                () -> taskManager.createTasks(List.of(free, insideBatch)));
+
+        Task againstSchedule = new Task("Пересекает расписание", "", InMemoryTaskManager.getNewId(),
+                startTime.plusMinutes(30), 60);
+        assertThrows(TaskScheduleConflictException.class,
+                () -> taskManager.createTasks(List.of(free, againstSchedule)));
+
+        assertEquals(before, taskManager.getAll());
+        assertEquals(List.of(scheduled), taskManager.getSortedTasksByTime());
+    }
+
+    @Test
+    void updateTasksShouldMoveTasksPastEachOther() {
+        Task early = new Task("Ранняя", "", InMemoryTaskManager.getNewId(), startTime, 60);
+        Task late = new Task("Поздняя", "", InMemoryTaskManager.getNewId(), startTime.plusHours(1), 60);
+        taskManager.createTasks(List.of(early, late));
+
+        Task earlyMoved = new Task("Ранняя", "", early.getId(), startTime.plusHours(1), 60);
+        Task lateMoved = new Task("Поздняя", "", late.getId(), startTime, 60);
+        taskManager.updateTasks(List.of(earlyMoved, lateMoved));
+
+        assertEquals(List.of(late.getId(), early.getId()),
+                taskManager.getSortedTasksByTime().stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void queryShouldMatchFilteredBoardInEveryManager() {
+        for (TaskManager manager : List.of(new InMemoryTaskManager(), new ConcurrentTaskManager(),
+                new SnapshotTaskManager())) {
+            Random random = new Random(21);
+            List<Integer> epicIds = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Epic board = new Epic("Эпик " + i, "", manager.newId());
+                manager.createTask(board);
+                epicIds.add(board.getId());
+            }
+            for (int i = 0; i < 400; i++) {
+                LocalDateTime start = random.nextInt(4) == 0 ? InMemoryTaskManager.UNDEFINED_TIME
+                        : startTime.plusHours(i);
+                Task task = random.nextBoolean()
+                        ? new Subtask("Подзадача " + i, "", manager.newId(), start, 30,
+                        epicIds.get(random.nextInt(epicIds.size())))
+                        : new Task("Задача " + i, "", manager.newId(), start, 30);
+                task.setStatus(TaskStatus.values()[random.nextInt(3)]);
+                manager.createTask(task);
+            }
+
+            for (int i = 0; i < 300; i++) {
+                TaskQuery query = TaskQuery.all();
+                if (random.nextBoolean()) {
+                    query.withType(TaskType.values()[random.nextInt(3)]);
+                }
+                if (random.nextBoolean()) {
+                    query.withStatus(TaskStatus.values()[random.nextInt(3)]);
+                }
+                if (random.nextInt(3) == 0) {
+                    query.withEpicId(epicIds.get(random.nextInt(epicIds.size())));
+                }
+                if (random.nextBoolean()) {
+                    LocalDateTime from = startTime.plusHours(random.nextInt(400));
+                    query.withWindow(from, from.plusHours(1 + random.nextInt(100)));
+                }
+                Comparator<Task> order = query.hasWindow()
+                        ? Comparator.comparing(Task::getStartTime).thenComparingInt(Task::getId)
+                        : Comparator.comparingInt(Task::getId);
+                List<Task> expected = manager.getAll().stream().filter(query::matches).sorted(order).toList();
+                assertEquals(expected, manager.query(query));
+                assertEquals(expected, readAllPages(manager, query, 1 + random.nextInt(7)));
+            }
+        }
+    }
+
+    @Test
+    void pagesShouldContinueAfterCursorWhenBoardChanges() {
+        List<Task> created = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Task task = new Task("Задача " + i, "", InMemoryTaskManager.getNewId(), startTime.plusHours(i), 30);
+            taskManager.createTask(task);
+            created.add(task);
+        }
+        TaskQuery query = TaskQuery.all().withType(TaskType.TASK).withWindow(startTime, null).withLimit(2);
+
+        TaskPage first = taskManager.getPage(query);
+        assertEquals(created.subList(0, 2), first.getTasks());
+        taskManager.deleteById(created.get(2).getId());
+        Task earlier = new Task("Раньше курсора", "", InMemoryTaskManager.getNewId(), startTime.minusHours(1), 30);
+        taskManager.createTask(earlier);
+
+        TaskPage second = taskManager.getPage(query.withCursor(first.getNextCursor()));
+        assertEquals(List.of(created.get(3), created.get(4)), second.getTasks());
+        TaskPage third = taskManager.getPage(query.withCursor(second.getNextCursor()));
+        assertEquals(List.of(created.get(5)), third.getTasks());
+        assertFalse(third.hasNext());
+    }
+
+    private List<Task> readAllPages(TaskManager manager, TaskQuery query, int limit) {
+        List<Task> all = new ArrayList<>();
+        query.withLimit(limit).withCursor(null);
+        TaskPage page;
+        do {
+            page = manager.getPage(query);
+            all.addAll(page.getTasks());
+            query.withCursor(page.getNextCursor());
+        } while (page.hasNext());
+        query.withCursor(null);
+        return all;
+    }
+
+    @Test
+    void queryWindowShouldSkipEpicsAndUnscheduledTasks() {
+        taskManager.createTask(epic);
+        Subtask scheduled = new Subtask("В расписании", "", InMemoryTaskManager.getNewId(), startTime, 30,
+                epic.getId());
+        Task unscheduled = new Task("Без времени", "", InMemoryTaskManager.getNewId());
+        taskManager.createTask(scheduled);
+        taskManager.createTask(unscheduled);
+
+        List<Task> found = taskManager.query(TaskQuery.all().withWindow(null, null));
+
+        assertEquals(List.of(scheduled), found);
+        assertEquals(List.of(scheduled), taskManager.query(TaskQuery.all().withEpicId(epic.getId())));
+        assertTrue(taskManager.query(TaskQuery.all().withType(TaskType.EPIC).withWindow(null, null)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.all().withWindow(startTime, startTime));
+    }
+
+    @Test
+    void searchShouldIgnoreCaseAndYoAndMatchPrefixes() {
+        for (TaskManager manager : List.of(new InMemoryTaskManager(), new ConcurrentTaskManager(),
+                new SnapshotTaskManager())) {
+            Task tree = new Task("Купить ЁЛКУ", "к новому году", manager.newId());
+            Task report = new Task("Отчёт за май", "сдать до пятницы", manager.newId());
+            Task review = new Task("Ревью отчета", "код-ревью модуля", manager.newId());
+            manager.createTask(tree);
+            manager.createTask(report);
+            manager.createTask(review);
+
+            assertEquals(List.of(tree), manager.search("елку"));
+            assertEquals(List.of(report, review), manager.search("ОТЧЁТ*"));
+            assertEquals(List.of(review), manager.search("ревью отчета"));
+            assertEquals(List.of(tree, review), manager.search("новому OR код"));
+            assertEquals(List.of(review), manager.search("отч*", report.getId(), 10));
+            assertEquals(List.of(tree), manager.search("к* | сдать", 0, 1));
+            assertTrue(manager.search("отчет AND ёлка").isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> manager.search(" - "));
+        }
+    }
+
+    @Test
+    void searchShouldFollowUpdatesAndDeletes() {
+        for (TaskManager manager : List.of(new InMemoryTaskManager(), new ConcurrentTaskManager(),
+                new SnapshotTaskManager())) {
+            Epic board = new Epic("Релиз", "выпуск версии", manager.newId());
+            Subtask notes = new Subtask("Заметки к релизу", "", manager.newId(), board.getId());
+            manager.createTask(board);
+            manager.createTask(notes);
+            assertEquals(List.of(board), manager.search("релиз"));
+
+            notes = new Subtask("Заметки к выпуску", "", notes.getId(), board.getId());
+            manager.updateTask(notes);
+            assertEquals(List.of(board, notes), manager.search("выпуск*"));
+            assertTrue(manager.search("релизу").isEmpty());
+
+            Task added = new Task("Выпуск сборки", "", manager.newId());
+            manager.createTask(added);
+            manager.deleteById(board.getId());
+            assertEquals(List.of(added), manager.search("выпуск*"));
+
+            manager.deleteAll();
+            assertTrue(manager.search("выпуск*").isEmpty());
+        }
+    }
+
+    @Test
+    void freeSlotsShouldFitBetweenScheduledTasks() {
+        taskManager.createTask(new Task("Утро", "", InMemoryTaskManager.getNewId(), startTime, 60));
+        taskManager.createTask(new Task("Созвон", "", InMemoryTaskManager.getNewId(), startTime.plusMinutes(90), 0));
+        taskManager.createTask(new Task("Обед", "", InMemoryTaskManager.getNewId(), startTime.plusHours(3), 60));
+
+        List<TimeSlot> slots = taskManager.findFreeSlots(Duration.ofMinutes(30), startTime.minusHours(1),
+                startTime.plusHours(5), 10);
+
+        assertEquals(List.of(
+                new TimeSlot(startTime.minusHours(1), startTime),
+                new TimeSlot(startTime.plusMinutes(60), startTime.plusMinutes(90)),
+                new TimeSlot(startTime.plusMinutes(90), startTime.plusHours(3)),
+                new TimeSlot(startTime.plusHours(4), startTime.plusHours(5))), slots);
+        assertEquals(List.of(new TimeSlot(startTime.plusMinutes(90), startTime.plusHours(3))),
+                taskManager.findFreeSlots(Duration.ofMinutes(45), startTime.plusMinutes(30),
+                        startTime.plusHours(5), 1));
+        Task placed = new Task("В свободное время", "", InMemoryTaskManager.getNewId(), slots.get(1).getStart(), 30);
+        assertDoesNotThrow(() -> taskManager.createTask(placed));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.findFreeSlots(Duration.ZERO, startTime, startTime.plusHours(1), 1));
+    }
+
+    @Test
+    void freeSlotsShouldMatchScheduleScanInEveryManager() {
+        for (TaskManager manager : List.of(new InMemoryTaskManager(), new ConcurrentTaskManager(),
+                new SnapshotTaskManager())) {
+            Random random = new Random(24);
+            List<Task> created = new ArrayList<>();
+            for (int i = 0; i < 600; i++) {
+                Task task = new Task("Задача " + i, "", manager.newId(),
+                        startTime.plusMinutes(random.nextInt(30_000)), random.nextInt(90));
+                try {
+                    manager.createTask(task);
+                    created.add(task);
+                } catch (TaskScheduleConflictException e) {
+                    continue;
+                }
+                if (random.nextInt(4) == 0) {
+                    manager.deleteById(created.remove(random.nextInt(created.size())).getId());
+                }
+            }
+
+            for (int i = 0; i < 200; i++) {
+                LocalDateTime from = startTime.plusMinutes(random.nextInt(32_000) - 1_000);
+                LocalDateTime to = from.plusMinutes(1 + random.nextInt(5_000));
+                Duration duration = Duration.ofMinutes(1 + random.nextInt(120));
+                int limit = 1 + random.nextInt(20);
+                assertEquals(freeSlotsByScan(manager, duration, from, to, limit),
+                        manager.findFreeSlots(duration, from, to, limit));
+            }
+        }
+    }
+
+    // Свободное время перебором всего расписания по порядку начала.
+    static List<TimeSlot> freeSlotsByScan(TaskManager manager, Duration duration, LocalDateTime from,
+                                          LocalDateTime to, int limit) {
+        List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime covered = from;
+        for (Task task : manager.getSortedTasksByTime()) {
+            if (!task.getStartTime().isBefore(to)) {
+                break;
+            }
+            if (Duration.between(covered, task.getStartTime()).compareTo(duration) >= 0) {
+                slots.add(new TimeSlot(covered, task.getStartTime()));
+            }
+            if (task.getEndTime().isAfter(covered)) {
+                covered = task.getEndTime();
+            }
+        }
+        if (Duration.between(covered, to).compareTo(duration) >= 0) {
+            slots.add(new TimeSlot(covered, to));
+        }
+        return slots.size() > limit ? slots.subList(0, limit) : slots;
+    }
+}
@@ -0,0 +1,46 @@
+package benchmark;
+
+import manager.AutoScheduler;
+import manager.InMemoryTaskManager;
+import manager.PlacementRequest;
+import manager.ScheduleResult;
+import task.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Раскладка задач без времени по расписанию, где уже занята примерно половина рабочего времени.
+// У части задач окно — один день, поэтому заявки делятся на группы и раскладываются параллельно.
+// Запуск: java benchmark.AutoSchedulerBenchmark [количество задач]
+public class AutoSchedulerBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Random random = new Random(25);
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        for (int i = 0; i < size; i++) {
+            manager.createTask(new Task("Встреча " + i, "", manager.newId(), START.plusMinutes(60L * i), 30));
+        }
+
+        List<Task> batch = new ArrayList<>(size);
+        List<PlacementRequest> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task("Задача " + i, "", manager.newId());
+            task.setDuration(Duration.ofMinutes(5 + random.nextInt(25)));
+            LocalDateTime day = START.plusDays(random.nextInt(Math.max(1, size / 24)));
+            requests.add(random.nextInt(10) == 0 ? new PlacementRequest(task)
+                    : new PlacementRequest(task, day, day.plusDays(1)));
+            batch.add(task);
+        }
+        manager.createTasks(batch);
+
+        long start = System.nanoTime();
+        ScheduleResult result = new AutoScheduler(manager).schedule(requests, START, null);
+        System.out.printf("%d задач: поставлено %d, не поместилось %d за %d мс%n", size,
+                result.getScheduled().size(), result.getUnplaced().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
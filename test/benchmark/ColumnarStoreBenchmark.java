@@ -0,0 +1,82 @@
+package benchmark;
+
+import manager.ColumnarTaskManager;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+// Память на задачу и скорость сканирования: InMemoryTaskManager против ColumnarTaskManager.
+// Доска — эпики по 100 подзадач, у каждой задачи своё время и короткие название и описание.
+// Запуск: java -Xmx8g benchmark.ColumnarStoreBenchmark [количество задач] [columnar|inmemory|both]
+public class ColumnarStoreBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String which = args.length > 1 ? args[1] : "both";
+        System.out.printf("Задач: %d%n", size);
+
+        if (!which.equals("columnar")) {
+            measure("InMemory", InMemoryTaskManager::new, size);
+        }
+        if (!which.equals("inmemory")) {
+            measure("Columnar", ColumnarTaskManager::new, size);
+        }
+    }
+
+    private static void measure(String name, Supplier<TaskManager> factory, int size) {
+        System.gc();
+        long before = usedHeap();
+        long started = System.nanoTime();
+        TaskManager manager = factory.get();
+        fill(manager, size);
+        long filled = System.nanoTime() - started;
+        System.gc();
+        long bytes = usedHeap() - before;
+        System.out.printf("%s: заполнение %.1f с, куча %.0f МБ, %.0f байт на задачу%n", name, filled / 1e9,
+                bytes / 1_048_576.0, bytes / (double) size);
+
+        for (int round = 0; round < 3; round++) {
+            started = System.nanoTime();
+            long done = manager instanceof ColumnarTaskManager columnar
+                    ? columnar.count(TaskType.SUBTASK, TaskStatus.DONE)
+                    : manager.getAllSubTasks().stream().filter(task -> task.getStatus() == TaskStatus.DONE).count();
+            long scanned = System.nanoTime() - started;
+
+            LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(size / 2 * 30L);
+            started = System.nanoTime();
+            int overlapping = manager.getTasksOverlapping(from, from.plusDays(1)).size();
+            long window = System.nanoTime() - started;
+            System.out.printf("  выполненных подзадач %d за %.1f мс, %d задач за сутки за %.3f мс%n",
+                    done, scanned / 1e6, overlapping, window / 1e6);
+        }
+    }
+
+    private static void fill(TaskManager manager, int size) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        TaskStatus[] statuses = TaskStatus.values();
+        Epic epic = null;
+        for (int i = 0; i < size; i++) {
+            int id = manager.newId();
+            if (i % 101 == 0) {
+                epic = new Epic("Эпик " + i, "Этап " + i / 101, id);
+                manager.createTask(epic);
+                continue;
+            }
+            Task task = new Subtask("Подзадача " + i, "Шаг " + i, id, start.plusMinutes(i * 30L), 20, epic.getId());
+            task.setStatus(statuses[i % statuses.length]);
+            manager.createTask(task);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
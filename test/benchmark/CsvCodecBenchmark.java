@@ -0,0 +1,141 @@
+package benchmark;
+
+import manager.CsvTaskReader;
+import manager.CsvTaskWriter;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Сравнивает пропускную способность нового CSV-кодека с прежней реализацией на split(",").
+// Запуск: java benchmark.CsvCodecBenchmark [количество строк]
+public class CsvCodecBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        List<Task> tasks = generate(rows);
+
+        List<String> lines = new ArrayList<>(rows);
+        StringBuilder document = new StringBuilder();
+        for (Task task : tasks) {
+            String line = CsvTaskWriter.format(task);
+            lines.add(line);
+            document.append(line).append('\n');
+        }
+        char[] chars = document.toString().toCharArray();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Раунд " + round);
+            measure("  запись (старая)", rows, () -> {
+                long length = 0;
+                for (Task task : tasks) {
+                    length += legacyFormat(task).length();
+                }
+                return length;
+            });
+            measure("  запись (новая) ", rows, () -> {
+                StringBuilder builder = new StringBuilder(chars.length);
+                for (Task task : tasks) {
+                    CsvTaskWriter.appendRecord(builder, task);
+                    builder.append('\n');
+                }
+                return builder.length();
+            });
+            measure("  чтение (старое)", rows, () -> {
+                long sum = 0;
+                for (String line : lines) {
+                    sum += legacyParse(line).getId();
+                }
+                return sum;
+            });
+            measure("  чтение (новое) ", rows, () -> {
+                long sum = 0;
+                CsvTaskReader reader = new CsvTaskReader(chars, 0, chars.length);
+                Task task;
+                while ((task = reader.next()) != null) {
+                    sum += task.getId();
+                }
+                return sum;
+            });
+        }
+    }
+
+    private interface Body {
+        long run();
+    }
+
+    private static void measure(String name, int rows, Body body) {
+        long start = System.nanoTime();
+        long result = body.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %8.0f строк/с (%d)%n", name, rows / seconds, result);
+    }
+
+    private static List<Task> generate(int rows) {
+        LocalDateTime base = LocalDateTime.of(2025, 5, 6, 10, 0);
+        List<Task> tasks = new ArrayList<>(rows);
+        int epicId = 0;
+        for (int i = 1; i <= rows; i++) {
+            if (i % 50 == 1) {
+                epicId = i;
+                tasks.add(new Epic("Пройти тему ООП. Инкапсуляция", "Пройти все уроки и выполнить все упражнения", i));
+                continue;
+            }
+            Subtask subtask = new Subtask("Выполнить урок " + i, "Прочитать теорию и выполнить практику",
+                    i, base.plusMinutes(i * 30L), 25, epicId);
+            subtask.setStatus(TaskStatus.values()[i % 3]);
+            tasks.add(subtask);
+        }
+        return tasks;
+    }
+
+    private static String legacyFormat(Task task) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(task.getId()).append(",");
+        builder.append(task.getType().name()).append(",");
+        builder.append(task.getName()).append(",");
+        builder.append(task.getStatus()).append(",");
+        builder.append(task.getDescription()).append(",");
+        builder.append(task.getType() == TaskType.SUBTASK ? ((Subtask) task).getEpicId() : "").append(",");
+        LocalDateTime startTime = task.getStartTime();
+        Duration duration = task.getDuration();
+        builder.append(startTime != null ? startTime : "").append(",");
+        builder.append(duration != null ? duration.toMinutes() : "");
+        return builder.toString();
+    }
+
+    private static Task legacyParse(String value) {
+        String[] parts = value.split(",", -1);
+        int id = Integer.parseInt(parts[0]);
+        TaskType type = TaskType.valueOf(parts[1]);
+        String name = parts[2];
+        TaskStatus status = TaskStatus.valueOf(parts[3]);
+        String description = parts[4];
+        int epicId = parts[5].isEmpty() ? -1 : Integer.parseInt(parts[5]);
+        LocalDateTime startTime = parts[6].isEmpty() ? null : LocalDateTime.parse(parts[6]);
+        Duration duration = parts[7].isEmpty() ? null : Duration.ofMinutes(Long.parseLong(parts[7]));
+
+        return switch (type) {
+            case TASK -> {
+                Task task = new Task(name, description, id, status);
+                task.setStartTime(startTime);
+                task.setDuration(duration);
+                yield task;
+            }
+            case EPIC -> new Epic(name, description, id, status);
+            case SUBTASK -> {
+                Subtask subtask = new Subtask(name, description, id, epicId, status);
+                subtask.setStartTime(startTime);
+                subtask.setDuration(duration);
+                yield subtask;
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import manager.InMemoryTaskManager;
+import manager.TimeSlot;
+import task.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Плотное расписание: задачи по 10 минут встык, а час свободен только после каждой тысячной.
+// Поиск часового промежутка по дереву против просмотра отсортированного расписания подряд.
+// Запуск: java benchmark.FreeSlotBenchmark [количество задач]
+public class FreeSlotBenchmark {
+    private static final int ROUNDS = 1_000;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        LocalDateTime time = START;
+        for (int i = 1; i <= size; i++) {
+            manager.createTask(new Task("Задача " + i, "", manager.newId(), time, 10));
+            time = time.plusMinutes(i % 1_000 == 0 ? 70 : 10);
+        }
+        LocalDateTime end = time;
+        Duration hour = Duration.ofHours(1);
+
+        long found = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDateTime from = START.plusMinutes(10L * (round * 7_919L % size));
+            found += manager.findFreeSlots(hour, from, end, 3).size();
+        }
+        report("Дерево   ", found, ROUNDS, start);
+
+        List<Task> sorted = manager.getSortedTasksByTime();
+        found = 0;
+        start = System.nanoTime();
+        int scanRounds = ROUNDS / 10;
+        for (int round = 0; round < scanRounds; round++) {
+            LocalDateTime from = START.plusMinutes(10L * (round * 7_919L % size));
+            found += scan(sorted, hour, from, 3);
+        }
+        report("Просмотр ", found, scanRounds, start);
+    }
+
+    private static int scan(List<Task> sorted, Duration duration, LocalDateTime from, int limit) {
+        int found = 0;
+        LocalDateTime covered = from;
+        for (Task task : sorted) {
+            if (Duration.between(covered, task.getStartTime()).compareTo(duration) >= 0 && ++found == limit) {
+                break;
+            }
+            if (task.getEndTime().isAfter(covered)) {
+                covered = task.getEndTime();
+            }
+        }
+        return found;
+    }
+
+    private static void report(String name, long found, int rounds, long start) {
+        double micros = (System.nanoTime() - start) / 1e3 / rounds;
+        System.out.printf("%s: %.1f мкс на запрос (%d промежутков за %d запросов)%n", name, micros, found, rounds);
+    }
+}
@@ -0,0 +1,79 @@
+package benchmark;
+
+import manager.IntHashMap;
+import task.Task;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+// Поиск по id в хранилище задач: HashMap<Integer, Task> против IntHashMap.
+// Печатает среднее время одного поиска, байты, выделенные потоком на весь проход поиска,
+// и занятую кучу после заполнения. Запуск: java benchmark.IntMapBenchmark [количество задач] [повторов]
+public class IntMapBenchmark {
+    private static final int LOOKUPS = 10_000_000;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.printf("Задач: %d, поисков за проход: %d%n", size, LOOKUPS);
+
+        Task[] tasks = new Task[size];
+        for (int i = 0; i < size; i++) {
+            tasks[i] = new Task("Задача " + i, "", i + 1);
+        }
+        int[] probes = new int[LOOKUPS];
+        Random random = new Random(1);
+        for (int i = 0; i < LOOKUPS; i++) {
+            // id приходят как int из пути запроса, поэтому HashMap упаковывает каждый ключ.
+            probes[i] = random.nextInt(size) + 1;
+        }
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("Проход %d%n", round);
+            measure("HashMap   ", fill(new HashMap<>(), tasks), probes);
+            measure("IntHashMap", fill(new IntHashMap<>(), tasks), probes);
+        }
+    }
+
+    private static Map<Integer, Task> fill(Map<Integer, Task> map, Task[] tasks) {
+        System.gc();
+        long before = usedHeap();
+        for (Task task : tasks) {
+            map.put(task.getId(), task);
+        }
+        System.gc();
+        System.out.printf("  куча под карту: %6.1f МБ%n", (usedHeap() - before) / 1_048_576.0);
+        return map;
+    }
+
+    private static void measure(String name, Map<Integer, Task> map, int[] probes) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long checksum = 0;
+        if (map instanceof IntHashMap<Task> intMap) {
+            for (int id : probes) {
+                checksum += intMap.get(id).getId();
+            }
+        } else {
+            for (int id : probes) {
+                checksum += map.get(id).getId();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.out.printf("  %s: %6.1f нс/поиск, выделено %8.1f МБ (контрольная сумма %d)%n", name,
+                elapsed / (double) probes.length, allocated / 1_048_576.0, checksum);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import manager.InMemoryTaskManager;
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Сравнивает создание задач со временем при проверке пересечений по дереву интервалов
+// с прежним просмотром всего расписания на каждую вставку.
+// Запуск: java benchmark.ScheduleBenchmark [количество задач]
+public class ScheduleBenchmark {
+    private static final int ROUNDS = 3;
+    private static final int LEGACY_LIMIT = 20_000;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int legacySize = Math.min(size, LEGACY_LIMIT);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Раунд " + round);
+
+            Task[] tasks = generate(size);
+            InMemoryTaskManager manager = new InMemoryTaskManager();
+            long start = System.nanoTime();
+            for (Task task : tasks) {
+                manager.createTask(task);
+            }
+            report("  дерево интервалов", size, start);
+
+            Task[] legacyTasks = generate(legacySize);
+            Set<Task> schedule = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+            start = System.nanoTime();
+            for (Task task : legacyTasks) {
+                if (isTimeSlotAvailable(schedule, task)) {
+                    schedule.add(task);
+                }
+            }
+            report("  просмотр (старый)", legacySize, start);
+        }
+    }
+
+    // Задачи по 10 минут с перерывами, вставляются вразнобой, чтобы дерево перестраивалось.
+    private static Task[] generate(int size) {
+        Task[] tasks = new Task[size];
+        for (int i = 0; i < size; i++) {
+            int slot = (int) ((i * 2_654_435_761L) % size);
+            tasks[i] = new Task("Задача " + i, "", InMemoryTaskManager.getNewId(),
+                    START.plusMinutes(15L * slot), 10);
+        }
+        return tasks;
+    }
+
+    private static boolean isTimeSlotAvailable(Set<Task> schedule, Task task) {
+        LocalDateTime newStart = task.getStartTime();
+        LocalDateTime newEnd = task.getEndTime();
+        return schedule.stream()
+                .filter(existing -> existing.getId() != task.getId())
+                .noneMatch(existing ->
+                        newStart.isBefore(existing.getEndTime()) && newEnd.isAfter(existing.getStartTime()));
+    }
+
+    private static void report(String name, int size, long start) {
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%s: %d задач за %.0f мс%n", name, size, millis);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import manager.InMemoryTaskManager;
+import manager.Managers;
+import manager.TaskManager;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Пропускная способность чтения списков при одном постоянно пишущем потоке: конкурентный менеджер
+// (чтение расписания под блокировкой) против менеджера со снимками (чтение без блокировок).
+// Запуск: java benchmark.SnapshotReadBenchmark [количество задач] [секунд на замер]
+public class SnapshotReadBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Задач: %d, ядер: %d%n", size, cores);
+
+        for (int readers = 1; readers <= cores; readers *= 2) {
+            measure("Блокировки", Managers.getConcurrent(), size, readers, seconds);
+            measure("Снимки    ", Managers.getSnapshotting(), size, readers, seconds);
+        }
+    }
+
+    private static void measure(String name, TaskManager manager, int size, int readers, int seconds)
+            throws InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Epic epic = new Epic("Эпик", "", InMemoryTaskManager.getNewId());
+        manager.createTask(epic);
+        for (int i = 0; i < size; i++) {
+            manager.createTask(new Subtask("Подзадача " + i, "", InMemoryTaskManager.getNewId(),
+                    start.plusHours(i), 30, epic.getId()));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            int shift = 0;
+            while (running.get()) {
+                Task task = new Task("Задача", "", InMemoryTaskManager.getNewId(),
+                        start.plusHours(size + shift++), 30);
+                manager.createTask(task);
+                manager.deleteById(task.getId());
+                writes.increment();
+            }
+        }));
+        for (int i = 0; i < readers; i++) {
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    manager.getSortedTasksByTime();
+                    manager.getAllSubTasks();
+                    reads.increment();
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%s, читателей %2d: %10.0f чтений/с, %10.0f записей/с%n", name, readers,
+                reads.sum() / (double) seconds, writes.sum() / (double) seconds);
+    }
+}
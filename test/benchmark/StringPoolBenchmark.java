@@ -0,0 +1,62 @@
+package benchmark;
+
+import manager.CsvTaskReader;
+import manager.CsvTaskWriter;
+import manager.StringPool;
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Куча под задачи с шаблонными текстами: разбор CSV через пул строк против тех же задач
+// с отдельной копией имени и описания у каждой, как было до пула.
+// Запуск: java benchmark.StringPoolBenchmark [количество задач] [различных описаний]
+public class StringPoolBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= size; i++) {
+            Task task = new Task("Спринт " + i % distinct,
+                    "Прочитать теорию и выполнить практику, шаблон № " + i % distinct, i);
+            CsvTaskWriter.appendRecord(csv, task);
+            csv.append('\n');
+        }
+        char[] data = csv.toString().toCharArray();
+        csv = null;
+
+        List<Task> pooled = measure("С пулом   ", () -> parse(data, false));
+        System.out.println("  " + StringPool.getDefault().getStats());
+        pooled.clear();
+        measure("Без пула  ", () -> parse(data, true));
+    }
+
+    private static List<Task> parse(char[] data, boolean copyText) {
+        List<Task> tasks = new ArrayList<>();
+        CsvTaskReader reader = new CsvTaskReader(data, 0, data.length);
+        for (Task task = reader.next(); task != null; task = reader.next()) {
+            // new String(String) разделяет массив байтов с исходной строкой, поэтому копия — через char[].
+            tasks.add(copyText ? new Task(new String(task.getName().toCharArray()),
+                    new String(task.getDescription().toCharArray()), task.getId(), task.getStatus()) : task);
+        }
+        return tasks;
+    }
+
+    private static List<Task> measure(String name, Supplier<List<Task>> load) {
+        System.gc();
+        long before = usedHeap();
+        List<Task> tasks = load.get();
+        System.gc();
+        long bytes = usedHeap() - before;
+        System.out.printf("%s: %d задач, куча %.1f МБ, %.0f байт на задачу%n", name, tasks.size(),
+                bytes / 1_048_576.0, bytes / (double) tasks.size());
+        return tasks;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
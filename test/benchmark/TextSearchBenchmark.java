@@ -0,0 +1,57 @@
+package benchmark;
+
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Время поиска по индексу против перебора всех задач (так, как раньше искал клиент).
+// Первый поиск строит индекс, его время печатается отдельно.
+// Запуск: java benchmark.TextSearchBenchmark [количество задач]
+public class TextSearchBenchmark {
+    private static final String[] WORDS = {"отчёт", "ревью", "релиз", "сборка", "тест", "миграция", "дизайн",
+            "макет", "сервер", "клиент", "оплата", "доставка", "склад", "заказ", "счёт", "договор"};
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(23);
+        TaskManager manager = new InMemoryTaskManager();
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task(WORDS[random.nextInt(WORDS.length)] + " " + i,
+                    WORDS[random.nextInt(WORDS.length)] + " и " + WORDS[random.nextInt(WORDS.length)],
+                    manager.newId());
+            manager.createTask(task);
+            tasks.add(task);
+        }
+
+        long start = System.nanoTime();
+        manager.search("отчет");
+        System.out.printf("Построение индекса: %d мс%n", (System.nanoTime() - start) / 1_000_000);
+
+        for (String query : List.of("отчет 4217", "релиз ревью", "миграц* OR склад сервер", "договор оплата")) {
+            start = System.nanoTime();
+            List<Task> page = manager.search(query, 0, 100);
+            long indexed = System.nanoTime() - start;
+            start = System.nanoTime();
+            long scanned = tasks.stream().filter(task -> containsAll(task, query)).count();
+            long scan = System.nanoTime() - start;
+            System.out.printf("%-26s индекс %.2f мс (%d на странице), перебор %d мс (%d)%n", query,
+                    indexed / 1_000_000.0, page.size(), scan / 1_000_000, scanned);
+        }
+    }
+
+    // Грубый перебор для сравнения: подстроки всех слов запроса, без OR.
+    private static boolean containsAll(Task task, String query) {
+        String text = (task.getName() + " " + task.getDescription()).toLowerCase().replace('ё', 'е');
+        for (String word : query.replace("*", "").split(" ")) {
+            if (!word.equals("OR") && !text.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import manager.InMemoryTaskManager;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskType;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Сравнивает выборку и удаление по типу через индекс id с прежним полным просмотром всех задач
+// на доске, где 95% задач — подзадачи.
+// Запуск: java benchmark.TypeIndexBenchmark [количество задач]
+public class TypeIndexBenchmark {
+    private static final int ROUNDS = 5;
+    private static final int READS = 200;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        ScanningManager manager = new ScanningManager();
+        fill(manager, size);
+        System.out.printf("Задач: %d, обычных: %d, эпиков: %d%n", manager.getAll().size(),
+                manager.getAllTasks().size(), manager.getAllEpics().size());
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Раунд " + round);
+            measure("  getAllTasks (просмотр)", READS, () -> manager.scanType(TaskType.TASK).size());
+            measure("  getAllTasks (индекс)  ", READS, () -> manager.getAllTasks().size());
+            measure("  getAllEpics (просмотр)", READS, () -> manager.scanType(TaskType.EPIC).size());
+            measure("  getAllEpics (индекс)  ", READS, () -> manager.getAllEpics().size());
+
+            ScanningManager scanned = new ScanningManager();
+            fill(scanned, size);
+            measure("  deleteAllTasks (просмотр)", 1, () -> {
+                scanned.scanDeleteTasks();
+                return scanned.getAll().size();
+            });
+            ScanningManager indexed = new ScanningManager();
+            fill(indexed, size);
+            measure("  deleteAllTasks (индекс)  ", 1, () -> {
+                indexed.deleteAllTasks();
+                return indexed.getAll().size();
+            });
+        }
+    }
+
+    private static void fill(InMemoryTaskManager manager, int size) {
+        int epics = Math.max(1, size / 40);
+        int plain = Math.max(1, size / 40);
+        int subtasksPerEpic = Math.max(1, (size - epics - plain) / epics);
+
+        for (int i = 0; i < plain; i++) {
+            manager.createTask(new Task("Задача " + i, "Описание", InMemoryTaskManager.getNewId()));
+        }
+        for (int e = 0; e < epics; e++) {
+            Epic epic = new Epic("Эпик " + e, "Описание", InMemoryTaskManager.getNewId());
+            manager.createTask(epic);
+            for (int s = 0; s < subtasksPerEpic; s++) {
+                manager.createTask(new Subtask("Подзадача " + s, "Описание", InMemoryTaskManager.getNewId(),
+                        epic.getId()));
+            }
+        }
+    }
+
+    private interface Body {
+        long run();
+    }
+
+    private static void measure(String name, int times, Body body) {
+        long result = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            result += body.run();
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / times;
+        System.out.printf("%s: %10.3f мс (%d)%n", name, millis, result);
+    }
+
+    // Прежняя реализация: фильтрация и удаление полным просмотром хранилища.
+    private static class ScanningManager extends InMemoryTaskManager {
+        List<Task> scanType(TaskType type) {
+            return tasks.values().stream()
+                    .filter(task -> task.getType() == type)
+                    .collect(Collectors.toList());
+        }
+
+        void scanDeleteTasks() {
+            tasks.entrySet().removeIf(entry -> {
+                Task task = entry.getValue();
+                if (task.getType() == TaskType.TASK) {
+                    getHistoryManager().remove(task.getId());
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import manager.InMemoryTaskManager;
+import manager.Managers;
+import manager.TaskManager;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+public class BatchHandlerTest {
+    private final TaskManager taskManager;
+    private final HttpTaskServer httpTaskServer;
+    private final Gson gson;
+    private final LocalDateTime startTime;
+
+    private HttpClient client;
+
+    public BatchHandlerTest() throws IOException {
+        this.taskManager = Managers.getDefault();
+        this.httpTaskServer = new HttpTaskServer(taskManager);
+        this.gson = new BaseHttpHandler().getGson();
+        this.startTime = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        this.client = HttpClient.newHttpClient();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        httpTaskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        httpTaskServer.stop();
+    }
+
+    @Test
+    public void shouldCreateMixedBatch() throws IOException, InterruptedException {
+        Epic epic = new Epic("Epic_1", "Description_1", InMemoryTaskManager.getNewId());
+        Subtask subtask = new Subtask("SubTask1", "Subtask 1", InMemoryTaskManager.getNewId(),
+                startTime, 60, epic.getId());
+        Task task = new Task("Task1", "Task 1", 0, startTime.plusHours(2), 30);
+
+        HttpResponse<String> response = sendPost("/batch", gson.toJson(List.of(epic, subtask, task)));
+
+        assertEquals(HttpCodeResponse.MODIFIED.getCode(), response.statusCode());
+        JsonArray ids = JsonParser.parseString(response.body()).getAsJsonArray();
+        assertEquals(3, ids.size());
+        assertEquals(epic.getId(), ids.get(0).getAsInt());
+        assertTrue(taskManager.getById(epic.getId()) instanceof Epic);
+        assertEquals(List.of(subtask), taskManager.getSubTaskByEpic(epic.getId()));
+        assertEquals("Task1", taskManager.getById(ids.get(2).getAsInt()).getName());
+    }
+
+    @Test
+    public void shouldRejectOverlappingBatchAsWhole() throws IOException, InterruptedException {
+        Task first = new Task("Task1", "Task 1", InMemoryTaskManager.getNewId(), startTime, 60);
+        Task second = new Task("Task2", "Task 2", InMemoryTaskManager.getNewId(), startTime.plusMinutes(30), 60);
+
+        HttpResponse<String> response = sendPost("/batch", gson.toJson(List.of(first, second)));
+
+        assertEquals(HttpCodeResponse.OVERLAP.getCode(), response.statusCode());
+        assertTrue(taskManager.getAll().isEmpty(), "Задачи из отклонённого пакета не должны сохраняться");
+    }
+
+    @Test
+    public void shouldReturnBadRequestForNonArrayBody() throws IOException, InterruptedException {
+        HttpResponse<String> response = sendPost("/batch", "{\"name\":\"Task\"}");
+
+        assertEquals(HttpCodeResponse.BAD_REQUEST.getCode(), response.statusCode());
+    }
+
+    private HttpResponse<String> sendPost(String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080" + path))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
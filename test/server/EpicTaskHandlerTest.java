@@ -1,6 +1,8 @@
 package server;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import manager.InMemoryTaskManager;
 import manager.Managers;
@@ -95,6 +97,21 @@ public class EpicTaskHandlerTest {
         assertEquals(epic2, receivedEpic, "Задачи не совпадают");
     }
 
+    @Test
+    public void shouldSendSubtasksOfEpicAsArrayInInsertionOrder() throws IOException, InterruptedException {
+        Epic epic2 = new Epic("Epic_2", "Description_2", InMemoryTaskManager.getNewId());
+        epic2.setSubTasks(List.of(subTask2, subTask1));
+        taskManager.createTask(epic2);
+
+        HttpResponse<String> response = sendGet("/epics/" + epic2.getId());
+
+        JsonArray subTasks = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("subTasks");
+        assertEquals(2, subTasks.size(), "Неверное количество подзадач");
+        assertEquals(subTask2.getId(), subTasks.get(0).getAsJsonObject().get("id").getAsInt());
+        Epic receivedEpic = gson.fromJson(response.body(), Epic.class);
+        assertEquals(List.of(subTask2, subTask1), receivedEpic.getSubTasks(), "Порядок подзадач изменился");
+    }
+
     @Test
     public void shouldReturnNotFoundForWrongEpicId() throws IOException, InterruptedException {
         taskManager.createTask(epic);
@@ -0,0 +1,75 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import manager.TimeSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreeSlotHandlerTest {
+
+    private TaskManager taskManager;
+    private HttpTaskServer taskServer;
+    private Gson gson;
+
+    private static final String SLOTS_URL = "http://localhost:8080/slots";
+
+    @BeforeEach
+    public void setup() throws IOException {
+        taskManager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(taskManager);
+        gson = new BaseHttpHandler().getGson();
+
+        taskManager.deleteAll();
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void shouldReturnFreeSlotsBetweenTasks() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2025, 5, 6, 10, 0);
+        taskManager.createTask(new Task("Task_1", "Description_1", InMemoryTaskManager.getNewId(), start, 60));
+        taskManager.createTask(new Task("Task_2", "Description_2", InMemoryTaskManager.getNewId(),
+                start.plusMinutes(90), 60));
+
+        HttpResponse<String> response = sendGet("?duration=30&from=2025-05-06T10:00&to=2025-05-06T13:00&limit=5");
+
+        assertEquals(HttpCodeResponse.OK.getCode(), response.statusCode());
+        List<TimeSlot> slots = gson.fromJson(response.body(), new TypeToken<List<TimeSlot>>() {}.getType());
+        assertEquals(List.of(new TimeSlot(start.plusMinutes(60), start.plusMinutes(90)),
+                new TimeSlot(start.plusMinutes(150), start.plusMinutes(180))), slots);
+    }
+
+    @Test
+    public void shouldReturn400WithoutWindow() throws IOException, InterruptedException {
+        HttpResponse<String> response = sendGet("?duration=30");
+
+        assertEquals(HttpCodeResponse.BAD_REQUEST.getCode(), response.statusCode(), "Ожидался код 400");
+    }
+
+    private HttpResponse<String> sendGet(String query) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(SLOTS_URL + query))
+                .GET()
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
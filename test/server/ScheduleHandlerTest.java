@@ -0,0 +1,120 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import manager.InMemoryTaskManager;
+import manager.Managers;
+import manager.TaskManager;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ScheduleHandlerTest {
+    private final TaskManager taskManager;
+    private final HttpTaskServer httpTaskServer;
+    private final Gson gson;
+    private final LocalDateTime startTime;
+
+    private HttpClient client;
+
+    public ScheduleHandlerTest() throws IOException {
+        this.taskManager = Managers.getDefault();
+        this.httpTaskServer = new HttpTaskServer(taskManager);
+        this.gson = new BaseHttpHandler().getGson();
+        this.startTime = LocalDateTime.of(2025, 5, 6, 10, 0);
+        this.client = HttpClient.newHttpClient();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        httpTaskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        httpTaskServer.stop();
+    }
+
+    @Test
+    public void shouldPlaceTasksAroundExistingSchedule() throws IOException, InterruptedException {
+        taskManager.createTask(new Task("Task1", "Task 1", InMemoryTaskManager.getNewId(), startTime, 60));
+        Task first = new Task("Task2", "Task 2", InMemoryTaskManager.getNewId());
+        first.setDuration(Duration.ofMinutes(30));
+        Task second = new Task("Task3", "Task 3", InMemoryTaskManager.getNewId());
+        second.setDuration(Duration.ofMinutes(45));
+        taskManager.createTasks(List.of(first, second));
+
+        JsonObject body = new JsonObject();
+        body.add("from", gson.toJsonTree(startTime));
+        JsonArray tasks = new JsonArray();
+        tasks.add(gson.toJsonTree(first));
+        JsonObject bounded = gson.toJsonTree(second).getAsJsonObject();
+        bounded.add("earliest", gson.toJsonTree(startTime.plusHours(2)));
+        tasks.add(bounded);
+        body.add("tasks", tasks);
+
+        HttpResponse<String> response = sendPost("/schedule", body.toString());
+
+        assertEquals(HttpCodeResponse.MODIFIED.getCode(), response.statusCode());
+        JsonObject result = JsonParser.parseString(response.body()).getAsJsonObject();
+        assertEquals(2, result.getAsJsonArray("scheduled").size());
+        assertEquals(0, result.getAsJsonArray("unplaced").size());
+        assertEquals(startTime.plusHours(1), taskManager.getById(first.getId()).getStartTime());
+        assertEquals(startTime.plusHours(2), taskManager.getById(second.getId()).getStartTime());
+    }
+
+    @Test
+    public void shouldAssignIdsToNewTasks() throws IOException, InterruptedException {
+        Task first = new Task("Task1", "Task 1", 0);
+        first.setDuration(Duration.ofMinutes(30));
+        Task second = new Task("Task2", "Task 2", 0);
+        second.setDuration(Duration.ofMinutes(60));
+
+        JsonObject body = new JsonObject();
+        body.add("from", gson.toJsonTree(startTime));
+        body.add("tasks", gson.toJsonTree(List.of(first, second)));
+
+        HttpResponse<String> response = sendPost("/schedule", body.toString());
+
+        assertEquals(HttpCodeResponse.MODIFIED.getCode(), response.statusCode());
+        JsonArray scheduled = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("scheduled");
+        assertEquals(2, scheduled.size());
+        // Более длинная задача ставится первой.
+        int secondId = scheduled.get(0).getAsJsonObject().get("id").getAsInt();
+        int firstId = scheduled.get(1).getAsJsonObject().get("id").getAsInt();
+        assertNotEquals(0, firstId);
+        assertNotEquals(0, secondId);
+        assertNotEquals(firstId, secondId);
+        assertEquals(2, taskManager.getAll().size());
+        assertEquals(startTime, taskManager.getById(secondId).getStartTime());
+        assertEquals(startTime.plusHours(1), taskManager.getById(firstId).getStartTime());
+    }
+
+    @Test
+    public void shouldReturn400WithoutTasks() throws IOException, InterruptedException {
+        HttpResponse<String> response = sendPost("/schedule", "{}");
+
+        assertEquals(HttpCodeResponse.BAD_REQUEST.getCode(), response.statusCode(), "Ожидался код 400");
+    }
+
+    private HttpResponse<String> sendPost(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080" + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,90 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchHandlerTest {
+
+    private TaskManager taskManager;
+    private HttpTaskServer taskServer;
+    private Gson gson;
+
+    private static final String SEARCH_URL = "http://localhost:8080/search";
+
+    @BeforeEach
+    public void setup() throws IOException {
+        taskManager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(taskManager);
+        gson = new BaseHttpHandler().getGson();
+
+        taskManager.deleteAll();
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void shouldFindTasksByWordsAndPageWithCursorHeader() throws IOException, InterruptedException {
+        Task report = new Task("Отчёт за май", "Сдать до пятницы", InMemoryTaskManager.getNewId());
+        Task review = new Task("Ревью отчета", "", InMemoryTaskManager.getNewId());
+        Task tree = new Task("Купить ёлку", "", InMemoryTaskManager.getNewId());
+        taskManager.createTask(report);
+        taskManager.createTask(review);
+        taskManager.createTask(tree);
+
+        HttpResponse<String> response = sendGet("?q=" + encode("ОТЧЕТ* OR елку") + "&limit=2");
+
+        assertEquals(HttpCodeResponse.OK.getCode(), response.statusCode());
+        assertEquals(List.of(report, review), parseTasks(response.body()));
+        String next = response.headers().firstValue(BaseHttpHandler.NEXT_CURSOR_HEADER).orElseThrow();
+
+        response = sendGet("?q=" + encode("ОТЧЕТ* OR елку") + "&limit=2&after=" + next);
+
+        assertEquals(List.of(tree), parseTasks(response.body()));
+        assertTrue(response.headers().firstValue(BaseHttpHandler.NEXT_CURSOR_HEADER).isEmpty(),
+                "Последняя страница не должна иметь курсора");
+    }
+
+    @Test
+    public void shouldReturn400ForEmptyQuery() throws IOException, InterruptedException {
+        HttpResponse<String> response = sendGet("?q=");
+
+        assertEquals(HttpCodeResponse.BAD_REQUEST.getCode(), response.statusCode(), "Ожидался код 400");
+    }
+
+    private List<Task> parseTasks(String body) {
+        return gson.fromJson(body, new TypeToken<List<Task>>() {}.getType());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse<String> sendGet(String query) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(SEARCH_URL + query))
+                .GET()
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
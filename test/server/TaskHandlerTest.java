@@ -120,6 +120,19 @@ public class TaskHandlerTest {
         assertEquals(1, taskManager.getAllTasks().size());
     }
 
+    @Test
+    public void shouldAssignIdsToTasksPostedWithoutId() throws IOException, InterruptedException {
+        Task first = new Task("Task_1", "Description_1", 0, startTime, 30);
+        Task second = new Task("Task_2", "Description_2", 0, startTime.plusHours(1), 30);
+
+        sendPost("/tasks", gson.toJson(first));
+        sendPost("/tasks", gson.toJson(second));
+
+        List<Task> tasks = taskManager.getAllTasks();
+        assertEquals(2, tasks.size(), "Задачи без id не должны затирать друг друга");
+        assertTrue(tasks.stream().noneMatch(task -> task.getId() == 0));
+    }
+
     @Test
     public void shouldUpdateExistingTask() throws IOException, InterruptedException {
         taskManager.createTask(task);
@@ -171,5 +184,42 @@ public class TaskHandlerTest {
         assertEquals(HttpCodeResponse.OK.getCode(), response.statusCode());
         assertTrue(taskManager.getAllTasks().isEmpty());
     }
-}
 
+    @Test
+    public void shouldFilterTasksByQueryParameters() throws IOException, InterruptedException {
+        taskManager.createTask(task);
+        Task done = new Task("Task_2", "Description_2", InMemoryTaskManager.getNewId(), startTime.plusHours(2), 60);
+        done.setStatus(TaskStatus.DONE);
+        taskManager.createTask(done);
+
+        HttpResponse<String> byStatus = sendGet("/tasks?status=done");
+        HttpResponse<String> byWindow = sendGet("/tasks?from=" + startTime.plusHours(1)
+                + "&to=" + startTime.plusHours(3));
+
+        assertEquals(HttpCodeResponse.OK.getCode(), byStatus.statusCode());
+        List<Task> doneTasks = gson.fromJson(byStatus.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of(done), doneTasks);
+        List<Task> inWindow = gson.fromJson(byWindow.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of(done), inWindow);
+        assertEquals(HttpCodeResponse.BAD_REQUEST.getCode(), sendGet("/tasks?status=unknown").statusCode());
+    }
+
+    @Test
+    public void shouldPageTasksWithCursorHeader() throws IOException, InterruptedException {
+        taskManager.createTask(task);
+        Task second = new Task("Task_2", "Description_2", InMemoryTaskManager.getNewId(), startTime.plusHours(2), 60);
+        Task third = new Task("Task_3", "Description_3", InMemoryTaskManager.getNewId(), startTime.plusHours(4), 60);
+        taskManager.createTask(second);
+        taskManager.createTask(third);
+
+        HttpResponse<String> first = sendGet("/tasks?limit=2");
+        List<Task> firstPage = gson.fromJson(first.body(), new TypeToken<List<Task>>() {}.getType());
+        String cursor = first.headers().firstValue("X-Next-Cursor").orElseThrow();
+        HttpResponse<String> last = sendGet("/tasks?limit=2&after=" + cursor);
+        List<Task> lastPage = gson.fromJson(last.body(), new TypeToken<List<Task>>() {}.getType());
+
+        assertEquals(List.of(task, second), firstPage);
+        assertEquals(List.of(third), lastPage);
+        assertTrue(last.headers().firstValue("X-Next-Cursor").isEmpty(), "У последней страницы нет курсора");
+    }
+}